@@ -0,0 +1,227 @@
+package com.filecraft.helloworld.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.regex.Pattern;
+
+/**
+ * Compares the scores of a JMH csv result with the stored baselines and exits with status 1 if
+ * any benchmark's throughput dropped by more than the threshold. A score only counts as dropped
+ * if the top of its confidence interval is below the threshold too, so that a noisy run does not
+ * fail the build by itself. Run by the benchmark profile.
+ *
+ * Usage: BaselineCheck <jmh-result.csv> <baseline.properties> <threshold> <update> <include>
+ *
+ * Keys are the benchmark name followed by its parameters, such as
+ * com.filecraft.helloworld.benchmark.QuizAnswerBenchmark.getQuizAnswers:deckSize=256. Benchmarks
+ * without a baseline are reported but do not fail. Baselines without a result fail if their
+ * benchmark matches the include regex passed to JMH, since it should have run, and are only
+ * reported otherwise. With update set to true the results are merged into the stored baselines
+ * instead, so that updating a subset keeps the baselines of the other benchmarks.
+ */
+public final class BaselineCheck {
+
+	private static final String BENCHMARK = "Benchmark";
+	private static final String SCORE = "Score";
+	private static final String SCORE_ERROR_PREFIX = "Score Error";
+	private static final String UNIT = "Unit";
+	private static final String PARAM_PREFIX = "Param: ";
+
+	private BaselineCheck() {
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 5) {
+			System.err.println("Usage: BaselineCheck <jmh-result.csv> <baseline.properties> " +
+					"<threshold> <update> <include>");
+			System.exit(2);
+		}
+		Map<String, String> units = new TreeMap<String, String>();
+		Map<String, Double> errors = new TreeMap<String, Double>();
+		Map<String, Double> scores = readResults(args[0], units, errors);
+		double threshold = Double.parseDouble(args[2]);
+		Pattern include = Pattern.compile(args[4]);
+		if (Boolean.parseBoolean(args[3])) {
+			Map<String, Double> merged = new TreeMap<String, Double>();
+			if (new File(args[1]).exists()) {
+				Properties baselines = readBaselines(args[1]);
+				for (String key : baselines.stringPropertyNames()) {
+					merged.put(key, Double.parseDouble(baselines.getProperty(key)));
+				}
+			}
+			merged.putAll(scores);
+			writeBaselines(args[1], merged);
+			System.out.println("Stored " + scores.size() + " of " + merged.size() +
+					" baselines in " + args[1]);
+			return;
+		}
+		Properties baselines = readBaselines(args[1]);
+		int regressions = 0;
+		for (Map.Entry<String, Double> entry : scores.entrySet()) {
+			String key = entry.getKey();
+			double score = entry.getValue();
+			String baseline = baselines.getProperty(key);
+			if (baseline == null) {
+				System.out.println(String.format("NEW   %s: %.3f %s", key, score, units.get(key)));
+				continue;
+			}
+			double expected = Double.parseDouble(baseline);
+			double change = (score - expected) / expected;
+			double bestCase = score + errors.get(key);
+			boolean regressed = bestCase < expected * (1 - threshold);
+			if (regressed) {
+				regressions++;
+			}
+			System.out.println(String.format("%s %s: %.3f %s, baseline %.3f (%+.1f%%)",
+					regressed ? "FAIL " : "OK   ", key, score, units.get(key), expected,
+					change * 100));
+		}
+		int missing = 0;
+		for (String key : new TreeSet<String>(baselines.stringPropertyNames())) {
+			if (scores.containsKey(key)) {
+				continue;
+			}
+			int paramsStart = key.indexOf(':');
+			String benchmark = paramsStart < 0 ? key : key.substring(0, paramsStart);
+			boolean expected = include.matcher(benchmark).find();
+			if (expected) {
+				missing++;
+			}
+			System.out.println(String.format("%s %s: no result", expected ? "MISSING" : "SKIP   ",
+					key));
+		}
+		if (regressions > 0 || missing > 0) {
+			if (regressions > 0) {
+				System.err.println(regressions + " benchmarks regressed by more than " +
+						Math.round(threshold * 100) + "%");
+			}
+			if (missing > 0) {
+				System.err.println(missing + " baselines have no result; remove them or " +
+						"store new baselines with -Dbaseline.update=true");
+			}
+			System.exit(1);
+		}
+	}
+
+	private static Properties readBaselines(String path) throws IOException {
+		Properties baselines = new Properties();
+		InputStream in = new FileInputStream(path);
+		try {
+			baselines.load(in);
+		} finally {
+			in.close();
+		}
+		return baselines;
+	}
+
+	/**
+	 * @param units Filled with the score unit of each key.
+	 * @param errors Filled with the half width of each score's confidence interval.
+	 * @return Score of each benchmark and parameter combination.
+	 */
+	private static Map<String, Double> readResults(String path, Map<String, String> units,
+			Map<String, Double> errors) throws IOException {
+		Map<String, Double> scores = new TreeMap<String, Double>();
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(path), StandardCharsets.UTF_8));
+		try {
+			String line = reader.readLine();
+			if (line == null) {
+				throw new IOException("Empty result file: " + path);
+			}
+			String[] header = split(line);
+			int benchmarkColumn = indexOf(header, BENCHMARK);
+			int scoreColumn = indexOf(header, SCORE);
+			int unitColumn = indexOf(header, UNIT);
+			int errorColumn = -1;
+			for (int i = 0; i < header.length; i++) {
+				if (header[i].startsWith(SCORE_ERROR_PREFIX)) {
+					errorColumn = i;
+				}
+			}
+			while ((line = reader.readLine()) != null) {
+				if (line.isEmpty()) {
+					continue;
+				}
+				String[] fields = split(line);
+				StringBuilder key = new StringBuilder(fields[benchmarkColumn]);
+				for (int i = 0; i < header.length; i++) {
+					if (header[i].startsWith(PARAM_PREFIX) && !fields[i].isEmpty()) {
+						key.append(':').append(header[i].substring(PARAM_PREFIX.length()))
+								.append('=').append(fields[i]);
+					}
+				}
+				scores.put(key.toString(), Double.parseDouble(fields[scoreColumn]));
+				units.put(key.toString(), fields[unitColumn]);
+				double error = errorColumn < 0 ? 0 : Double.parseDouble(fields[errorColumn]);
+				errors.put(key.toString(), Double.isNaN(error) ? 0 : error);
+			}
+		} finally {
+			reader.close();
+		}
+		return scores;
+	}
+
+	private static void writeBaselines(String path, Map<String, Double> scores)
+			throws IOException {
+		// Written by hand rather than with Properties.store() to keep the keys sorted
+		StringBuilder text = new StringBuilder();
+		text.append("# Throughput baselines checked by BaselineCheck. Regenerate with\n");
+		text.append("# mvn -f core/pom.xml verify -Pbenchmark -Dbaseline.update=true\n");
+		for (Map.Entry<String, Double> entry : scores.entrySet()) {
+			text.append(entry.getKey().replace(":", "\\:").replace("=", "\\="));
+			text.append('=').append(String.format(Locale.US, "%.3f", entry.getValue()));
+			text.append('\n');
+		}
+		OutputStream out = new FileOutputStream(path);
+		try {
+			out.write(text.toString().getBytes(StandardCharsets.ISO_8859_1));
+		} finally {
+			out.close();
+		}
+	}
+
+	private static int indexOf(String[] header, String name) throws IOException {
+		for (int i = 0; i < header.length; i++) {
+			if (header[i].equals(name)) {
+				return i;
+			}
+		}
+		throw new IOException("Column not found: " + name);
+	}
+
+	/**
+	 * Splits a line of JMH's csv output, whose fields may be quoted.
+	 */
+	private static String[] split(String line) {
+		ArrayList<String> fields = new ArrayList<String>();
+		StringBuilder field = new StringBuilder();
+		boolean quoted = false;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == '"') {
+				quoted = !quoted;
+			} else if (c == ',' && !quoted) {
+				fields.add(field.toString());
+				field.setLength(0);
+			} else {
+				field.append(c);
+			}
+		}
+		fields.add(field.toString());
+		return fields.toArray(new String[fields.size()]);
+	}
+}
@@ -0,0 +1,57 @@
+package com.filecraft.helloworld.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.filecraft.helloworld.CatalogTable;
+
+/**
+ * The table work of a CatalogSnapshot rebuild: building each table, which encodes and sorts its
+ * columns, carrying row versions over from the previous snapshot, and answering changes_since.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CatalogBuildBenchmark {
+
+	@Param({ "16", "1024" })
+	public int rowCount;
+
+	private CatalogTable _previous;
+	private CatalogTable _current;
+
+	@Setup
+	public void setUp() {
+		_previous = Catalogs.buildGridTable(rowCount, 0);
+		_current = Catalogs.buildGridTable(rowCount, 1).withVersions(_previous, 1);
+	}
+
+	@Benchmark
+	public CatalogTable build() {
+		return Catalogs.buildGridTable(rowCount, 0);
+	}
+
+	@Benchmark
+	public CatalogTable withVersions() {
+		return _current.withVersions(_previous, 2);
+	}
+
+	@Benchmark
+	public CatalogTable getChangesSince() {
+		return _current.getChangesSince(0);
+	}
+}
@@ -0,0 +1,34 @@
+package com.filecraft.helloworld.benchmark;
+
+import com.filecraft.helloworld.CatalogColumn;
+import com.filecraft.helloworld.CatalogTable;
+
+/**
+ * Synthetic catalog tables shaped like the ones CatalogSnapshot builds from the app's resources,
+ * which are not available off the device.
+ */
+final class Catalogs {
+
+	private Catalogs() {
+	}
+
+	/**
+	 * @param revision Changes the text of every fourth row, as if that many rows had been edited
+	 *        between two snapshots.
+	 */
+	static CatalogTable buildGridTable(int rowCount, int revision) {
+		CatalogTable.Builder builder = new CatalogTable.Builder(rowCount);
+		for (int row = 0; row < rowCount; row++) {
+			String text = "Item " + ((row * 7919) % rowCount);
+			if (revision > 0 && row % 4 == 0) {
+				text += " (" + revision + ")";
+			}
+			builder.setString(CatalogColumn.CONTENT_PATH, row, "res/drawable/grid_" + row + ".svg")
+					.setInt(CatalogColumn.CONTENT_TYPE, row, row % 3)
+					.setString(CatalogColumn.TEXT, row, text)
+					.setInt(CatalogColumn.ACTION_TYPE, row, row % 5)
+					.setString(CatalogColumn.ACTION_ID, row, "action_" + row);
+		}
+		return builder.build();
+	}
+}
@@ -0,0 +1,96 @@
+package com.filecraft.helloworld.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.filecraft.helloworld.CatalogColumn;
+import com.filecraft.helloworld.CatalogTable;
+
+/**
+ * Cell reads the way CustomCursor serves them: the projection is compiled to column ids once,
+ * and each cursor position is mapped to a table row, directly or through a sort order. Each
+ * invocation reads every cell of the table once.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class CellAccessBenchmark {
+
+	/**
+	 * Columns of the grid table's projection.
+	 */
+	private static final int[] PROJECTION = { CatalogColumn.ID, CatalogColumn.CONTENT_PATH,
+			CatalogColumn.CONTENT_TYPE, CatalogColumn.TEXT, CatalogColumn.ACTION_TYPE,
+			CatalogColumn.ACTION_ID, CatalogColumn.VERSION };
+
+	@Param({ "16", "1024" })
+	public int rowCount;
+
+	private CatalogTable _table;
+	private int[] _types;
+	private int[] _sortedRows;
+
+	@Setup
+	public void setUp() {
+		_table = Catalogs.buildGridTable(rowCount, 0);
+		_types = new int[PROJECTION.length];
+		for (int i = 0; i < PROJECTION.length; i++) {
+			_types[i] = CatalogColumn.getType(PROJECTION[i]);
+		}
+		_sortedRows = _table.getSortedRows(CatalogColumn.TEXT);
+	}
+
+	@Benchmark
+	public void readRows(Blackhole blackhole) {
+		for (int row = 0; row < rowCount; row++) {
+			readRow(row, blackhole);
+		}
+	}
+
+	@Benchmark
+	public void readSortedRows(Blackhole blackhole) {
+		for (int position = 0; position < rowCount; position++) {
+			readRow(_sortedRows[position], blackhole);
+		}
+	}
+
+	/**
+	 * Sizes a window fill before writing it, as CustomCursor.fillWindow() does.
+	 */
+	@Benchmark
+	public int sizeWindow() {
+		int bytes = 0;
+		for (int row = 0; row < rowCount; row++) {
+			for (int i = 0; i < PROJECTION.length; i++) {
+				bytes += _types[i] == CatalogColumn.TYPE_STRING ?
+						_table.getStringBytes(PROJECTION[i], row) : 8;
+			}
+		}
+		return bytes;
+	}
+
+	private void readRow(int row, Blackhole blackhole) {
+		for (int i = 0; i < PROJECTION.length; i++) {
+			if (_types[i] == CatalogColumn.TYPE_STRING) {
+				blackhole.consume(_table.getString(PROJECTION[i], row));
+			} else {
+				blackhole.consume(_table.getLong(PROJECTION[i], row));
+			}
+		}
+	}
+}
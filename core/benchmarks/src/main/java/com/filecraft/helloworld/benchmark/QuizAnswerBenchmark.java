@@ -0,0 +1,69 @@
+package com.filecraft.helloworld.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.filecraft.helloworld.QuizAnswer;
+import com.filecraft.helloworld.QuizDeck;
+import com.filecraft.helloworld.tools.QuizDeckWriter;
+
+/**
+ * Drawing the answers of one quiz question from decks of growing size. The time should stay
+ * flat as the deck grows, since only the drawn entries are read.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class QuizAnswerBenchmark {
+
+	private static final int ANSWER_COUNT = 4;
+
+	@Param({ "16", "256", "4096", "65536" })
+	public int deckSize;
+
+	private QuizDeck _deck;
+	private Random _random;
+	private int _ordinal;
+
+	@Setup
+	public void setUp() throws IOException {
+		String[][] entries = new String[deckSize][];
+		for (int i = 0; i < deckSize; i++) {
+			entries[i] = new String[] { "word_" + i, "Word " + i, "単語 " + i };
+		}
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		QuizDeckWriter.write(entries, out);
+		_deck = QuizDeck.wrap(ByteBuffer.wrap(out.toByteArray()));
+		_random = new Random(42);
+	}
+
+	@Benchmark
+	public QuizAnswer[] getQuizAnswers() {
+		_ordinal = (_ordinal + 1) % deckSize;
+		return QuizAnswer.getQuizAnswers(_deck, _ordinal, ANSWER_COUNT, false, _random);
+	}
+
+	@Benchmark
+	public QuizAnswer[] getQuizAnswersInJapanese() {
+		_ordinal = (_ordinal + 1) % deckSize;
+		return QuizAnswer.getQuizAnswers(_deck, _ordinal, ANSWER_COUNT, true, _random);
+	}
+}
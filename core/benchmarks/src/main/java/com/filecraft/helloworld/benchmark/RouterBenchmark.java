@@ -0,0 +1,84 @@
+package com.filecraft.helloworld.benchmark;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.filecraft.helloworld.PathRouter;
+
+/**
+ * Routing of the providers' table paths by PathRouter, as in UriRouter, against the UriMatcher
+ * algorithm FileCraftContract.URI_MATCHER uses. Each invocation routes one path of every kind.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class RouterBenchmark {
+
+	private static final String AUTHORITY = "com.filecraft.helloworld.custom.cursor.a";
+
+	/**
+	 * Table names and ids of FileCraftContract.UriMatcherEntry.
+	 */
+	private static final String[] TABLES = { "list", "grid", "gallery", "view", "quiz",
+			"quiz_questions", "quiz_answers", "search" };
+	private static final String SEARCH_SUGGEST = "search_suggest_query";
+	private static final int SEARCH_SUGGEST_ID = 809;
+
+	private static final String[] PATHS = { "/list", "/list/3", "/grid", "/grid/12", "/gallery/7",
+			"/view", "/quiz", "/quiz_questions/4", "/quiz_answers", "/search",
+			"/search_suggest_query/hello", "/unknown/1" };
+
+	private PathRouter<Integer> _router;
+	private UriMatcherPort _matcher;
+
+	@Setup
+	public void setUp() {
+		_router = new PathRouter<Integer>(AUTHORITY);
+		_matcher = new UriMatcherPort();
+		for (int i = 0; i < TABLES.length; i++) {
+			int dirId = i * 2;
+			int itemId = i * 2 + 1;
+			_router.addDirEntry(TABLES[i], dirId, false);
+			_router.addItemEntry(TABLES[i], itemId);
+			_matcher.addUri(AUTHORITY, TABLES[i], dirId);
+			_matcher.addUri(AUTHORITY, TABLES[i] + "/#", itemId);
+		}
+		_router.addDirEntry(SEARCH_SUGGEST, SEARCH_SUGGEST_ID, true);
+		_matcher.addUri(AUTHORITY, SEARCH_SUGGEST + "/*", SEARCH_SUGGEST_ID);
+	}
+
+	@Benchmark
+	public void pathRouter(Blackhole blackhole) {
+		for (String path : PATHS) {
+			blackhole.consume(_router.match(AUTHORITY, path));
+		}
+	}
+
+	@Benchmark
+	public void uriMatcher(Blackhole blackhole) {
+		for (String path : PATHS) {
+			blackhole.consume(_matcher.match(AUTHORITY, path));
+		}
+	}
+
+	@Benchmark
+	public void pathRouterPosition(Blackhole blackhole) {
+		for (String path : PATHS) {
+			blackhole.consume(PathRouter.getPosition(path));
+		}
+	}
+}
@@ -0,0 +1,123 @@
+package com.filecraft.helloworld.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Port of android.content.UriMatcher to the plain JVM, as the baseline PathRouter is measured
+ * against. Keeps its algorithm: the path is split into a new list of segments on every match,
+ * which is then walked down a tree of children compared one by one. Segments are not decoded,
+ * which only makes the port faster than the original.
+ */
+final class UriMatcherPort {
+
+	static final int NO_MATCH = -1;
+
+	private static final int EXACT = 0;
+	private static final int NUMBER = 1;
+	private static final int TEXT = 2;
+
+	private int _code;
+	private final int _which;
+	private final String _text;
+	private final ArrayList<UriMatcherPort> _children = new ArrayList<UriMatcherPort>();
+
+	UriMatcherPort() {
+		this(NO_MATCH, EXACT, null);
+	}
+
+	private UriMatcherPort(int code, int which, String text) {
+		_code = code;
+		_which = which;
+		_text = text;
+	}
+
+	void addUri(String authority, String path, int code) {
+		String[] tokens = path == null ? new String[0] : path.split("/");
+		UriMatcherPort node = this;
+		for (int i = -1; i < tokens.length; i++) {
+			String token = i < 0 ? authority : tokens[i];
+			UriMatcherPort child = null;
+			for (UriMatcherPort candidate : node._children) {
+				if (token.equals(candidate._text)) {
+					child = candidate;
+					break;
+				}
+			}
+			if (child == null) {
+				int which = token.equals("#") ? NUMBER : token.equals("*") ? TEXT : EXACT;
+				child = new UriMatcherPort(NO_MATCH, which, token);
+				node._children.add(child);
+			}
+			node = child;
+		}
+		node._code = code;
+	}
+
+	int match(String authority, String path) {
+		List<String> segments = getPathSegments(path);
+		UriMatcherPort node = this;
+		for (int i = -1; i < segments.size(); i++) {
+			String segment = i < 0 ? authority : segments.get(i);
+			ArrayList<UriMatcherPort> children = node._children;
+			if (children.isEmpty()) {
+				break;
+			}
+			node = null;
+			for (int j = 0; j < children.size() && node == null; j++) {
+				UriMatcherPort child = children.get(j);
+				switch (child._which) {
+				case EXACT:
+					if (child._text.equals(segment)) {
+						node = child;
+					}
+					break;
+				case NUMBER:
+					if (isNumber(segment)) {
+						node = child;
+					}
+					break;
+				default:
+					node = child;
+					break;
+				}
+			}
+			if (node == null) {
+				return NO_MATCH;
+			}
+		}
+		return node._code;
+	}
+
+	private static boolean isNumber(String segment) {
+		for (int i = 0; i < segment.length(); i++) {
+			char c = segment.charAt(i);
+			if (c < '0' || c > '9') {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Same as Uri.getPathSegments(): non-empty segments between slashes.
+	 */
+	private static List<String> getPathSegments(String path) {
+		ArrayList<String> segments = new ArrayList<String>();
+		if (path == null) {
+			return segments;
+		}
+		int start = 0;
+		int end;
+		while ((end = path.indexOf('/', start)) > -1) {
+			if (start < end) {
+				segments.add(path.substring(start, end));
+			}
+			start = end + 1;
+		}
+		if (start < path.length()) {
+			segments.add(path.substring(start));
+		}
+		return segments;
+	}
+}
@@ -0,0 +1,71 @@
+package com.filecraft.helloworld;
+
+import java.util.Arrays;
+
+/**
+ * Integer ids for every column served by the CustomCursor. Projections are resolved to these ids
+ * once per query (see CatalogSchema) so that reading a cell is a switch on a primitive instead of
+ * a chain of String.equals() calls.
+ */
+public final class CatalogColumn {
+
+	public static final int ID = 0;
+	public static final int CONTENT_PATH = 1;
+	public static final int CONTENT_TYPE = 2;
+	public static final int TEXT = 3;
+	public static final int ACTION_TYPE = 4;
+	public static final int ACTION_ID = 5;
+	public static final int VERSION = 6;
+	public static final int LIST_NAME = 7;
+	public static final int LIST_SUBTEXT = 8;
+	public static final int VIEW_URI = 9;
+	public static final int TITLE = 10;
+	public static final int DESCRIPTION = 11;
+	public static final int QUIZ_QUESTION = 12;
+	public static final int QUIZ_SUBTEXT = 13;
+	public static final int ANSWER_TEXT = 14;
+	public static final int IS_CORRECT_ANSWER = 15;
+	public static final int SOURCE_TABLE = 16;
+	public static final int SUBTITLE = 17;
+	public static final int SUGGEST_TEXT_1 = 18;
+	public static final int SUGGEST_TEXT_2 = 19;
+	public static final int SUGGEST_INTENT_EXTRA_DATA = 20;
+	public static final int DELETED = 21;
+
+	/**
+	 * Number of column ids. All ids are below 32 so a set of columns fits in an int mask.
+	 */
+	public static final int COUNT = 22;
+
+	/**
+	 * Column types. Same values as Cursor.FIELD_TYPE_INTEGER and Cursor.FIELD_TYPE_STRING, so that
+	 * getType() can be returned from Cursor.getType() as is.
+	 */
+	public static final int TYPE_INTEGER = 1;
+	public static final int TYPE_STRING = 3;
+
+	private static final int[] TYPES = new int[COUNT];
+	static {
+		Arrays.fill(TYPES, TYPE_STRING);
+		TYPES[CONTENT_TYPE] = TYPE_INTEGER;
+		TYPES[ACTION_TYPE] = TYPE_INTEGER;
+		TYPES[VERSION] = TYPE_INTEGER;
+		TYPES[IS_CORRECT_ANSWER] = TYPE_INTEGER;
+		TYPES[DELETED] = TYPE_INTEGER;
+	}
+
+	/**
+	 * Columns a table can be sorted by, besides the row position.
+	 */
+	static final int[] SORTABLE_COLUMNS = { TEXT, CONTENT_TYPE, ACTION_TYPE, LIST_NAME };
+
+	private CatalogColumn() {
+	}
+
+	/**
+	 * @return TYPE_INTEGER or TYPE_STRING.
+	 */
+	public static int getType(int columnId) {
+		return TYPES[columnId];
+	}
+}
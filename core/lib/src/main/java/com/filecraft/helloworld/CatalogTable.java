@@ -0,0 +1,400 @@
+package com.filecraft.helloworld;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Immutable table of rows stored as parallel column arrays indexed by CatalogColumn id. String
+ * columns are String[] and type code columns are int[]. Columns a table does not have are null.
+ *
+ * Tables are shared between every cursor and ContentProvider in the process, so nothing may
+ * write to the arrays once the table has been built.
+ */
+public final class CatalogTable {
+
+	private final int _rowCount;
+	private final String[][] _stringColumns;
+	private final int[][] _intColumns;
+
+	/**
+	 * Encoded size of each string cell in a CursorWindow (UTF-8 bytes plus the terminator), used
+	 * to size window fills before writing any rows.
+	 */
+	private final int[][] _stringBytes;
+
+	/**
+	 * Rows in ascending order of each sortable column (ORDER_ROWS), and the index of each row in
+	 * that order (ORDER_RANKS). Built on first use, since most tables are never sorted: search
+	 * results, quiz tables and changes_since deltas are built for a single query.
+	 */
+	private final AtomicReferenceArray<int[][]> _orders =
+			new AtomicReferenceArray<int[][]>(CatalogColumn.COUNT);
+	private static final int ORDER_ROWS = 0;
+	private static final int ORDER_RANKS = 1;
+
+	/**
+	 * Generation each position past the last row was removed in. Positions removed from a table
+	 * stay here as tombstones so that changes_since queries can report them.
+	 */
+	private final int[] _removedVersions;
+
+	private CatalogTable(int rowCount, String[][] stringColumns, int[][] intColumns,
+			int[] removedVersions) {
+		_rowCount = rowCount;
+		_stringColumns = stringColumns;
+		_intColumns = intColumns;
+		_removedVersions = removedVersions;
+		_stringBytes = new int[stringColumns.length][];
+		for (int columnId = 0; columnId < stringColumns.length; columnId++) {
+			String[] column = stringColumns[columnId];
+			if (column != null) {
+				int[] bytes = new int[rowCount];
+				for (int row = 0; row < rowCount; row++) {
+					bytes[row] = column[row] == null ? 0 : getUtf8Length(column[row]) + 1;
+				}
+				_stringBytes[columnId] = bytes;
+			}
+		}
+	}
+
+	public int getRowCount() {
+		return _rowCount;
+	}
+
+	public boolean hasColumn(int columnId) {
+		return _stringColumns[columnId] != null || _intColumns[columnId] != null;
+	}
+
+	public String getString(int columnId, int row) {
+		String[] column = _stringColumns[columnId];
+		if (column != null) {
+			return column[row];
+		}
+		int[] intColumn = _intColumns[columnId];
+		return intColumn == null ? null : String.valueOf(intColumn[row]);
+	}
+
+	public long getLong(int columnId, int row) {
+		int[] column = _intColumns[columnId];
+		return column == null ? -1 : column[row];
+	}
+
+	/**
+	 * @return Number of bytes the string cell takes up in a CursorWindow. Zero for integer and
+	 *         null cells.
+	 */
+	public int getStringBytes(int columnId, int row) {
+		int[] bytes = _stringBytes[columnId];
+		return bytes == null ? 0 : bytes[row];
+	}
+
+	/**
+	 * @return Rows in ascending order of the column, with equal values in row order, or null if
+	 *         the table cannot be sorted by the column. Shared, so it must not be modified.
+	 */
+	public int[] getSortedRows(int columnId) {
+		int[][] order = getOrder(columnId);
+		return order == null ? null : order[ORDER_ROWS];
+	}
+
+	/**
+	 * @return Index of the row in getSortedRows(columnId).
+	 */
+	public int getRank(int columnId, int row) {
+		return getOrder(columnId)[ORDER_RANKS][row];
+	}
+
+	/**
+	 * @return Sorted rows and ranks of the column, or null if the table cannot be sorted by it.
+	 *         Threads racing to build the same order build equal ones, and the first is kept.
+	 */
+	private int[][] getOrder(int columnId) {
+		int[][] order = _orders.get(columnId);
+		if (order != null || !isSortable(columnId)) {
+			return order;
+		}
+		int[] sorted = _stringColumns[columnId] != null ? sortRows(_stringColumns[columnId]) :
+				sortRows(_intColumns[columnId]);
+		int[] ranks = new int[_rowCount];
+		for (int i = 0; i < _rowCount; i++) {
+			ranks[sorted[i]] = i;
+		}
+		_orders.compareAndSet(columnId, null, new int[][] { sorted, ranks });
+		return _orders.get(columnId);
+	}
+
+	private boolean isSortable(int columnId) {
+		if (!hasColumn(columnId)) {
+			return false;
+		}
+		for (int sortable : CatalogColumn.SORTABLE_COLUMNS) {
+			if (sortable == columnId) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return Generation the row was added or last changed in.
+	 */
+	public int getVersion(int row) {
+		return _intColumns[CatalogColumn.VERSION][row];
+	}
+
+	/**
+	 * @return Copy of this table whose row versions carry on from the previous table of the
+	 *         same action id. Unchanged rows keep their version, and changed or added rows get
+	 *         the generation. Positions of the previous table past this table's last row become
+	 *         tombstones of the generation.
+	 */
+	public CatalogTable withVersions(CatalogTable previous, int generation) {
+		int[] versions = new int[_rowCount];
+		for (int row = 0; row < _rowCount; row++) {
+			versions[row] = row < previous._rowCount && hasSameRow(previous, row) ?
+					previous.getVersion(row) : generation;
+		}
+		int previousEnd = previous._rowCount + previous._removedVersions.length;
+		int[] removedVersions = new int[Math.max(0, previousEnd - _rowCount)];
+		for (int i = 0; i < removedVersions.length; i++) {
+			int position = _rowCount + i;
+			removedVersions[i] = position < previous._rowCount ? generation :
+					previous._removedVersions[position - previous._rowCount];
+		}
+		int[][] intColumns = _intColumns.clone();
+		intColumns[CatalogColumn.VERSION] = versions;
+		return new CatalogTable(_rowCount, _stringColumns, intColumns, removedVersions);
+	}
+
+	/**
+	 * @return True if every column but the version has the same value in the row of both tables.
+	 */
+	private boolean hasSameRow(CatalogTable other, int row) {
+		for (int columnId = 0; columnId < CatalogColumn.COUNT; columnId++) {
+			if (columnId == CatalogColumn.VERSION) {
+				continue;
+			}
+			String[] strings = _stringColumns[columnId];
+			String[] otherStrings = other._stringColumns[columnId];
+			if ((strings == null) != (otherStrings == null) ||
+					(strings != null && !equals(strings[row], otherStrings[row]))) {
+				return false;
+			}
+			int[] ints = _intColumns[columnId];
+			int[] otherInts = other._intColumns[columnId];
+			if ((ints == null) != (otherInts == null) ||
+					(ints != null && ints[row] != otherInts[row])) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private static boolean equals(String lhs, String rhs) {
+		return lhs == null ? rhs == null : lhs.equals(rhs);
+	}
+
+	/**
+	 * @return True if a row was added, changed or removed after the generation.
+	 */
+	public boolean hasChangesSince(int generation) {
+		for (int row = 0; row < _rowCount; row++) {
+			if (getVersion(row) > generation) {
+				return true;
+			}
+		}
+		for (int version : _removedVersions) {
+			if (version > generation) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return Table of the rows added or changed after the generation followed by a tombstone
+	 *         row for each position removed after it, all in position order. _id holds the
+	 *         position of each row in this table, and the deleted column marks tombstones. Only
+	 *         _id, version and deleted are set in tombstones.
+	 */
+	public CatalogTable getChangesSince(int generation) {
+		int count = 0;
+		for (int row = 0; row < _rowCount; row++) {
+			if (getVersion(row) > generation) {
+				count++;
+			}
+		}
+		for (int version : _removedVersions) {
+			if (version > generation) {
+				count++;
+			}
+		}
+		Builder builder = new Builder(count);
+		int deltaRow = 0;
+		for (int row = 0; row < _rowCount; row++) {
+			if (getVersion(row) <= generation) {
+				continue;
+			}
+			for (int columnId = 0; columnId < CatalogColumn.COUNT; columnId++) {
+				if (_stringColumns[columnId] != null) {
+					builder.setString(columnId, deltaRow, _stringColumns[columnId][row]);
+				} else if (_intColumns[columnId] != null) {
+					builder.setInt(columnId, deltaRow, _intColumns[columnId][row]);
+				}
+			}
+			deltaRow++;
+		}
+		for (int i = 0; i < _removedVersions.length; i++) {
+			if (_removedVersions[i] <= generation) {
+				continue;
+			}
+			builder.setString(CatalogColumn.ID, deltaRow, String.valueOf(_rowCount + i))
+					.setInt(CatalogColumn.VERSION, deltaRow, _removedVersions[i])
+					.setInt(CatalogColumn.DELETED, deltaRow, 1);
+			deltaRow++;
+		}
+		return builder.build();
+	}
+
+	public boolean isNull(int columnId, int row) {
+		String[] column = _stringColumns[columnId];
+		if (column != null) {
+			return column[row] == null;
+		}
+		return _intColumns[columnId] == null;
+	}
+
+	/**
+	 * Sorts the rows of a string column the way sqlite does with the BINARY collation, with null
+	 * before every string. See compareBinary().
+	 */
+	private static int[] sortRows(final String[] column) {
+		Integer[] rows = new Integer[column.length];
+		for (int row = 0; row < rows.length; row++) {
+			rows[row] = row;
+		}
+		// Arrays.sort() of objects is stable, so equal values stay in row order
+		Arrays.sort(rows, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer lhs, Integer rhs) {
+				String left = column[lhs];
+				String right = column[rhs];
+				if (left == null || right == null) {
+					return left == null ? (right == null ? 0 : -1) : 1;
+				}
+				return compareBinary(left, right);
+			}
+		});
+		int[] sorted = new int[rows.length];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = rows[i];
+		}
+		return sorted;
+	}
+
+	/**
+	 * Compares strings the way sqlite's BINARY collation compares their UTF-8 bytes, which is
+	 * code point order. String.compareTo() compares UTF-16 chars instead, which puts supplementary
+	 * characters (surrogate pairs) before U+E000 to U+FFFF.
+	 */
+	public static int compareBinary(String lhs, String rhs) {
+		int length = Math.min(lhs.length(), rhs.length());
+		for (int i = 0; i < length; i++) {
+			char left = lhs.charAt(i);
+			char right = rhs.charAt(i);
+			if (left != right) {
+				return toCodePointOrder(left) - toCodePointOrder(right);
+			}
+		}
+		return lhs.length() - rhs.length();
+	}
+
+	/**
+	 * @return Key of a UTF-16 char that sorts in code point order: surrogates, which only encode
+	 *         code points above U+FFFF, move past U+E000 to U+FFFF.
+	 */
+	private static int toCodePointOrder(char c) {
+		if (c < 0xD800) {
+			return c;
+		}
+		return c >= 0xE000 ? c - 0x800 : c + 0x2000;
+	}
+
+	/**
+	 * Sorts the rows of an integer column. Each value is packed with its row into one long, so
+	 * equal values stay in row order without boxing.
+	 */
+	private static int[] sortRows(int[] column) {
+		long[] keys = new long[column.length];
+		for (int row = 0; row < keys.length; row++) {
+			keys[row] = ((long) column[row] << 32) | row;
+		}
+		Arrays.sort(keys);
+		int[] sorted = new int[keys.length];
+		for (int i = 0; i < sorted.length; i++) {
+			sorted[i] = (int) keys[i];
+		}
+		return sorted;
+	}
+
+	private static int getUtf8Length(String value) {
+		int length = 0;
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < 0x80) {
+				length += 1;
+			} else if (c < 0x800) {
+				length += 2;
+			} else if (Character.isHighSurrogate(c)) {
+				length += 4;
+				i++;
+			} else {
+				length += 3;
+			}
+		}
+		return length;
+	}
+
+	/**
+	 * Fills the column arrays of a table. Every table gets the _id, version and deleted columns.
+	 */
+	public static final class Builder {
+		private static final int[] NO_REMOVED_ROWS = new int[0];
+
+		private final int _rowCount;
+		private final String[][] _stringColumns = new String[CatalogColumn.COUNT][];
+		private final int[][] _intColumns = new int[CatalogColumn.COUNT][];
+
+		public Builder(int rowCount) {
+			_rowCount = rowCount;
+			String[] ids = new String[rowCount];
+			for (int i = 0; i < rowCount; i++) {
+				ids[i] = String.valueOf(i);
+			}
+			_stringColumns[CatalogColumn.ID] = ids;
+			_intColumns[CatalogColumn.VERSION] = new int[rowCount];
+			_intColumns[CatalogColumn.DELETED] = new int[rowCount];
+		}
+
+		public Builder setString(int columnId, int row, String value) {
+			if (_stringColumns[columnId] == null) {
+				_stringColumns[columnId] = new String[_rowCount];
+			}
+			_stringColumns[columnId][row] = value;
+			return this;
+		}
+
+		public Builder setInt(int columnId, int row, int value) {
+			if (_intColumns[columnId] == null) {
+				_intColumns[columnId] = new int[_rowCount];
+			}
+			_intColumns[columnId][row] = value;
+			return this;
+		}
+
+		public CatalogTable build() {
+			return new CatalogTable(_rowCount, _stringColumns, _intColumns, NO_REMOVED_ROWS);
+		}
+	}
+}
@@ -0,0 +1,184 @@
+package com.filecraft.helloworld;
+
+import java.util.HashSet;
+
+/**
+ * Routes the authority and path of a content uri to a table entry without allocating: the table
+ * name is hashed in place and the position segment is parsed straight from the path, where
+ * UriMatcher splits the path into a new list of segments on every call.
+ *
+ * Paths are expected in the form <table>[/<position>] or, for tables with a text segment,
+ * <table>/<text>. Tables are added while the router is set up, and it is read only after that.
+ *
+ * @param <E> Type of the table entries.
+ */
+public final class PathRouter<E> {
+
+	public static final int NO_POSITION = -1;
+
+	/**
+	 * Open addressed hash table of table names. Each slot holds the directory entry and the item
+	 * entry for one table. Kept at most half full so that probes stay short.
+	 */
+	private static final int SLOT_COUNT = 32;
+	private static final int MAX_TABLES = SLOT_COUNT / 2;
+
+	private final HashSet<String> _authorities = new HashSet<String>();
+	private final String[] _slotNames = new String[SLOT_COUNT];
+	private final Object[] _slotDirEntries = new Object[SLOT_COUNT];
+	private final Object[] _slotItemEntries = new Object[SLOT_COUNT];
+	private final boolean[] _slotTextSegments = new boolean[SLOT_COUNT];
+	private int _tableCount = 0;
+
+	public PathRouter(String... authorities) {
+		for (String authority : authorities) {
+			_authorities.add(authority);
+		}
+	}
+
+	/**
+	 * Sets the entry of content://<authority>/<table>.
+	 *
+	 * @param hasTextSegment True if any text may follow the table name, such as a search query.
+	 *        The entry then matches with or without it.
+	 */
+	public void addDirEntry(String tableName, E entry, boolean hasTextSegment) {
+		int slot = addTable(tableName);
+		_slotDirEntries[slot] = entry;
+		_slotTextSegments[slot] = hasTextSegment;
+	}
+
+	/**
+	 * Sets the entry of content://<authority>/<table>/<position>.
+	 */
+	public void addItemEntry(String tableName, E entry) {
+		_slotItemEntries[addTable(tableName)] = entry;
+	}
+
+	private int addTable(String tableName) {
+		int slot = findSlot(tableName, 0, tableName.length());
+		if (_slotNames[slot] == null) {
+			if (_tableCount == MAX_TABLES) {
+				throw new IllegalStateException("Too many tables: " + tableName);
+			}
+			_slotNames[slot] = tableName;
+			_tableCount++;
+		}
+		return slot;
+	}
+
+	public boolean isAuthority(String authority) {
+		return _authorities.contains(authority);
+	}
+
+	/**
+	 * @return Matching entry or null if the path does not belong to one of the tables.
+	 */
+	@SuppressWarnings("unchecked")
+	public E match(String authority, String path) {
+		if (!_authorities.contains(authority) || path == null) {
+			return null;
+		}
+		int start = path.startsWith("/") ? 1 : 0;
+		int end = path.indexOf('/', start);
+		if (end < 0) {
+			end = path.length();
+		}
+		int slot = findSlot(path, start, end);
+		if (_slotNames[slot] == null) {
+			return null;
+		}
+		if (_slotTextSegments[slot]) {
+			// Any text, including none
+			return (E) _slotDirEntries[slot];
+		}
+		if (end >= path.length() - 1) {
+			// No position segment or only a trailing slash
+			return (E) _slotDirEntries[slot];
+		}
+		return parsePosition(path, end + 1) == NO_POSITION ? null : (E) _slotItemEntries[slot];
+	}
+
+	/**
+	 * @return Row position at the end of a <table>/<position> path, or NO_POSITION if the path
+	 *         does not end with one.
+	 */
+	public static int getPosition(String path) {
+		if (path == null) {
+			return NO_POSITION;
+		}
+		int start = path.startsWith("/") ? 1 : 0;
+		int end = path.indexOf('/', start);
+		if (end < 0 || end >= path.length() - 1) {
+			return NO_POSITION;
+		}
+		return parsePosition(path, end + 1);
+	}
+
+	/**
+	 * @return Id in a <prefix>/<id> path of one of the authorities, or NO_POSITION if the path
+	 *         does not have that form.
+	 */
+	public int getFileId(String authority, String path, String prefix) {
+		if (!_authorities.contains(authority) || path == null) {
+			return NO_POSITION;
+		}
+		int start = path.startsWith("/") ? 1 : 0;
+		int end = start + prefix.length();
+		if (end >= path.length() - 1 || path.charAt(end) != '/' ||
+				!path.regionMatches(start, prefix, 0, prefix.length())) {
+			return NO_POSITION;
+		}
+		return parsePosition(path, end + 1);
+	}
+
+	/**
+	 * @return True if the path is exactly the name, ignoring leading and trailing slashes, and the
+	 *         authority is one of the router's.
+	 */
+	public boolean isPath(String authority, String path, String name) {
+		if (!_authorities.contains(authority) || path == null) {
+			return false;
+		}
+		int start = path.startsWith("/") ? 1 : 0;
+		int end = path.endsWith("/") ? path.length() - 1 : path.length();
+		return end - start == name.length() && path.regionMatches(start, name, 0, name.length());
+	}
+
+	private static int parsePosition(String path, int start) {
+		int length = path.length();
+		// Anything longer overflows an int
+		if (length - start > 10) {
+			return NO_POSITION;
+		}
+		long position = 0;
+		for (int i = start; i < length; i++) {
+			char c = path.charAt(i);
+			if (c < '0' || c > '9') {
+				return NO_POSITION;
+			}
+			position = position * 10 + (c - '0');
+		}
+		return position > Integer.MAX_VALUE ? NO_POSITION : (int) position;
+	}
+
+	/**
+	 * @return Slot holding the name in path[start, end) or the empty slot where it would go.
+	 */
+	private int findSlot(String path, int start, int end) {
+		int hash = 0;
+		for (int i = start; i < end; i++) {
+			hash = 31 * hash + path.charAt(i);
+		}
+		int length = end - start;
+		int slot = (hash ^ (hash >>> 16)) & (SLOT_COUNT - 1);
+		while (_slotNames[slot] != null) {
+			String name = _slotNames[slot];
+			if (name.length() == length && path.regionMatches(start, name, 0, length)) {
+				return slot;
+			}
+			slot = (slot + 1) & (SLOT_COUNT - 1);
+		}
+		return slot;
+	}
+}
@@ -0,0 +1,42 @@
+package com.filecraft.helloworld;
+
+import java.util.Random;
+
+/**
+ * Answer shown for a quiz question. Answers are drawn from the QuizDeck of the question's answer
+ * set, see QuizAnswerSet.
+ */
+public class QuizAnswer {
+
+	public final String answer;
+	public final boolean isCorrect;
+
+	private QuizAnswer(String answer, boolean isCorrect) {
+		this.answer = answer;
+		this.isCorrect = isCorrect;
+	}
+
+	/**
+	 * Returns the correct answer, the entry at ordinal, followed by answerCount - 1 distinct wrong
+	 * answers drawn from the rest of the deck. Runs in time proportional to the number of
+	 * answers returned.
+	 */
+	public static QuizAnswer[] getQuizAnswers(QuizDeck deck, int ordinal, int answerCount,
+			boolean inJapanese, Random random) {
+		int field = getTextField(inJapanese);
+		int[] wrongAnswers = QuizSampler.sample(deck.size(), answerCount - 1, ordinal, random);
+		QuizAnswer[] answers = new QuizAnswer[wrongAnswers.length + 1];
+		answers[0] = new QuizAnswer(deck.getString(ordinal, field), true);
+		for (int i = 0; i < wrongAnswers.length; i++) {
+			answers[i + 1] = new QuizAnswer(deck.getString(wrongAnswers[i], field), false);
+		}
+		return answers;
+	}
+
+	/**
+	 * @return QuizDeck field holding the answer text in the language.
+	 */
+	public static int getTextField(boolean inJapanese) {
+		return inJapanese ? QuizDeck.FIELD_JAPANESE : QuizDeck.FIELD_ENGLISH;
+	}
+}
@@ -0,0 +1,128 @@
+package com.filecraft.helloworld;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+
+/**
+ * Read only view of a binary quiz deck. Entries are read by ordinal straight from the buffer, so
+ * a deck of any size costs only its mapped pages and nothing is inflated up front.
+ *
+ * Format (big endian):
+ * int magic ("FCDK")
+ * int version
+ * int entryCount
+ * int fieldCount
+ * int poolOffset
+ * int[entryCount * fieldCount + 1] string offsets relative to poolOffset, entry major. The
+ *     length of a string is the next offset minus its own.
+ * int[entryCount] entry ordinals sorted by the UTF-8 bytes of their name field
+ * byte[] UTF-8 string pool
+ *
+ * Decks are written by tools/src/com/filecraft/helloworld/tools/QuizDeckWriter.java.
+ */
+public final class QuizDeck {
+
+	public static final int MAGIC = 0x4643444B;
+	public static final int VERSION = 1;
+	public static final int HEADER_BYTES = 5 * 4;
+
+	public static final int FIELD_NAME = 0;
+	public static final int FIELD_ENGLISH = 1;
+	public static final int FIELD_JAPANESE = 2;
+	public static final int FIELD_COUNT = 3;
+
+	public static final Charset UTF_8 = Charset.forName("UTF-8");
+
+	private static final ThreadLocal<byte[]> SCRATCH = new ThreadLocal<byte[]>() {
+		@Override
+		protected byte[] initialValue() {
+			return new byte[256];
+		}
+	};
+
+	private final ByteBuffer _buffer;
+	private final int _entryCount;
+	private final int _fieldCount;
+	private final int _poolOffset;
+	private final int _nameIndexOffset;
+
+	private QuizDeck(ByteBuffer buffer) {
+		_buffer = buffer;
+		if (buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION) {
+			throw new IllegalArgumentException("Not a version " + VERSION + " quiz deck");
+		}
+		_entryCount = buffer.getInt(8);
+		_fieldCount = buffer.getInt(12);
+		_poolOffset = buffer.getInt(16);
+		if (_fieldCount < FIELD_COUNT) {
+			throw new IllegalArgumentException("Quiz deck has " + _fieldCount + " fields");
+		}
+		_nameIndexOffset = HEADER_BYTES + (_entryCount * _fieldCount + 1) * 4;
+	}
+
+	/**
+	 * @param buffer Deck contents starting at position 0. Usually a read only mapping of the file.
+	 */
+	public static QuizDeck wrap(ByteBuffer buffer) {
+		return new QuizDeck(buffer);
+	}
+
+	public int size() {
+		return _entryCount;
+	}
+
+	public String getString(int ordinal, int field) {
+		int index = HEADER_BYTES + (ordinal * _fieldCount + field) * 4;
+		int start = _buffer.getInt(index);
+		int length = _buffer.getInt(index + 4) - start;
+		byte[] bytes = SCRATCH.get();
+		if (bytes.length < length) {
+			bytes = new byte[Math.max(length, bytes.length * 2)];
+			SCRATCH.set(bytes);
+		}
+		for (int i = 0; i < length; i++) {
+			bytes[i] = _buffer.get(_poolOffset + start + i);
+		}
+		return new String(bytes, 0, length, UTF_8);
+	}
+
+	/**
+	 * @return Ordinal of the entry with the name, or -1 if the deck has no such entry.
+	 */
+	public int find(String name) {
+		if (name == null) {
+			return -1;
+		}
+		byte[] key = name.getBytes(UTF_8);
+		int low = 0;
+		int high = _entryCount - 1;
+		while (low <= high) {
+			int middle = (low + high) >>> 1;
+			int ordinal = _buffer.getInt(_nameIndexOffset + middle * 4);
+			int compare = compareName(ordinal, key);
+			if (compare < 0) {
+				low = middle + 1;
+			} else if (compare > 0) {
+				high = middle - 1;
+			} else {
+				return ordinal;
+			}
+		}
+		return -1;
+	}
+
+	private int compareName(int ordinal, byte[] key) {
+		int index = HEADER_BYTES + ordinal * _fieldCount * 4;
+		int start = _buffer.getInt(index);
+		int length = _buffer.getInt(index + 4) - start;
+		int common = Math.min(length, key.length);
+		for (int i = 0; i < common; i++) {
+			int a = _buffer.get(_poolOffset + start + i) & 0xFF;
+			int b = key[i] & 0xFF;
+			if (a != b) {
+				return a - b;
+			}
+		}
+		return length - key.length;
+	}
+}
@@ -0,0 +1,93 @@
+package com.filecraft.helloworld;
+
+import java.util.Random;
+
+/**
+ * Draws distinct random ordinals from a pool using a partial Fisher-Yates shuffle. The pool is
+ * never materialized: only the swapped positions are remembered, so a draw of k ordinals costs
+ * O(k) time and memory no matter how large the pool is.
+ */
+public final class QuizSampler {
+
+	private static final ThreadLocal<Random> RANDOM = new ThreadLocal<Random>() {
+		@Override
+		protected Random initialValue() {
+			return new Random();
+		}
+	};
+
+	private QuizSampler() {
+	}
+
+	/**
+	 * @return Generator owned by the calling thread.
+	 */
+	public static Random getRandom() {
+		return RANDOM.get();
+	}
+
+	/**
+	 * Picks distinct ordinals in [0, poolSize) in random order.
+	 *
+	 * @param exclude Ordinal that must not be picked, or -1 to allow every ordinal.
+	 * @return Up to count ordinals. Fewer are returned if the pool runs out.
+	 */
+	public static int[] sample(int poolSize, int count, int exclude, Random random) {
+		boolean excluded = exclude >= 0 && exclude < poolSize;
+		int size = excluded ? poolSize - 1 : poolSize;
+		// Clamped before sizing the map, which could not hold count + 1 entries otherwise
+		count = Math.max(0, Math.min(count, size));
+		SwapMap swaps = new SwapMap(count + 1);
+		if (excluded) {
+			// Move the excluded ordinal to the end of the pool and shrink the pool past it.
+			swaps.put(exclude, swaps.get(size));
+		}
+		int[] picks = new int[count];
+		for (int i = 0; i < count; i++) {
+			int j = i + random.nextInt(size - i);
+			picks[i] = swaps.get(j);
+			swaps.put(j, swaps.get(i));
+		}
+		return picks;
+	}
+
+	/**
+	 * Positions of the virtual pool that no longer hold their own ordinal. Open addressing over
+	 * primitive arrays so that sampling does not box.
+	 */
+	private static final class SwapMap {
+		private final int[] _keys;
+		private final int[] _values;
+		private final boolean[] _used;
+		private final int _mask;
+
+		SwapMap(int expectedSize) {
+			int capacity = Integer.highestOneBit(Math.max(4, expectedSize * 2) - 1) << 1;
+			_keys = new int[capacity];
+			_values = new int[capacity];
+			_used = new boolean[capacity];
+			_mask = capacity - 1;
+		}
+
+		int get(int key) {
+			int slot = find(key);
+			return _used[slot] ? _values[slot] : key;
+		}
+
+		void put(int key, int value) {
+			int slot = find(key);
+			_used[slot] = true;
+			_keys[slot] = key;
+			_values[slot] = value;
+		}
+
+		private int find(int key) {
+			int hash = key * 0x9E3779B9;
+			int slot = (hash ^ (hash >>> 16)) & _mask;
+			while (_used[slot] && _keys[slot] != key) {
+				slot = (slot + 1) & _mask;
+			}
+			return slot;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.filecraft.helloworld;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks the sort orders of CatalogTable against the orders sqlite returns.
+ */
+public class CatalogTableTest extends TestCase {
+
+	public void testStringOrderIsCodePointOrder() {
+		// U+1F600 is a surrogate pair in UTF-16, which String.compareTo() puts before U+FF21
+		String[] texts = { "\uFF21", "b", null, "\uD83D\uDE00", "a", "b" };
+		CatalogTable.Builder builder = new CatalogTable.Builder(texts.length);
+		for (int row = 0; row < texts.length; row++) {
+			builder.setString(CatalogColumn.TEXT, row, texts[row]);
+		}
+		CatalogTable table = builder.build();
+		int[] sorted = table.getSortedRows(CatalogColumn.TEXT);
+		assertTrue(Arrays.toString(sorted), Arrays.equals(new int[] { 2, 4, 1, 5, 0, 3 }, sorted));
+		for (int i = 0; i < sorted.length; i++) {
+			assertEquals(i, table.getRank(CatalogColumn.TEXT, sorted[i]));
+		}
+		assertSame(sorted, table.getSortedRows(CatalogColumn.TEXT));
+	}
+
+	public void testIntegerOrder() {
+		int[] types = { 3, -1, 3, 0 };
+		CatalogTable.Builder builder = new CatalogTable.Builder(types.length);
+		for (int row = 0; row < types.length; row++) {
+			builder.setInt(CatalogColumn.CONTENT_TYPE, row, types[row]);
+		}
+		CatalogTable table = builder.build();
+		assertTrue(Arrays.equals(new int[] { 1, 3, 0, 2 },
+				table.getSortedRows(CatalogColumn.CONTENT_TYPE)));
+	}
+
+	public void testUnsortableColumns() {
+		CatalogTable table = new CatalogTable.Builder(2)
+				.setString(CatalogColumn.CONTENT_PATH, 0, "b")
+				.setString(CatalogColumn.CONTENT_PATH, 1, "a")
+				.build();
+		assertNull(table.getSortedRows(CatalogColumn.CONTENT_PATH));
+		assertNull(table.getSortedRows(CatalogColumn.TEXT));
+	}
+
+	public void testCompareBinary() {
+		assertTrue(CatalogTable.compareBinary("\uFFFF", "\uD800\uDC00") < 0);
+		assertTrue(CatalogTable.compareBinary("\uD7FF", "\uE000") < 0);
+		assertTrue(CatalogTable.compareBinary("ab", "abc") < 0);
+		assertEquals(0, CatalogTable.compareBinary("abc", "abc"));
+	}
+}
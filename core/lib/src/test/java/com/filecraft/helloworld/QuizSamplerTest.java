@@ -0,0 +1,52 @@
+package com.filecraft.helloworld;
+
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+/**
+ * Checks that QuizSampler draws distinct ordinals from the pool and stops when it runs out.
+ */
+public class QuizSamplerTest extends TestCase {
+
+	private Random _random;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		_random = new Random(42);
+	}
+
+	public void testCountAtLeastPool() {
+		assertPicks(QuizSampler.sample(15, 15, -1, _random), 15, 15, -1);
+		assertPicks(QuizSampler.sample(15, 16, -1, _random), 15, 15, -1);
+		assertPicks(QuizSampler.sample(15, Integer.MAX_VALUE, -1, _random), 15, 15, -1);
+		assertPicks(QuizSampler.sample(15, Integer.MAX_VALUE, 3, _random), 15, 14, 3);
+	}
+
+	public void testCountOneBelowPoolWithExclude() {
+		for (int exclude = 0; exclude < 8; exclude++) {
+			assertPicks(QuizSampler.sample(8, 7, exclude, _random), 8, 7, exclude);
+		}
+	}
+
+	public void testCountZero() {
+		assertEquals(0, QuizSampler.sample(15, 0, -1, _random).length);
+		assertEquals(0, QuizSampler.sample(15, 0, 3, _random).length);
+		assertEquals(0, QuizSampler.sample(0, 4, -1, _random).length);
+	}
+
+	/**
+	 * Asserts that picks holds expectedCount distinct ordinals of the pool, none of them exclude.
+	 */
+	private static void assertPicks(int[] picks, int poolSize, int expectedCount, int exclude) {
+		assertEquals(expectedCount, picks.length);
+		boolean[] seen = new boolean[poolSize];
+		for (int pick : picks) {
+			assertTrue("Out of pool: " + pick, pick >= 0 && pick < poolSize);
+			assertTrue("Excluded: " + pick, pick != exclude);
+			assertFalse("Picked twice: " + pick, seen[pick]);
+			seen[pick] = true;
+		}
+	}
+}
@@ -0,0 +1,126 @@
+package com.filecraft.helloworld;
+
+import java.util.HashMap;
+
+import com.filecraft.helloworld.GalleryItem.GalleryItemId;
+import com.filecraft.helloworld.GridItem.GridItemId;
+import com.filecraft.helloworld.Quiz.QuizId;
+import com.filecraft.helloworld.QuizAnswerSet.QuizAnswerSetId;
+import com.filecraft.helloworld.ViewItem.ViewItemId;
+
+/**
+ * Precomputed lookup from an action id to the item it identifies. Replaces looping over the
+ * enum values() (which clones the array on every call) and comparing names. Quiz answer ids are
+ * looked up in their QuizDeck instead.
+ *
+ * Action ids are only unique within one kind of item, e.g. JAPANESE_BASICS is both a QuizId and
+ * a QuizAnswerSetId, so every kind has its own map.
+ */
+public final class ActionIdRegistry {
+
+	public enum Kind {
+		GRID,
+		GALLERY,
+		VIEW,
+		QUIZ,
+		QUIZ_ANSWER_SET
+	}
+
+	public static final class Entry {
+		public final Kind kind;
+
+		/**
+		 * Ordinal of the action id within its enum.
+		 */
+		public final int ordinal;
+
+		/**
+		 * Number of rows or answers behind the action id. For grids and galleries this is the
+		 * item count, for quizzes the maximum question count, and for answer sets the number of
+		 * answers shown per question.
+		 */
+		public final int count;
+
+		private Entry(Kind kind, int ordinal, int count) {
+			this.kind = kind;
+			this.ordinal = ordinal;
+			this.count = count;
+		}
+	}
+
+	private static final GridItemId[] GRID_IDS = GridItemId.values();
+	private static final GalleryItemId[] GALLERY_IDS = GalleryItemId.values();
+	private static final ViewItemId[] VIEW_IDS = ViewItemId.values();
+	private static final QuizId[] QUIZ_IDS = QuizId.values();
+	private static final QuizAnswerSetId[] ANSWER_SET_IDS = QuizAnswerSetId.values();
+
+	private static final HashMap<String, Entry>[] ENTRIES = createMaps();
+	static {
+		for (GridItemId id : GRID_IDS) {
+			register(Kind.GRID, id.name(), id.ordinal(), id.itemCount);
+		}
+		for (GalleryItemId id : GALLERY_IDS) {
+			register(Kind.GALLERY, id.name(), id.ordinal(), id.itemCount);
+		}
+		for (ViewItemId id : VIEW_IDS) {
+			register(Kind.VIEW, id.name(), id.ordinal(), 1);
+		}
+		for (QuizId id : QUIZ_IDS) {
+			register(Kind.QUIZ, id.name(), id.ordinal(), id.questionCount);
+		}
+		for (QuizAnswerSetId id : ANSWER_SET_IDS) {
+			register(Kind.QUIZ_ANSWER_SET, id.name(), id.ordinal(), id.answerCount);
+		}
+	}
+
+	private ActionIdRegistry() {
+	}
+
+	@SuppressWarnings("unchecked")
+	private static HashMap<String, Entry>[] createMaps() {
+		HashMap<String, Entry>[] maps = new HashMap[Kind.values().length];
+		for (int i = 0; i < maps.length; i++) {
+			maps[i] = new HashMap<String, Entry>();
+		}
+		return maps;
+	}
+
+	private static void register(Kind kind, String actionId, int ordinal, int count) {
+		ENTRIES[kind.ordinal()].put(actionId, new Entry(kind, ordinal, count));
+	}
+
+	/**
+	 * @return Entry for the action id or null if the action id is not of the given kind.
+	 */
+	public static Entry get(Kind kind, String actionId) {
+		if (actionId == null) {
+			return null;
+		}
+		return ENTRIES[kind.ordinal()].get(actionId);
+	}
+
+	public static GridItemId getGridItemId(String actionId) {
+		Entry entry = get(Kind.GRID, actionId);
+		return entry == null ? null : GRID_IDS[entry.ordinal];
+	}
+
+	public static GalleryItemId getGalleryItemId(String actionId) {
+		Entry entry = get(Kind.GALLERY, actionId);
+		return entry == null ? null : GALLERY_IDS[entry.ordinal];
+	}
+
+	public static ViewItemId getViewItemId(String actionId) {
+		Entry entry = get(Kind.VIEW, actionId);
+		return entry == null ? null : VIEW_IDS[entry.ordinal];
+	}
+
+	public static QuizId getQuizId(String actionId) {
+		Entry entry = get(Kind.QUIZ, actionId);
+		return entry == null ? null : QUIZ_IDS[entry.ordinal];
+	}
+
+	public static QuizAnswerSetId getQuizAnswerSetId(String actionId) {
+		Entry entry = get(Kind.QUIZ_ANSWER_SET, actionId);
+		return entry == null ? null : ANSWER_SET_IDS[entry.ordinal];
+	}
+}
@@ -0,0 +1,552 @@
+package com.filecraft.helloworld;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import android.content.Context;
+import android.database.CrossProcessCursorWrapper;
+import android.database.Cursor;
+import android.database.DatabaseUtils;
+import android.database.sqlite.SQLiteDatabase;
+import android.database.sqlite.SQLiteDoneException;
+import android.database.sqlite.SQLiteException;
+import android.database.sqlite.SQLiteStatement;
+import android.net.Uri;
+import android.os.Bundle;
+import android.util.Log;
+
+import com.filecraft.helloworld.ActionIdRegistry.Kind;
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+
+/**
+ * Catalog tables read from a sqlite database instead of the hardcoded items. The database is
+ * built ahead of time from tools/catalog/catalog.sql and shipped as assets/catalog.db, which is
+ * copied to the database directory on first use. There is no import pass.
+ *
+ * Every table lives in one catalog table with a unique index on (table_name, parent_action_id,
+ * position), so a table query is a single index range scan. Queries return the SQLiteCursor
+ * itself, so the CursorWindow is filled in native code. Query strings only depend on the table
+ * and projection and are reused by the connection's prepared statement cache; the lookups the
+ * provider makes itself use SQLiteStatements compiled once.
+ */
+public final class CatalogDatabase {
+
+	private static final String TAG = CatalogDatabase.class.getSimpleName();
+
+	private static final String DATABASE_NAME = "catalog.db";
+
+	/**
+	 * PRAGMA user_version of assets/catalog.db. An installed copy with another version is
+	 * replaced by the asset.
+	 */
+	private static final int DATABASE_VERSION = 3;
+
+	private static final String TABLE_CATALOG = "catalog";
+	private static final String COLUMN_TABLE_NAME = "table_name";
+	private static final String COLUMN_PARENT_ACTION_ID = "parent_action_id";
+	private static final String COLUMN_POSITION = "position";
+
+	/**
+	 * The database only changes with the apk, so its rows keep version 0 and its catalog
+	 * generation is always 0.
+	 */
+	private static final int GENERATION = 0;
+
+	private static final String WHERE_TABLE = " FROM " + TABLE_CATALOG + " WHERE " +
+			COLUMN_TABLE_NAME + "=?1 AND " + COLUMN_PARENT_ACTION_ID + "=?2";
+
+	private static volatile CatalogDatabase sInstance = null;
+
+	private final SQLiteDatabase _database;
+
+	/**
+	 * Compiled statements are not thread safe, so each is used while holding its own lock.
+	 */
+	private final SQLiteStatement _countStatement;
+	private final SQLiteStatement _answerSetStatement;
+
+	private CatalogDatabase(Context context) {
+		File file = context.getDatabasePath(DATABASE_NAME);
+		if (getVersion(file) != DATABASE_VERSION) {
+			copyFromAssets(context, file);
+		}
+		_database = SQLiteDatabase.openDatabase(file.getPath(), null,
+				SQLiteDatabase.OPEN_READWRITE);
+		_database.enableWriteAheadLogging();
+		_countStatement = _database.compileStatement("SELECT count(*)" + WHERE_TABLE);
+		_answerSetStatement = _database.compileStatement("SELECT " + COLUMN_PARENT_ACTION_ID +
+				" FROM " + TABLE_CATALOG + " WHERE " + COLUMN_TABLE_NAME + "=? AND " +
+				FileCraftContract.COLUMN_ACTION_ID + "=? LIMIT 1");
+	}
+
+	public static CatalogDatabase getInstance(Context context) {
+		CatalogDatabase instance = sInstance;
+		if (instance == null) {
+			synchronized (CatalogDatabase.class) {
+				instance = sInstance;
+				if (instance == null) {
+					StartupTrace.beginSection("FileCraft:openDatabase");
+					try {
+						instance = new CatalogDatabase(context.getApplicationContext());
+					} finally {
+						StartupTrace.endSection();
+					}
+					sInstance = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * @param selection Optional selection, see SelectionPredicate.
+	 * @param selectionArgs selectionArgs[0] is the action id of every table except the list. The
+	 *        selection's arguments follow it.
+	 * @param sortOrder Optional sort order, see SortOrder. Quiz questions and answers are always
+	 *        in random order.
+	 * @throws IllegalArgumentException if the projection or selection has a column the table
+	 *         does not serve.
+	 */
+	public Cursor query(UriMatcherEntry entry, Uri uri, String[] projection, String selection,
+			String[] selectionArgs, String sortOrder) {
+		int[] columnIds = CatalogSchema.compile(entry, projection);
+		String tableName = entry.getTableName();
+		String actionId = getActionId(entry, selectionArgs);
+		SelectionPredicate predicate = SelectionPredicate.compile(selection);
+		String[] predicateArgs = null;
+		if (predicate != null) {
+			predicate.checkColumns(entry);
+			predicateArgs = predicate.getOperands(selectionArgs,
+					SelectionPredicate.getFirstArg(entry));
+		}
+		StringBuilder sql = new StringBuilder(256);
+		String[] args;
+		switch (entry) {
+		case QUIZ_QUESTIONS:
+		case QUIZ_QUESTIONS_ITEM: {
+			// Questions are a random sample of the quiz's entries
+			ActionIdRegistry.Entry quiz = ActionIdRegistry.get(Kind.QUIZ, actionId);
+			int limit = quiz == null ? 0 : Math.min(quiz.count, getRowCount(entry, actionId));
+			if (entry.isItem()) {
+				limit = UriRouter.getPosition(uri) < limit ? 1 : 0;
+			}
+			appendSelect(sql, columnIds, null, uri.getAuthority());
+			sql.append(WHERE_TABLE);
+			args = new String[] { tableName, actionId };
+			if (predicate != null) {
+				args = appendSelection(sql, predicate, args, predicateArgs, null);
+			}
+			sql.append(" ORDER BY random() LIMIT ").append(limit);
+			break;
+		}
+		case QUIZ_ANSWERS:
+		case QUIZ_ANSWERS_ITEM: {
+			// The correct answer followed by a random sample of wrong answers from its answer set
+			String answerSetId = getAnswerSetId(tableName, actionId);
+			ActionIdRegistry.Entry answerSet = ActionIdRegistry.get(Kind.QUIZ_ANSWER_SET,
+					answerSetId);
+			int wrongAnswerCount = answerSet == null ? 0 : answerSet.count - 1;
+			String isCorrect = "(" + FileCraftContract.COLUMN_ACTION_ID + "=?3)";
+			appendSelect(sql, columnIds, isCorrect, uri.getAuthority());
+			sql.append(" FROM ").append(TABLE_CATALOG).append(" WHERE rowid IN (SELECT rowid")
+					.append(WHERE_TABLE).append(" AND ").append(isCorrect)
+					.append(" UNION ALL SELECT rowid FROM (SELECT rowid").append(WHERE_TABLE)
+					.append(" AND NOT ").append(isCorrect)
+					.append(" ORDER BY random() LIMIT ").append(wrongAnswerCount).append("))");
+			args = new String[] { tableName, answerSetId == null ? "" : answerSetId, actionId };
+			if (predicate != null) {
+				// Like CustomCursor, the selection filters the sampled answers
+				args = appendSelection(sql, predicate, args, predicateArgs, isCorrect);
+			}
+			sql.append(" ORDER BY NOT ").append(isCorrect).append(", random()");
+			if (entry.isItem()) {
+				sql.append(" LIMIT 1 OFFSET ").append(Math.max(0, UriRouter.getPosition(uri)));
+			}
+			break;
+		}
+		default: {
+			PageRequest page = entry.isItem() ? null : PageRequest.parse(uri);
+			SortOrder sort = entry.isItem() ? null : SortOrder.parse(entry, sortOrder);
+			int changesSince = CatalogSnapshot.parseChangesSince(entry, uri, selection, sortOrder);
+			StringBuilder where = new StringBuilder(WHERE_TABLE);
+			if (entry.isItem()) {
+				where.append(" AND ").append(COLUMN_POSITION).append("=?3");
+				args = new String[] { tableName, actionId,
+						String.valueOf(UriRouter.getPosition(uri)) };
+			} else if (changesSince != PageRequest.NONE) {
+				// Rows are never removed, so there are no tombstones
+				where.append(" AND ").append(FileCraftContract.COLUMN_VERSION).append(">?3");
+				args = new String[] { tableName, actionId, String.valueOf(changesSince) };
+			} else {
+				args = new String[] { tableName, actionId };
+			}
+			if (predicate != null) {
+				args = appendSelection(where, predicate, args, predicateArgs, null);
+			}
+			String orderBy = getOrderBy(sort);
+			appendSelect(sql, columnIds, null, uri.getAuthority());
+			if (page == null) {
+				sql.append(where).append(orderBy);
+				Cursor cursor = _database.rawQueryWithFactory(null, sql.toString(), args,
+						TABLE_CATALOG);
+				return new ExtrasCursor(cursor, getGenerationExtras(new Bundle(1)));
+			}
+			StringBuilder pageWhere = where;
+			String[] pageArgs = args;
+			if (page.after != PageRequest.NONE) {
+				// Keyset paging seeks straight to the page in the table's index
+				pageWhere = new StringBuilder(where);
+				pageArgs = appendAfter(pageWhere, sort, args, page.after);
+			}
+			sql.append(pageWhere).append(orderBy)
+					.append(" LIMIT ").append(page.limit == PageRequest.NONE ? -1 : page.limit)
+					.append(" OFFSET ").append(page.offset == PageRequest.NONE ? 0 : page.offset);
+			Cursor cursor = _database.rawQueryWithFactory(null, sql.toString(), pageArgs,
+					TABLE_CATALOG);
+			Bundle extras = predicate == null && sort == null ?
+					getPageExtras(page, getRowCount(entry, actionId)) :
+					getPageExtras(page, where, args, pageWhere, pageArgs, orderBy);
+			return new ExtrasCursor(cursor, getGenerationExtras(extras));
+		}
+		}
+		return _database.rawQueryWithFactory(null, sql.toString(), args, TABLE_CATALOG);
+	}
+
+	private static Bundle getGenerationExtras(Bundle extras) {
+		extras.putInt(FileCraftContract.EXTRA_GENERATION, GENERATION);
+		return extras;
+	}
+
+	/**
+	 * Positions of a table run from 0 to the row count - 1 (see catalog.sql), so the page's
+	 * rows follow from the paging parameters alone.
+	 */
+	private static Bundle getPageExtras(PageRequest page, int total) {
+		long start = page.after == PageRequest.NONE ? 0 : (long) page.after + 1;
+		if (page.offset != PageRequest.NONE) {
+			start += page.offset;
+		}
+		int clampedStart = (int) Math.min(total, start);
+		int end = page.getEnd(clampedStart, total);
+		boolean hasNextPage = end < total && end > clampedStart;
+		return PageRequest.getExtras(total, hasNextPage, end - 1);
+	}
+
+	/**
+	 * Rows of a filtered or sorted page do not have consecutive positions, so the total and the
+	 * position of the page's last row are looked up. Reading two rows at the page's last index
+	 * also tells whether there is a next page.
+	 */
+	private Bundle getPageExtras(PageRequest page, CharSequence where, String[] whereArgs,
+			CharSequence pageWhere, String[] pageArgs, String orderBy) {
+		int total = (int) DatabaseUtils.longForQuery(_database, "SELECT count(*)" + where,
+				whereArgs);
+		boolean hasNextPage = false;
+		int lastPosition = PageRequest.NONE;
+		if (page.limit > 0) {
+			long lastIndex = (page.offset == PageRequest.NONE ? 0L : page.offset) + page.limit - 1;
+			Cursor cursor = _database.rawQuery("SELECT " + COLUMN_POSITION + pageWhere + orderBy +
+					" LIMIT 2 OFFSET " + lastIndex, pageArgs);
+			try {
+				if (cursor.moveToFirst()) {
+					lastPosition = cursor.getInt(0);
+					hasNextPage = cursor.moveToNext();
+				}
+			} finally {
+				cursor.close();
+			}
+		}
+		return PageRequest.getExtras(total, hasNextPage, lastPosition);
+	}
+
+	/**
+	 * @return ORDER BY clause of the sort order. Rows with equal values are ordered by position
+	 *         in the same direction, which is the order of the table's sort index.
+	 */
+	private static String getOrderBy(SortOrder sort) {
+		if (sort == null) {
+			return " ORDER BY " + COLUMN_POSITION;
+		}
+		String direction = sort.descending ? " DESC" : "";
+		if (sort.columnId == SortOrder.POSITION) {
+			return " ORDER BY " + COLUMN_POSITION + direction;
+		}
+		return " ORDER BY " + CatalogSchema.getName(sort.columnId) + direction + ", " +
+				COLUMN_POSITION + direction;
+	}
+
+	/**
+	 * Appends the condition for rows that come after the row at the given position in the sort
+	 * order. NULL sorts before every value, as in sqlite.
+	 *
+	 * @return Arguments of the query with the position.
+	 */
+	private static String[] appendAfter(StringBuilder sql, SortOrder sort, String[] args,
+			int after) {
+		String position = "?" + (args.length + 1);
+		if (sort == null || sort.columnId == SortOrder.POSITION) {
+			sql.append(" AND ").append(COLUMN_POSITION)
+					.append(sort == null || !sort.descending ? ">" : "<").append(position);
+		} else {
+			String column = CatalogSchema.getName(sort.columnId);
+			String value = "(SELECT " + column + WHERE_TABLE + " AND " + COLUMN_POSITION + "=" +
+					position + ")";
+			if (sort.descending) {
+				sql.append(" AND (").append(column).append('<').append(value)
+						.append(" OR (").append(column).append(" IS ").append(value)
+						.append(" AND ").append(COLUMN_POSITION).append('<').append(position)
+						.append(") OR (").append(column).append(" IS NULL AND ").append(value)
+						.append(" IS NOT NULL))");
+			} else {
+				sql.append(" AND (").append(column).append('>').append(value)
+						.append(" OR (").append(column).append(" IS ").append(value)
+						.append(" AND ").append(COLUMN_POSITION).append('>').append(position)
+						.append(") OR (").append(value).append(" IS NULL AND ").append(column)
+						.append(" IS NOT NULL))");
+			}
+		}
+		return concat(args, new String[] { String.valueOf(after) });
+	}
+
+	/**
+	 * Appends " AND " and the selection to the WHERE clause, numbering its parameters after the
+	 * existing ones.
+	 *
+	 * @return Arguments of the query with the selection.
+	 */
+	private static String[] appendSelection(StringBuilder sql, SelectionPredicate predicate,
+			String[] args, String[] predicateArgs, String isCorrectAnswer) {
+		sql.append(" AND ");
+		predicate.appendSql(sql, args.length + 1, isCorrectAnswer);
+		return concat(args, predicateArgs);
+	}
+
+	private static String[] concat(String[] first, String[] second) {
+		String[] result = Arrays.copyOf(first, first.length + second.length);
+		System.arraycopy(second, 0, result, first.length, second.length);
+		return result;
+	}
+
+	/**
+	 * @param selection Selection of the query the rows belong to, or null.
+	 * @param sortOrder Sort order of the query the rows belong to, or null.
+	 * @return Content paths of up to limit rows that come after the row at the given position.
+	 */
+	public String[] getContentPaths(UriMatcherEntry entry, String actionId, String selection,
+			String[] selectionArgs, String sortOrder, int after, int limit) {
+		StringBuilder sql = new StringBuilder(256);
+		sql.append("SELECT ").append(FileCraftContract.COLUMN_CONTENT_PATH).append(WHERE_TABLE);
+		String[] args = { entry.getTableName(), actionId };
+		SelectionPredicate predicate = SelectionPredicate.compile(selection);
+		if (predicate != null) {
+			args = appendSelection(sql, predicate, args, predicate.getOperands(selectionArgs,
+					SelectionPredicate.getFirstArg(entry)), null);
+		}
+		SortOrder sort = SortOrder.parse(entry, sortOrder);
+		args = appendAfter(sql, sort, args, after);
+		sql.append(getOrderBy(sort)).append(" LIMIT ").append(limit);
+		Cursor cursor = _database.rawQuery(sql.toString(), args);
+		try {
+			String[] paths = new String[cursor.getCount()];
+			for (int i = 0; cursor.moveToPosition(i); i++) {
+				paths[i] = cursor.getString(0);
+			}
+			return paths;
+		} finally {
+			cursor.close();
+		}
+	}
+
+	/**
+	 * @return Table name and action id of each table opened by a row of the list or grid, in row
+	 *         order.
+	 */
+	public String[][] getChildren(String tableName, String actionId) {
+		Cursor cursor = _database.rawQuery("SELECT " + FileCraftContract.COLUMN_ACTION_TYPE +
+				", " + FileCraftContract.COLUMN_ACTION_ID + WHERE_TABLE + " ORDER BY " +
+				COLUMN_POSITION, new String[] { tableName, actionId == null ? "" : actionId });
+		try {
+			ArrayList<String[]> children = new ArrayList<String[]>(cursor.getCount());
+			while (cursor.moveToNext()) {
+				String childTableName = TreeFetcher.getChildTable(tableName, cursor.getInt(0));
+				if (childTableName != null && !cursor.isNull(1)) {
+					children.add(new String[] { childTableName, cursor.getString(1) });
+				}
+			}
+			return children.toArray(new String[children.size()][]);
+		} finally {
+			cursor.close();
+		}
+	}
+
+	/**
+	 * @return Content paths of the first rows of the table, up to limit. Rows without a file
+	 *         have a null path.
+	 */
+	public String[] getContentPaths(String tableName, String actionId, int limit) {
+		Cursor cursor = _database.rawQuery("SELECT " + FileCraftContract.COLUMN_CONTENT_PATH +
+				WHERE_TABLE + " ORDER BY " + COLUMN_POSITION + " LIMIT " + limit,
+				new String[] { tableName, actionId });
+		try {
+			String[] paths = new String[cursor.getCount()];
+			for (int i = 0; cursor.moveToPosition(i); i++) {
+				paths[i] = cursor.getString(0);
+			}
+			return paths;
+		} finally {
+			cursor.close();
+		}
+	}
+
+	/**
+	 * SQLiteCursor with the paging and generation extras of a query. Cursors before API 23 have
+	 * no setExtras(). Extends CrossProcessCursorWrapper so that windows are still filled by the
+	 * SQLiteCursor.
+	 */
+	private static final class ExtrasCursor extends CrossProcessCursorWrapper {
+		private final Bundle _extras;
+
+		ExtrasCursor(Cursor cursor, Bundle extras) {
+			super(cursor);
+			_extras = extras;
+		}
+
+		@Override
+		public Bundle getExtras() {
+			return _extras;
+		}
+	}
+
+	/**
+	 * @return Number of rows in the table for the action id.
+	 */
+	public int getRowCount(UriMatcherEntry entry, String actionId) {
+		synchronized (_countStatement) {
+			_countStatement.bindString(1, entry.getTableName());
+			_countStatement.bindString(2, actionId == null ? "" : actionId);
+			try {
+				return (int) _countStatement.simpleQueryForLong();
+			} finally {
+				_countStatement.clearBindings();
+			}
+		}
+	}
+
+	/**
+	 * @return Answer set holding the question's answer, or null if the question is unknown.
+	 */
+	private String getAnswerSetId(String tableName, String actionId) {
+		synchronized (_answerSetStatement) {
+			_answerSetStatement.bindString(1, tableName);
+			_answerSetStatement.bindString(2, actionId);
+			try {
+				return _answerSetStatement.simpleQueryForString();
+			} catch (SQLiteDoneException e) {
+				return null;
+			} finally {
+				_answerSetStatement.clearBindings();
+			}
+		}
+	}
+
+	/**
+	 * Appends the SELECT clause. Column names are taken from CatalogColumn rather than the
+	 * caller's projection, so nothing from the query uri ends up in the sql. Content paths of
+	 * the app's providers are moved to the authority, see TutorialUtils.getContentPath(); it is
+	 * only written into the sql once checked to be one of FileCraftContract.Authority.
+	 */
+	private static void appendSelect(StringBuilder sql, int[] columnIds, String isCorrectAnswer,
+			String authority) {
+		sql.append("SELECT ");
+		for (int i = 0; i < columnIds.length; i++) {
+			if (i > 0) {
+				sql.append(", ");
+			}
+			if (columnIds[i] == CatalogColumn.CONTENT_PATH && TutorialUtils.movesPaths(authority)) {
+				sql.append("replace(").append(FileCraftContract.COLUMN_CONTENT_PATH).append(", '")
+						.append(TutorialUtils.CATALOG_PATH_PREFIX).append("', 'content://")
+						.append(authority).append("/') AS ");
+			} else if (columnIds[i] == CatalogColumn.IS_CORRECT_ANSWER) {
+				sql.append(isCorrectAnswer).append(" AS ");
+			} else if (columnIds[i] == CatalogColumn.DELETED) {
+				sql.append("0 AS ");
+			}
+			sql.append(CatalogSchema.getName(columnIds[i]));
+		}
+	}
+
+	/**
+	 * @return Action id of the query, which is empty for the list table.
+	 */
+	static String getActionId(UriMatcherEntry entry, String[] selectionArgs) {
+		if (entry == UriMatcherEntry.LIST || entry == UriMatcherEntry.LIST_ITEM) {
+			return "";
+		}
+		if (selectionArgs == null || selectionArgs.length == 0 || selectionArgs[0] == null) {
+			throw new IllegalArgumentException("Missing action id for table " + entry.path);
+		}
+		return selectionArgs[0];
+	}
+
+	/**
+	 * @return user_version of the installed database, or -1 if there is none.
+	 */
+	private static int getVersion(File file) {
+		if (!file.exists()) {
+			return -1;
+		}
+		try {
+			SQLiteDatabase database = SQLiteDatabase.openDatabase(file.getPath(), null,
+					SQLiteDatabase.OPEN_READONLY);
+			try {
+				return database.getVersion();
+			} finally {
+				database.close();
+			}
+		} catch (SQLiteException e) {
+			Log.w(TAG, "Replacing unreadable database " + file, e);
+			return -1;
+		}
+	}
+
+	private static void copyFromAssets(Context context, File file) {
+		File directory = file.getParentFile();
+		if (!directory.isDirectory() && !directory.mkdirs()) {
+			throw new IllegalStateException("Failed to create " + directory);
+		}
+		File temp = new File(directory, file.getName() + ".tmp");
+		try {
+			InputStream in = context.getAssets().open(DATABASE_NAME);
+			try {
+				OutputStream out = new FileOutputStream(temp);
+				try {
+					byte[] buffer = new byte[8192];
+					int read;
+					while ((read = in.read(buffer)) != -1) {
+						out.write(buffer, 0, read);
+					}
+				} finally {
+					out.close();
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			temp.delete();
+			throw new IllegalStateException("Failed to copy " + DATABASE_NAME, e);
+		}
+		// The journal files of the old copy must not be applied to the new one
+		new File(directory, file.getName() + "-wal").delete();
+		new File(directory, file.getName() + "-shm").delete();
+		new File(directory, file.getName() + "-journal").delete();
+		if (!temp.renameTo(file)) {
+			temp.delete();
+			throw new IllegalStateException("Failed to install " + DATABASE_NAME);
+		}
+	}
+}
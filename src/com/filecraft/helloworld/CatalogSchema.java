@@ -0,0 +1,112 @@
+package com.filecraft.helloworld;
+
+import java.util.HashMap;
+
+import android.app.SearchManager;
+
+import com.filecraft.helloworld.FileCraftContract.ListTable;
+import com.filecraft.helloworld.FileCraftContract.QuizAnswersTable;
+import com.filecraft.helloworld.FileCraftContract.QuizQuestionsTable;
+import com.filecraft.helloworld.FileCraftContract.QuizTable;
+import com.filecraft.helloworld.FileCraftContract.SearchTable;
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+import com.filecraft.helloworld.FileCraftContract.ViewTable;
+
+/**
+ * Names of the catalog columns and the columns each table serves. Resolves query projections to
+ * CatalogColumn ids.
+ */
+public final class CatalogSchema {
+
+	private static final String[] NAMES = new String[CatalogColumn.COUNT];
+	private static final HashMap<String, Integer> IDS = new HashMap<String, Integer>();
+	static {
+		define(CatalogColumn.ID, FileCraftContract._ID);
+		define(CatalogColumn.CONTENT_PATH, FileCraftContract.COLUMN_CONTENT_PATH);
+		define(CatalogColumn.CONTENT_TYPE, FileCraftContract.COLUMN_CONTENT_TYPE);
+		define(CatalogColumn.TEXT, FileCraftContract.COLUMN_TEXT);
+		define(CatalogColumn.ACTION_TYPE, FileCraftContract.COLUMN_ACTION_TYPE);
+		define(CatalogColumn.ACTION_ID, FileCraftContract.COLUMN_ACTION_ID);
+		define(CatalogColumn.VERSION, FileCraftContract.COLUMN_VERSION);
+		define(CatalogColumn.LIST_NAME, ListTable.COLUMN_LIST_NAME);
+		define(CatalogColumn.LIST_SUBTEXT, ListTable.COLUMN_LIST_SUBTEXT);
+		define(CatalogColumn.VIEW_URI, ViewTable.COLUMN_VIEW_URI);
+		define(CatalogColumn.TITLE, QuizTable.COLUMN_TITLE);
+		define(CatalogColumn.DESCRIPTION, QuizTable.COLUMN_DESCRIPTION);
+		define(CatalogColumn.QUIZ_QUESTION, QuizQuestionsTable.COLUMN_QUIZ_QUESTION);
+		define(CatalogColumn.QUIZ_SUBTEXT, QuizQuestionsTable.COLUMN_QUIZ_SUBTEXT);
+		define(CatalogColumn.ANSWER_TEXT, QuizAnswersTable.COLUMN_ANSWER_TEXT);
+		define(CatalogColumn.IS_CORRECT_ANSWER, QuizAnswersTable.COLUMN_IS_CORRECT_ANSWER);
+		define(CatalogColumn.SOURCE_TABLE, SearchTable.COLUMN_SOURCE_TABLE);
+		define(CatalogColumn.SUBTITLE, SearchTable.COLUMN_SUBTITLE);
+		define(CatalogColumn.SUGGEST_TEXT_1, SearchManager.SUGGEST_COLUMN_TEXT_1);
+		define(CatalogColumn.SUGGEST_TEXT_2, SearchManager.SUGGEST_COLUMN_TEXT_2);
+		define(CatalogColumn.SUGGEST_INTENT_EXTRA_DATA,
+				SearchManager.SUGGEST_COLUMN_INTENT_EXTRA_DATA);
+		define(CatalogColumn.DELETED, FileCraftContract.COLUMN_DELETED);
+	}
+
+	/**
+	 * Bit mask of the column ids each table supports, indexed by UriMatcherEntry ordinal.
+	 */
+	private static final int[] TABLE_COLUMNS = new int[UriMatcherEntry.values().length];
+	static {
+		for (UriMatcherEntry entry : UriMatcherEntry.values()) {
+			int mask = 0;
+			for (String name : entry.defaultProjection) {
+				mask |= 1 << IDS.get(name);
+			}
+			if ((mask & (1 << CatalogColumn.VERSION)) != 0) {
+				// Not in default projections, since only changes_since queries have tombstones
+				mask |= 1 << CatalogColumn.DELETED;
+			}
+			TABLE_COLUMNS[entry.ordinal()] = mask;
+		}
+	}
+
+	private CatalogSchema() {
+	}
+
+	private static void define(int id, String name) {
+		NAMES[id] = name;
+		IDS.put(name, id);
+	}
+
+	/**
+	 * @return Column id for the column name or -1 if the column is unknown.
+	 */
+	public static int getColumnId(String name) {
+		Integer id = IDS.get(name);
+		return id == null ? -1 : id;
+	}
+
+	public static String getName(int columnId) {
+		return NAMES[columnId];
+	}
+
+	public static boolean isSupported(UriMatcherEntry entry, int columnId) {
+		return columnId >= 0 && (TABLE_COLUMNS[entry.ordinal()] & (1 << columnId)) != 0;
+	}
+
+	/**
+	 * Resolves a projection to column ids. A null projection resolves to the default projection
+	 * of the table.
+	 *
+	 * @throws IllegalArgumentException if a column is not served by the table.
+	 */
+	public static int[] compile(UriMatcherEntry entry, String[] projection) {
+		if (projection == null) {
+			projection = entry.defaultProjection;
+		}
+		int[] columnIds = new int[projection.length];
+		for (int i = 0; i < projection.length; i++) {
+			int columnId = getColumnId(projection[i]);
+			if (!isSupported(entry, columnId)) {
+				throw new IllegalArgumentException("Unhandled column name: " + projection[i] +
+						", table=" + entry.path);
+			}
+			columnIds[i] = columnId;
+		}
+		return columnIds;
+	}
+}
@@ -0,0 +1,360 @@
+package com.filecraft.helloworld;
+
+import java.util.Locale;
+
+import android.net.Uri;
+
+import com.filecraft.helloworld.ActionIdRegistry.Kind;
+import com.filecraft.helloworld.FileCraftContract.GalleryTable;
+import com.filecraft.helloworld.FileCraftContract.GridTable;
+import com.filecraft.helloworld.FileCraftContract.ListTable;
+import com.filecraft.helloworld.FileCraftContract.QuizQuestionsTable;
+import com.filecraft.helloworld.FileCraftContract.QuizTable;
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+import com.filecraft.helloworld.FileCraftContract.ViewTable;
+import com.filecraft.helloworld.GalleryItem.GalleryItemId;
+import com.filecraft.helloworld.GridItem.GridItemId;
+import com.filecraft.helloworld.Quiz.QuizId;
+import com.filecraft.helloworld.ViewItem.ViewItemId;
+
+/**
+ * Process wide snapshot of every static table. Built once on first use and shared by all
+ * ContentProviders so that a query is a view over existing arrays instead of building new items
+ * and resource paths for each row.
+ */
+public final class CatalogSnapshot {
+
+	private static volatile CatalogSnapshot sInstance = null;
+
+	public static final CatalogTable EMPTY_TABLE = new CatalogTable.Builder(0).build();
+
+	private final CatalogTable _listTable;
+	private final CatalogTable[] _gridTables;
+	private final CatalogTable[] _galleryTables;
+	private final CatalogTable[] _viewTables;
+	private final CatalogTable[] _quizTables;
+
+	/**
+	 * Locale of the resources the tables' strings were read from.
+	 */
+	private final Locale _locale;
+
+	/**
+	 * Catalog generation of the snapshot. The first snapshot of the process is generation 0, and
+	 * each reload adds one. Rows are versioned with the generation they last changed in.
+	 */
+	private final int _generation;
+
+	/**
+	 * @param previous Snapshot the row versions carry on from, or null for the first snapshot.
+	 */
+	private CatalogSnapshot(CatalogSnapshot previous) {
+		_locale = getLocale();
+		_generation = previous == null ? 0 : previous._generation + 1;
+		boolean traced = QueryTrace.beginSection("FileCraft:buildListTable");
+		try {
+			_listTable = version(buildListTable(), previous == null ? null : previous._listTable);
+		} finally {
+			QueryTrace.endSection(traced);
+		}
+
+		GridItemId[] gridIds = GridItemId.values();
+		_gridTables = new CatalogTable[gridIds.length];
+		traced = QueryTrace.beginSection("FileCraft:buildGridTables");
+		try {
+			for (GridItemId id : gridIds) {
+				_gridTables[id.ordinal()] = version(buildGridTable(id),
+						previous == null ? null : previous._gridTables[id.ordinal()]);
+			}
+		} finally {
+			QueryTrace.endSection(traced);
+		}
+
+		GalleryItemId[] galleryIds = GalleryItemId.values();
+		_galleryTables = new CatalogTable[galleryIds.length];
+		traced = QueryTrace.beginSection("FileCraft:buildGalleryTables");
+		try {
+			for (GalleryItemId id : galleryIds) {
+				_galleryTables[id.ordinal()] = version(buildGalleryTable(id),
+						previous == null ? null : previous._galleryTables[id.ordinal()]);
+			}
+		} finally {
+			QueryTrace.endSection(traced);
+		}
+
+		ViewItemId[] viewIds = ViewItemId.values();
+		_viewTables = new CatalogTable[viewIds.length];
+		traced = QueryTrace.beginSection("FileCraft:buildViewTables");
+		try {
+			for (ViewItemId id : viewIds) {
+				_viewTables[id.ordinal()] = version(buildViewTable(id),
+						previous == null ? null : previous._viewTables[id.ordinal()]);
+			}
+		} finally {
+			QueryTrace.endSection(traced);
+		}
+
+		QuizId[] quizIds = QuizId.values();
+		_quizTables = new CatalogTable[quizIds.length];
+		traced = QueryTrace.beginSection("FileCraft:buildQuizTables");
+		try {
+			for (QuizId id : quizIds) {
+				_quizTables[id.ordinal()] = version(buildQuizTable(id),
+						previous == null ? null : previous._quizTables[id.ordinal()]);
+			}
+		} finally {
+			QueryTrace.endSection(traced);
+		}
+	}
+
+	private CatalogTable version(CatalogTable table, CatalogTable previous) {
+		return previous == null ? table : table.withVersions(previous, _generation);
+	}
+
+	public static CatalogSnapshot getInstance() {
+		CatalogSnapshot instance = sInstance;
+		if (instance == null) {
+			synchronized (CatalogSnapshot.class) {
+				instance = sInstance;
+				if (instance == null) {
+					StartupTrace.beginSection("FileCraft:buildCatalog");
+					try {
+						instance = new CatalogSnapshot(null);
+					} finally {
+						StartupTrace.endSection();
+					}
+					sInstance = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Rebuilds the snapshot if the locale changed since it was built, so that the tables pick up
+	 * translated strings. The new snapshot replaces the old one in a single write, and cursors
+	 * already open keep reading the old tables. Each table whose rows changed is reported to the
+	 * notifier.
+	 */
+	public static void reloadIfLocaleChanged(ChangeNotifier notifier) {
+		CatalogSnapshot previous;
+		CatalogSnapshot next;
+		synchronized (CatalogSnapshot.class) {
+			previous = sInstance;
+			if (previous == null || previous._locale.equals(getLocale())) {
+				// Nothing to reload, or nothing was read from the old resources
+				return;
+			}
+			next = new CatalogSnapshot(previous);
+			sInstance = next;
+		}
+		int since = previous._generation;
+		if (next._listTable.hasChangesSince(since)) {
+			notifier.notifyChange(ListTable.TABLE_NAME, null);
+		}
+		for (GridItemId id : GridItemId.values()) {
+			notifyIfChanged(notifier, GridTable.TABLE_NAME, id.name(), next._gridTables, since,
+					id.ordinal());
+		}
+		for (GalleryItemId id : GalleryItemId.values()) {
+			notifyIfChanged(notifier, GalleryTable.TABLE_NAME, id.name(), next._galleryTables,
+					since, id.ordinal());
+		}
+		for (ViewItemId id : ViewItemId.values()) {
+			notifyIfChanged(notifier, ViewTable.TABLE_NAME, id.name(), next._viewTables, since,
+					id.ordinal());
+		}
+		for (QuizId id : QuizId.values()) {
+			notifyIfChanged(notifier, QuizTable.TABLE_NAME, id.name(), next._quizTables, since,
+					id.ordinal());
+		}
+	}
+
+	private static void notifyIfChanged(ChangeNotifier notifier, String tableName,
+			String actionId, CatalogTable[] tables, int since, int index) {
+		if (tables[index].hasChangesSince(since)) {
+			notifier.notifyChange(tableName, actionId);
+		}
+	}
+
+	/**
+	 * @return True if the rows of the table are versioned by catalog generation.
+	 */
+	public static boolean isVersioned(UriMatcherEntry entry) {
+		switch (entry) {
+		case LIST:
+		case LIST_ITEM:
+		case GRID:
+		case GRID_ITEM:
+		case GALLERY:
+		case GALLERY_ITEM:
+		case VIEW:
+		case QUIZ:
+			return true;
+		default:
+			return false;
+		}
+	}
+
+	/**
+	 * @return Generation of a changes_since query, or PageRequest.NONE if the query has none.
+	 * @throws IllegalArgumentException if the table is not versioned or the query also has a
+	 *         selection, sort order or paging parameters.
+	 */
+	public static int parseChangesSince(UriMatcherEntry entry, Uri uri, String selection,
+			String sortOrder) {
+		int since = PageRequest.getParameter(uri, FileCraftContract.PARAM_CHANGES_SINCE);
+		if (since == PageRequest.NONE) {
+			return since;
+		}
+		if (!isVersioned(entry) || entry.isItem()) {
+			throw new IllegalArgumentException("changes_since is not supported by " + entry.path);
+		}
+		if (selection != null || sortOrder != null || PageRequest.parse(uri) != null) {
+			throw new IllegalArgumentException(
+					"changes_since cannot be combined with a selection, sortOrder or paging: " +
+					uri);
+		}
+		return since;
+	}
+
+	public int getGeneration() {
+		return _generation;
+	}
+
+	static Locale getLocale() {
+		return TutorialUtils.getResources().getConfiguration().locale;
+	}
+
+	/**
+	 * @return Table of the action id, or null if the table name or action id is unknown. The
+	 *         action id of the list table is ignored.
+	 */
+	public CatalogTable getTable(String tableName, String actionId) {
+		if (ListTable.TABLE_NAME.equals(tableName)) {
+			return _listTable;
+		} else if (GridTable.TABLE_NAME.equals(tableName)) {
+			ActionIdRegistry.Entry entry = ActionIdRegistry.get(Kind.GRID, actionId);
+			return entry == null ? null : _gridTables[entry.ordinal];
+		} else if (GalleryTable.TABLE_NAME.equals(tableName)) {
+			ActionIdRegistry.Entry entry = ActionIdRegistry.get(Kind.GALLERY, actionId);
+			return entry == null ? null : _galleryTables[entry.ordinal];
+		} else if (ViewTable.TABLE_NAME.equals(tableName)) {
+			ActionIdRegistry.Entry entry = ActionIdRegistry.get(Kind.VIEW, actionId);
+			return entry == null ? null : _viewTables[entry.ordinal];
+		} else if (QuizTable.TABLE_NAME.equals(tableName)) {
+			ActionIdRegistry.Entry entry = ActionIdRegistry.get(Kind.QUIZ, actionId);
+			return entry == null ? null : _quizTables[entry.ordinal];
+		}
+		return null;
+	}
+
+	public CatalogTable getListTable() {
+		return _listTable;
+	}
+
+	public CatalogTable getGridTable(String actionId) {
+		return _gridTables[GridItemId.getItemId(actionId).ordinal()];
+	}
+
+	public CatalogTable getGalleryTable(String actionId) {
+		return _galleryTables[GalleryItemId.getItemId(actionId).ordinal()];
+	}
+
+	public CatalogTable getViewTable(String actionId) {
+		return _viewTables[ViewItemId.getItemId(actionId).ordinal()];
+	}
+
+	public CatalogTable getQuizTable(String actionId) {
+		return _quizTables[QuizId.getId(actionId).ordinal()];
+	}
+
+	private static CatalogTable buildListTable() {
+		int count = ListItem.getListItemCount();
+		CatalogTable.Builder builder = new CatalogTable.Builder(count);
+		for (int row = 0; row < count; row++) {
+			ListItem item = ListItem.getListItem(row);
+			builder.setString(CatalogColumn.CONTENT_PATH, row, item.iconPath)
+					.setInt(CatalogColumn.CONTENT_TYPE, row, item.iconType.code)
+					.setInt(CatalogColumn.ACTION_TYPE, row, item.type.code)
+					.setString(CatalogColumn.ACTION_ID, row, item.actionId)
+					.setString(CatalogColumn.LIST_NAME, row, item.name)
+					.setString(CatalogColumn.LIST_SUBTEXT, row, item.subtext);
+		}
+		return builder.build();
+	}
+
+	private static CatalogTable buildGridTable(GridItemId id) {
+		CatalogTable.Builder builder = new CatalogTable.Builder(id.itemCount);
+		for (int row = 0; row < id.itemCount; row++) {
+			GridItem item = GridItem.getGridItem(id.name(), row);
+			builder.setString(CatalogColumn.CONTENT_PATH, row, item.iconPath)
+					.setInt(CatalogColumn.CONTENT_TYPE, row, item.iconType.code)
+					.setString(CatalogColumn.TEXT, row, item.text)
+					.setInt(CatalogColumn.ACTION_TYPE, row, item.actionType.code)
+					.setString(CatalogColumn.ACTION_ID, row, item.actionId);
+		}
+		return builder.build();
+	}
+
+	private static CatalogTable buildGalleryTable(GalleryItemId id) {
+		CatalogTable.Builder builder = new CatalogTable.Builder(id.itemCount);
+		for (int row = 0; row < id.itemCount; row++) {
+			GalleryItem item = GalleryItem.getGalleryItem(id.name(), row);
+			builder.setString(CatalogColumn.CONTENT_PATH, row, item.imagePath)
+					.setInt(CatalogColumn.CONTENT_TYPE, row, item.imageType.code)
+					.setString(CatalogColumn.TEXT, row, item.text);
+		}
+		return builder.build();
+	}
+
+	private static CatalogTable buildViewTable(ViewItemId id) {
+		ViewItem item = ViewItem.getViewItem(id.name());
+		return new CatalogTable.Builder(1)
+				.setInt(CatalogColumn.ACTION_TYPE, 0, item.type.code)
+				.setString(CatalogColumn.VIEW_URI, 0, item.uri)
+				.build();
+	}
+
+	private static CatalogTable buildQuizTable(QuizId id) {
+		Quiz quiz = Quiz.getQuiz(id.name());
+		return new CatalogTable.Builder(1)
+				.setString(CatalogColumn.CONTENT_PATH, 0, quiz.iconPath)
+				.setInt(CatalogColumn.CONTENT_TYPE, 0, quiz.iconType.code)
+				.setString(CatalogColumn.ACTION_ID, 0, quiz.actionId)
+				.setString(CatalogColumn.TITLE, 0, quiz.title)
+				.setString(CatalogColumn.DESCRIPTION, 0, quiz.description)
+				.build();
+	}
+
+	/**
+	 * Quiz questions are randomly generated for every quiz, so their tables are not part of the
+	 * snapshot.
+	 */
+	public static CatalogTable buildQuizQuestionsTable(QuizQuestion[] questions) {
+		CatalogTable.Builder builder = new CatalogTable.Builder(questions.length);
+		for (int row = 0; row < questions.length; row++) {
+			QuizQuestion question = questions[row];
+			builder.setString(CatalogColumn.CONTENT_PATH, row, question.iconPath)
+					.setInt(CatalogColumn.CONTENT_TYPE, row, question.iconType.code)
+					.setInt(CatalogColumn.ACTION_TYPE, row, QuizQuestionsTable.TYPE_MULTIPLE_CHOICE)
+					.setString(CatalogColumn.ACTION_ID, row, question.actionId)
+					.setString(CatalogColumn.QUIZ_QUESTION, row, question.question)
+					.setString(CatalogColumn.QUIZ_SUBTEXT, row, "");
+		}
+		return builder.build();
+	}
+
+	/**
+	 * Quiz answers are randomly generated for every question, so their tables are not part of the
+	 * snapshot.
+	 */
+	public static CatalogTable buildQuizAnswersTable(QuizAnswer[] answers) {
+		CatalogTable.Builder builder = new CatalogTable.Builder(answers.length);
+		for (int row = 0; row < answers.length; row++) {
+			builder.setString(CatalogColumn.ANSWER_TEXT, row, answers[row].answer)
+					.setInt(CatalogColumn.IS_CORRECT_ANSWER, row, answers[row].isCorrect ? 1 : 0);
+		}
+		return builder.build();
+	}
+}
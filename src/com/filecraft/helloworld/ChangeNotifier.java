@@ -0,0 +1,150 @@
+package com.filecraft.helloworld;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.net.Uri;
+import android.os.Handler;
+import android.os.Looper;
+
+/**
+ * Sends ContentResolver change notifications for tables whose rows changed. Changes are
+ * collected for a short window and sent once per uri, so a burst of changes such as a catalog
+ * reload wakes each observer once instead of once per change.
+ *
+ * Changes are tracked per table and action id, see FileCraftContract.getChangeUri(). A change to
+ * a whole table already reaches the observers of each of its action ids, so pending action id
+ * changes of that table are dropped when it is sent.
+ */
+public final class ChangeNotifier {
+
+	/**
+	 * Default time changes are collected for before notifications are sent.
+	 */
+	public static final long DEFAULT_WINDOW_MS = 100;
+
+	private static volatile ChangeNotifier sInstance = null;
+
+	private final ContentResolver _resolver;
+	private final Handler _handler;
+
+	/**
+	 * Authorities of the providers in this process, and the tables each serves from memory. A
+	 * null set means every table.
+	 */
+	private final HashMap<String, HashSet<String>> _authorities =
+			new HashMap<String, HashSet<String>>();
+
+	private final LinkedHashSet<Uri> _pending = new LinkedHashSet<Uri>();
+	private long _windowMs = DEFAULT_WINDOW_MS;
+
+	private final Runnable _flush = new Runnable() {
+		@Override
+		public void run() {
+			flush();
+		}
+	};
+
+	private ChangeNotifier(Context context) {
+		_resolver = context.getContentResolver();
+		_handler = new Handler(Looper.getMainLooper());
+	}
+
+	public static ChangeNotifier getInstance(Context context) {
+		ChangeNotifier instance = sInstance;
+		if (instance == null) {
+			synchronized (ChangeNotifier.class) {
+				instance = sInstance;
+				if (instance == null) {
+					instance = new ChangeNotifier(context.getApplicationContext());
+					sInstance = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Registers a provider's authority for the changes of tables it serves from memory.
+	 *
+	 * @param tableNames Tables served from memory, or null for every table.
+	 */
+	public synchronized void addAuthority(String authority, String[] tableNames) {
+		HashSet<String> tables = null;
+		if (tableNames != null) {
+			tables = new HashSet<String>();
+			for (String tableName : tableNames) {
+				tables.add(tableName);
+			}
+		}
+		_authorities.put(authority, tables);
+	}
+
+	/**
+	 * Sets how long changes are collected for before notifications are sent. Zero sends them on
+	 * the next main thread loop.
+	 */
+	public synchronized void setWindowMs(long windowMs) {
+		if (windowMs < 0) {
+			throw new IllegalArgumentException("Invalid window: " + windowMs);
+		}
+		_windowMs = windowMs;
+	}
+
+	/**
+	 * Queues a notification for every registered authority that serves the table.
+	 *
+	 * @param actionId Action id whose rows changed, or null if the whole table changed.
+	 */
+	public synchronized void notifyChange(String tableName, String actionId) {
+		for (String authority : _authorities.keySet()) {
+			HashSet<String> tables = _authorities.get(authority);
+			if (tables == null || tables.contains(tableName)) {
+				notifyChange(FileCraftContract.getChangeUri(authority, tableName, actionId));
+			}
+		}
+	}
+
+	/**
+	 * Queues a notification for the uri. Uris already waiting are merged.
+	 */
+	public synchronized void notifyChange(Uri uri) {
+		boolean wasEmpty = _pending.isEmpty();
+		if (_pending.add(uri) && wasEmpty) {
+			_handler.postDelayed(_flush, _windowMs);
+		}
+	}
+
+	private void flush() {
+		List<Uri> uris;
+		synchronized (this) {
+			uris = new ArrayList<Uri>(_pending.size());
+			for (Uri uri : _pending) {
+				if (!isCoveredByTable(uri)) {
+					uris.add(uri);
+				}
+			}
+			_pending.clear();
+		}
+		for (Uri uri : uris) {
+			_resolver.notifyChange(uri, null, false);
+		}
+	}
+
+	/**
+	 * @return True if the uri is an action id change and its whole table is also pending.
+	 */
+	private boolean isCoveredByTable(Uri uri) {
+		List<String> segments = uri.getPathSegments();
+		if (segments.size() < 2) {
+			return false;
+		}
+		return _pending.contains(FileCraftContract.getChangeUri(uri.getAuthority(),
+				segments.get(0), null));
+	}
+}
@@ -0,0 +1,271 @@
+package com.filecraft.helloworld;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import android.content.Context;
+import android.net.Uri;
+import android.os.Process;
+import android.util.Log;
+
+import com.filecraft.helloworld.FileCraftContract.GridTable;
+import com.filecraft.helloworld.FileCraftContract.QuizTable;
+import com.filecraft.helloworld.Quiz.QuizId;
+
+/**
+ * Warms the files of the next page of a paged query on a background thread, so that they are
+ * already extracted or downloaded when the client scrolls to them. Runs one task at a time and
+ * drops the oldest queued task when the client pages faster than files can be fetched.
+ *
+ * Also warms the tables a list or grid leads to (see prefetchChildren()), so that the next tap
+ * reads files, thumbnails and quiz decks that are already on disk or in memory. The tables are
+ * read from the CatalogSnapshot, or from the CatalogDatabase for the provider that serves it.
+ */
+public final class ContentPrefetcher {
+
+	private static final String TAG = ContentPrefetcher.class.getSimpleName();
+
+	private static final int MAX_QUEUED_TASKS = 4;
+	private static final long IDLE_TIMEOUT_SECONDS = 30;
+
+	/**
+	 * Maximum number of files warmed for one list or grid, so that a large table does not keep
+	 * the thread busy long after the client moved on.
+	 */
+	private static final int MAX_CHILD_FILES = 32;
+
+	private static volatile ContentPrefetcher sInstance = null;
+
+	private final Context _context;
+	private final ThreadPoolExecutor _executor;
+
+	/**
+	 * Incremented by every prefetchChildren() and cancelChildren() call. A child warming task
+	 * stops as soon as the number no longer matches the one it was started with.
+	 */
+	private final AtomicInteger _childRequest = new AtomicInteger();
+
+	private ContentPrefetcher(Context context) {
+		_context = context;
+		_executor = new ThreadPoolExecutor(1, 1, IDLE_TIMEOUT_SECONDS, TimeUnit.SECONDS,
+				new ArrayBlockingQueue<Runnable>(MAX_QUEUED_TASKS), new ThreadFactory() {
+					@Override
+					public Thread newThread(final Runnable runnable) {
+						Thread thread = new Thread(new Runnable() {
+							@Override
+							public void run() {
+								Process.setThreadPriority(Process.THREAD_PRIORITY_BACKGROUND);
+								runnable.run();
+							}
+						}, TAG);
+						thread.setDaemon(true);
+						return thread;
+					}
+				}, new ThreadPoolExecutor.DiscardOldestPolicy());
+		_executor.allowCoreThreadTimeOut(true);
+	}
+
+	public static ContentPrefetcher getInstance(Context context) {
+		ContentPrefetcher instance = sInstance;
+		if (instance == null) {
+			synchronized (ContentPrefetcher.class) {
+				instance = sInstance;
+				if (instance == null) {
+					instance = new ContentPrefetcher(context.getApplicationContext());
+					sInstance = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Runs the task on the prefetch thread.
+	 */
+	public void execute(Runnable task) {
+		_executor.execute(task);
+	}
+
+	public void prefetchContent(final String[] contentPaths) {
+		execute(new Runnable() {
+			@Override
+			public void run() {
+				warmContent(contentPaths);
+			}
+		});
+	}
+
+	/**
+	 * Warms the tables opened by the rows of a list or grid: the icons of child grids, the
+	 * images of galleries and the decks of quizzes. Replaces any child warming still queued or
+	 * running, since the client has moved on from the table that started it.
+	 *
+	 * @param actionId Action id of the grid, or null for the list.
+	 */
+	public void prefetchChildren(String tableName, String actionId) {
+		prefetchChildren(null, tableName, actionId);
+	}
+
+	/**
+	 * Like prefetchChildren(String, String), but reads the tables from the database, so that a
+	 * process serving the database never builds the in-memory catalog.
+	 */
+	public void prefetchChildren(final CatalogDatabase database, final String tableName,
+			final String actionId) {
+		final int request = _childRequest.incrementAndGet();
+		execute(new Runnable() {
+			@Override
+			public void run() {
+				warmChildren(database, tableName, actionId, request);
+			}
+		});
+	}
+
+	/**
+	 * Stops child warming that is queued or running.
+	 */
+	public void cancelChildren() {
+		_childRequest.incrementAndGet();
+	}
+
+	private boolean isCancelled(int request) {
+		return _childRequest.get() != request;
+	}
+
+	/**
+	 * @param database Database to read the tables from, or null for the CatalogSnapshot.
+	 */
+	private void warmChildren(CatalogDatabase database, String tableName, String actionId,
+			int request) {
+		if (isCancelled(request)) {
+			return;
+		}
+		CatalogSnapshot snapshot = database == null ? CatalogSnapshot.getInstance() : null;
+		String[][] children = database == null ? getChildren(snapshot, tableName, actionId) :
+				database.getChildren(tableName, actionId);
+		int warmedFiles = 0;
+		for (int i = 0; i < children.length && warmedFiles < MAX_CHILD_FILES; i++) {
+			String childTableName = children[i][0];
+			String childActionId = children[i][1];
+			if (QuizTable.TABLE_NAME.equals(childTableName)) {
+				// Questions are drawn from the deck when the quiz starts
+				QuizId quizId = QuizId.getId(childActionId);
+				if (quizId != null) {
+					QuizAnswerSet.getDeck(quizId.answerSetId);
+				}
+			}
+			String[] paths = database == null ?
+					getContentPaths(snapshot, childTableName, childActionId) :
+					database.getContentPaths(childTableName, childActionId, MAX_CHILD_FILES);
+			for (int j = 0; j < paths.length && warmedFiles < MAX_CHILD_FILES; j++) {
+				if (isCancelled(request)) {
+					return;
+				}
+				if (warmFile(paths[j], !GridTable.TABLE_NAME.equals(childTableName))) {
+					warmedFiles++;
+				}
+			}
+		}
+	}
+
+	/**
+	 * @return Table name and action id of each table opened by a row of the list or grid.
+	 */
+	private static String[][] getChildren(CatalogSnapshot snapshot, String tableName,
+			String actionId) {
+		CatalogTable table = snapshot.getTable(tableName, actionId);
+		if (table == null) {
+			return new String[0][];
+		}
+		ArrayList<String[]> children = new ArrayList<String[]>(table.getRowCount());
+		for (int row = 0; row < table.getRowCount(); row++) {
+			String childTableName = TreeFetcher.getChildTable(tableName, table, row);
+			if (childTableName != null) {
+				children.add(new String[] { childTableName,
+						table.getString(CatalogColumn.ACTION_ID, row) });
+			}
+		}
+		return children.toArray(new String[children.size()][]);
+	}
+
+	private static String[] getContentPaths(CatalogSnapshot snapshot, String tableName,
+			String actionId) {
+		CatalogTable table = snapshot.getTable(tableName, actionId);
+		if (table == null || !table.hasColumn(CatalogColumn.CONTENT_PATH)) {
+			return new String[0];
+		}
+		String[] paths = new String[Math.min(table.getRowCount(), MAX_CHILD_FILES)];
+		for (int row = 0; row < paths.length; row++) {
+			paths[row] = table.getString(CatalogColumn.CONTENT_PATH, row);
+		}
+		return paths;
+	}
+
+	/**
+	 * Opens the file once, and renders the default thumbnail of svg icons. Gallery images are
+	 * shown full size, so only grid icons get thumbnails.
+	 *
+	 * @return True if the path is a file served by this app.
+	 */
+	private boolean warmFile(String path, boolean isFullSize) {
+		if (path == null) {
+			return false;
+		}
+		Uri uri = Uri.parse(path);
+		try {
+			int resourceId = UriRouter.getResourceId(uri);
+			if (resourceId != UriRouter.NO_POSITION) {
+				ResourceFileTable files = ResourceFileTable.getInstance(_context);
+				files.open(resourceId).close();
+				if (!isFullSize &&
+						SvgThumbnailCache.SVG_TYPE.equals(files.getMimeType(resourceId))) {
+					SvgThumbnailCache.getInstance(_context).open(resourceId,
+							SvgThumbnailCache.DEFAULT_SIZE, SvgThumbnailCache.PNG_TYPE).close();
+				}
+				return true;
+			}
+			String url = GalleryItem.getWebImageUrl(UriRouter.getWebImageIndex(uri));
+			if (url != null) {
+				WebImageCache.getInstance(_context).open(url).close();
+				return true;
+			}
+		} catch (IOException e) {
+			Log.w(TAG, "Failed to prefetch " + path, e);
+		}
+		return false;
+	}
+
+	/**
+	 * Opens every file served by this app's providers once. Other paths, such as
+	 * android.resource:// uris, need no warming and are skipped. Must be called on the prefetch
+	 * thread.
+	 */
+	public void warmContent(String[] contentPaths) {
+		HashSet<String> warmed = new HashSet<String>();
+		for (String path : contentPaths) {
+			if (path == null || !warmed.add(path)) {
+				continue;
+			}
+			Uri uri = Uri.parse(path);
+			try {
+				int resourceId = UriRouter.getResourceId(uri);
+				if (resourceId != UriRouter.NO_POSITION) {
+					ResourceFileTable.getInstance(_context).open(resourceId).close();
+					continue;
+				}
+				String url = GalleryItem.getWebImageUrl(UriRouter.getWebImageIndex(uri));
+				if (url != null) {
+					WebImageCache.getInstance(_context).open(url).close();
+				}
+			} catch (IOException e) {
+				Log.w(TAG, "Failed to prefetch " + path, e);
+			}
+		}
+	}
+}
@@ -20,46 +20,117 @@ OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWA
 package com.filecraft.helloworld;
 
 import android.database.AbstractCursor;
+import android.database.CursorWindow;
 import android.net.Uri;
+import android.os.Bundle;
+import android.util.Log;
 
-import com.filecraft.helloworld.FileCraftContract.ListTable;
-import com.filecraft.helloworld.FileCraftContract.QuizAnswersTable;
-import com.filecraft.helloworld.FileCraftContract.QuizQuestionsTable;
 import com.filecraft.helloworld.FileCraftContract.QuizTable;
 import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
-import com.filecraft.helloworld.FileCraftContract.ViewTable;
 
 /**
  * Custom cursor used by the ContentProvider. Does not use a sqlite database and all data is
- * static.
+ * static. SqliteCursorProvider serves the same tables from a sqlite database.
  * 
- * TODO: Add example cursors that draw data from a sqlite database, from another ContentProvider
- * on the device, from files packaged with the apk, and from a remote server.
+ * TODO: Add example cursors that draw data from another ContentProvider on the device, from
+ * files packaged with the apk, and from a remote server.
  */
 public class CustomCursor extends AbstractCursor {
 
+	private static final String TAG = CustomCursor.class.getSimpleName();
+
+	/**
+	 * Size of the CursorWindow allocated for cross process cursors. Matches the platform's
+	 * config_cursorWindowSize of 2MB.
+	 */
+	private static final int WINDOW_SIZE_BYTES = 2 * 1024 * 1024;
+
+	/**
+	 * Approximate bytes used per row and per field slot by the CursorWindow's own bookkeeping.
+	 */
+	private static final int WINDOW_ROW_OVERHEAD_BYTES = 4;
+	private static final int WINDOW_FIELD_SLOT_BYTES = 16;
+
 	private final UriMatcherEntry _matcherEntry;
 	private final Uri _uri;
+
+	/**
+	 * Authority content paths are moved to, or null if the table's paths are served as is. See
+	 * TutorialUtils.getContentPath().
+	 */
+	private final String _pathAuthority;
+	private final int _pathExtraBytes;
 	private String _actionId;
 	private final String[] _projection;
+	private final int[] _columnIds;
+
+	/**
+	 * Rows served by this cursor. Static tables are shared with every other cursor in the process.
+	 */
+	private CatalogTable _table = CatalogSnapshot.EMPTY_TABLE;
+
+	/**
+	 * Table row of each cursor position, or null if cursor positions are table rows.
+	 */
+	private int[] _rows = null;
 
-	private ListItem[] _listItems = null;
-	private GridItem[] _gridItems = null;
-	private GalleryItem[] _galleryItems = null;
-	private ViewItem _viewItem = null;
-	private Quiz _quiz = null;
-	private QuizQuestion[] _quizQuestions = null;
-	private QuizAnswer[] _quizAnswers = null;
+	/**
+	 * Column whose order the rows are in, or SortOrder.POSITION. Descending queries read the rows
+	 * from the end, so a sorted query never copies or sorts rows.
+	 */
+	private int _sortColumnId = SortOrder.POSITION;
+	private boolean _descending = false;
+
+	/**
+	 * Paging parameters of the query, or null if every row is returned. The page covers
+	 * _pageCount rows starting at index _pageStart of the table (or of _rows).
+	 */
+	private PageRequest _page = null;
+	private int _pageStart = 0;
+	private int _pageCount = 0;
+
+	/**
+	 * Paging extras, and the catalog generation of versioned tables.
+	 */
+	private Bundle _extras = Bundle.EMPTY;
+
+	private int _lastWindowRowCount = 0;
+	private int _lastWindowBytes = 0;
+
+	/**
+	 * Counters of the query's table, or null if QueryStats recording was disabled when the
+	 * cursor was created. Cells read through the getters are counted in _cellsRead and added
+	 * when the cursor is closed, instead of on every call.
+	 */
+	private final QueryStats.Counters _stats;
+	private int _cellsRead = 0;
+
+	/**
+	 * Cookie of the cursor's QueryTrace async section, or 0 if tracing was disabled.
+	 */
+	private int _traceCookie = 0;
 
 	public CustomCursor(Uri uri, String[] projection,
 			String selection, String[] selectionArgs, String sortOrder) {
 		_uri = uri;
-		_projection = projection;
-		int tableId = FileCraftContract.URI_MATCHER.match(uri);
-		_matcherEntry = UriMatcherEntry.getEntryFromTableId(tableId);
+		String authority = uri.getAuthority();
+		_pathAuthority = TutorialUtils.movesPaths(authority) ? authority : null;
+		_pathExtraBytes = TutorialUtils.getMovedPathExtraBytes(authority);
+		boolean routeTraced = QueryTrace.beginSection("FileCraft:route");
+		try {
+			_matcherEntry = UriRouter.match(uri);
+		} finally {
+			QueryTrace.endSection(routeTraced);
+		}
 		if (_matcherEntry == null) {
 			throw new IllegalArgumentException("Unknown table URI: " + uri);
 		}
+		// Resolve the projection once so that unknown columns fail here instead of while the
+		// cursor window is being filled.
+		_projection = projection == null ? _matcherEntry.defaultProjection : projection;
+		_columnIds = CatalogSchema.compile(_matcherEntry, _projection);
+		_stats = QueryStats.getCounters(uri, _matcherEntry);
+		boolean traced = QueryTrace.beginSection("FileCraft:selectRows");
 		try {
 			switch (_matcherEntry) {
 			case GRID:
@@ -77,64 +148,238 @@ public class CustomCursor extends AbstractCursor {
 				// NO-OP
 				break;
 			}
+			CatalogSnapshot snapshot = CatalogSnapshot.getInstance();
 			switch (_matcherEntry) {
 			case LIST:
 			case LIST_ITEM:
-				_listItems = new ListItem[ListItem.getListItemCount()];
+				_table = snapshot.getListTable();
 				break;
 			case GRID:
 			case GRID_ITEM:
-				_gridItems = new GridItem[GridItem.getGridItemCount(_actionId)];
+				_table = snapshot.getGridTable(_actionId);
 				break;
 			case GALLERY:
 			case GALLERY_ITEM:
-				_galleryItems = new GalleryItem[GalleryItem.getGalleryItemCount(_actionId)];
+				_table = snapshot.getGalleryTable(_actionId);
 				break;
 			case VIEW:
-				_viewItem = ViewItem.getViewItem(_actionId);
+				_table = snapshot.getViewTable(_actionId);
 				break;
 			case QUIZ:
-				_quiz = Quiz.getQuiz(_actionId);
+				_table = snapshot.getQuizTable(_actionId);
 				break;
 			case QUIZ_QUESTIONS:
 			case QUIZ_QUESTIONS_ITEM:
-				_quizQuestions = QuizQuestion.getQuizQuestions(_actionId, false);
+				String questionsSessionId = getQuizSessionId(uri, selection, selectionArgs);
+				_table = questionsSessionId != null ?
+						QuizSessionStore.getInstance().getQuestions(questionsSessionId, _actionId) :
+						CatalogSnapshot.buildQuizQuestionsTable(
+								QuizQuestion.getQuizQuestions(_actionId, false));
 				break;
 			case QUIZ_ANSWERS:
 			case QUIZ_ANSWERS_ITEM:
-				_quizAnswers = QuizAnswer.getQuizAnswers(_actionId, true);
+				String answersSessionId = getQuizSessionId(uri, selection, selectionArgs);
+				_table = answersSessionId != null ?
+						QuizSessionStore.getInstance().getAnswers(answersSessionId, _actionId) :
+						CatalogSnapshot.buildQuizAnswersTable(
+								QuizAnswerSet.getQuizAnswers(_actionId, true));
+				break;
+			case SEARCH:
+				_table = SearchIndex.getInstance().search(selectionArgs != null &&
+						selectionArgs.length > 0 ? selectionArgs[0] : null);
+				break;
+			case SEARCH_SUGGEST:
+				String query = UriRouter.getTextSegment(uri);
+				if (query.length() == 0 && selectionArgs != null && selectionArgs.length > 0) {
+					query = selectionArgs[0];
+				}
+				_table = SearchIndex.getInstance().search(query);
+				// The selection of a searchable configuration only marks where the query goes
+				selection = null;
 				break;
 			default:
 				// NO-OP
 				break;
 			}
+			int changesSince = CatalogSnapshot.parseChangesSince(_matcherEntry, uri, selection,
+					sortOrder);
+			if (changesSince != PageRequest.NONE) {
+				_table = _table.getChangesSince(changesSince);
+			}
+			if (_matcherEntry.isItem()) {
+				int position = UriRouter.getPosition(uri);
+				_rows = position < _table.getRowCount() ? new int[] { position } : new int[0];
+			} else {
+				SortOrder sort = SortOrder.parse(_matcherEntry, sortOrder);
+				if (sort != null) {
+					_descending = sort.descending;
+					int[] sortedRows = sort.columnId == SortOrder.POSITION ? null :
+							_table.getSortedRows(sort.columnId);
+					if (sortedRows != null) {
+						_rows = sortedRows;
+						_sortColumnId = sort.columnId;
+					}
+				}
+			}
+			SelectionPredicate predicate = SelectionPredicate.compile(selection);
+			if (predicate != null) {
+				// Filtering keeps rows in sorted order, which paging relies on
+				predicate.checkColumns(_matcherEntry);
+				_rows = predicate.filter(_table, _rows, selectionArgs,
+						SelectionPredicate.getFirstArg(_matcherEntry));
+			}
+			_pageCount = getTotalCount();
+			if (!_matcherEntry.isItem()) {
+				_page = PageRequest.parse(uri);
+				if (_page != null) {
+					applyPage();
+				}
+			}
+			if (CatalogSnapshot.isVersioned(_matcherEntry)) {
+				if (_extras == Bundle.EMPTY) {
+					_extras = new Bundle(1);
+				}
+				_extras.putInt(FileCraftContract.EXTRA_GENERATION, snapshot.getGeneration());
+			}
 
+		} catch (IllegalArgumentException e) {
+			// Already says what is wrong with the query, as SqliteCursorProvider reports it
+			throw e;
 		} catch (Exception e) {
-			e.printStackTrace();
-			throw new IllegalArgumentException("Failed to parse table URI: " + uri);
+			Log.w(TAG, "Failed to parse table URI: " + uri, e);
+			throw new IllegalArgumentException("Failed to parse table URI: " + uri + ": " +
+					e.getMessage(), e);
+		} finally {
+			QueryTrace.endSection(traced);
+		}
+		_traceCookie = QueryTrace.beginCursor();
+	}
+
+	/**
+	 * @return Quiz session id of a quiz_questions or quiz_answers query, or null if it has none.
+	 *         selectionArgs[1] is only a session id if the query has no selection.
+	 */
+	static String getQuizSessionId(Uri uri, String selection, String[] selectionArgs) {
+		String sessionId = uri.getQueryParameter(QuizTable.PARAM_SESSION);
+		if (sessionId == null && SelectionPredicate.compile(selection) == null &&
+				selectionArgs != null && selectionArgs.length > 1) {
+			sessionId = selectionArgs[1];
 		}
+		return sessionId;
+	}
+
+	/**
+	 * Limits the cursor to the requested page and records the paging extras.
+	 */
+	private void applyPage() {
+		int total = getTotalCount();
+		int start = 0;
+		if (_page.after != PageRequest.NONE) {
+			start = getIndexAfter(_page.after);
+		}
+		if (_page.offset != PageRequest.NONE) {
+			start = (int) Math.min(total, (long) start + _page.offset);
+		}
+		int end = _page.getEnd(start, total);
+		_pageStart = start;
+		_pageCount = end - start;
+		boolean hasNextPage = end < total && end > start;
+		_extras = PageRequest.getExtras(total, hasNextPage,
+				hasNextPage ? getTableRow(end - 1) : PageRequest.NONE);
+	}
+
+	/**
+	 * @return Index of the first row that comes after the row at the given table position in the
+	 *         cursor's order. Rows are in ascending order of getSortKey(), so the index is found
+	 *         by binary search.
+	 */
+	private int getIndexAfter(int position) {
+		long key = position < _table.getRowCount() ? getSortKey(position) : Long.MAX_VALUE;
+		int total = getTotalCount();
+		// Rows before the given row when read from the start: keys below it, and the row itself
+		// unless the rows are read from the end
+		int low = 0;
+		int high = total;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			long middleKey = getSortKey(_rows == null ? middle : _rows[middle]);
+			if (middleKey < key || (!_descending && middleKey == key)) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return _descending ? total - low : low;
+	}
+
+	/**
+	 * @return Rank of the row in the sort column, or its position.
+	 */
+	private long getSortKey(int row) {
+		return _sortColumnId == SortOrder.POSITION ? row : _table.getRank(_sortColumnId, row);
+	}
+
+	/**
+	 * @return Number of rows before paging.
+	 */
+	private int getTotalCount() {
+		return _rows == null ? _table.getRowCount() : _rows.length;
 	}
 
 	@Override
 	public int getCount() {
-		switch (_matcherEntry) {
-		case LIST:
-			return ListItem.getListItemCount();
-		case GRID:
-			return GridItem.getGridItemCount(_actionId);
-		case GALLERY:
-			return GalleryItem.getGalleryItemCount(_actionId);
-		case QUIZ:
-			return 1;
-		case QUIZ_QUESTIONS:
-			return QuizQuestion.getQuizQuestionCount(_actionId);
-		case QUIZ_ANSWERS:
-			return _quizAnswers.length;
-		case VIEW:
-			return 1;
-		default:
-			return 0;
+		return _pageCount;
+	}
+
+	private int getRow(int position) {
+		return getTableRow(_pageStart + position);
+	}
+
+	private int getTableRow(int index) {
+		if (_descending) {
+			index = getTotalCount() - 1 - index;
+		}
+		return _rows == null ? index : _rows[index];
+	}
+
+	/**
+	 * @return Action id of the query, or null for tables without one.
+	 */
+	public String getActionId() {
+		return _actionId;
+	}
+
+	/**
+	 * @return Uri notified when the rows of this cursor change.
+	 */
+	public Uri getChangeUri() {
+		return FileCraftContract.getChangeUri(_uri.getAuthority(), _matcherEntry.getTableName(),
+				_actionId);
+	}
+
+	@Override
+	public Bundle getExtras() {
+		return _extras;
+	}
+
+	/**
+	 * @return Content paths of the page after this one, or null if the query is not paged, this
+	 *         is the last page or the table has no content paths.
+	 */
+	public String[] getNextPageContentPaths() {
+		if (_page == null || !_table.hasColumn(CatalogColumn.CONTENT_PATH)) {
+			return null;
+		}
+		int start = _pageStart + _pageCount;
+		int end = Math.min(getTotalCount(), start + _pageCount);
+		if (start >= end) {
+			return null;
+		}
+		String[] paths = new String[end - start];
+		for (int i = start; i < end; i++) {
+			paths[i - start] = _table.getString(CatalogColumn.CONTENT_PATH, getTableRow(i));
 		}
+		return paths;
 	}
 
 	@Override
@@ -144,101 +389,31 @@ public class CustomCursor extends AbstractCursor {
 
 	@Override
 	public int getType(int column) {
-		String columnName = getColumnName(column);
-		if (FileCraftContract.COLUMN_CONTENT_TYPE.equals(columnName) ||
-				FileCraftContract.COLUMN_VERSION.equals(columnName) ||
-				FileCraftContract.COLUMN_ACTION_TYPE.equals(columnName) ||
-				QuizAnswersTable.COLUMN_IS_CORRECT_ANSWER.equals(columnName)) {
-			return FIELD_TYPE_INTEGER;
-		} else {
-			return FIELD_TYPE_STRING;
-		}
+		return CatalogColumn.getType(_columnIds[column]);
 	}
 
 	@Override
 	public String getString(int column) {
-		String columnName = getColumnName(column);
-		if (columnName == null) {
-			return null;
+		if (_stats != null) {
+			_cellsRead++;
 		}
-		int position = getPosition();
-		if (FileCraftContract._ID.equals(columnName)) {
-			return String.valueOf(position);
+		int columnId = _columnIds[column];
+		if (!_table.hasColumn(columnId)) {
+			throw new IllegalArgumentException("Unhandled column name: " + getColumnName(column) +
+					", uri=" + _uri);
 		}
-		switch (_matcherEntry) {
-		case LIST:
-			if (_listItems[position] == null) {
-				_listItems[position] = ListItem.getListItem(position);
-			}
-			if (FileCraftContract.COLUMN_CONTENT_PATH.equals(columnName)) {
-				return _listItems[position].iconPath;
-			} else if (FileCraftContract.COLUMN_ACTION_ID.equals(columnName)) {
-				return _listItems[position].actionId;
-			} else if (ListTable.COLUMN_LIST_NAME.equals(columnName)) {
-				return _listItems[position].name;
-			} else if (ListTable.COLUMN_LIST_SUBTEXT.equals(columnName)) {
-				return _listItems[position].subtext;
-			}
-			break;
-		case GRID:
-			if (_gridItems[position] == null) {
-				_gridItems[position] = GridItem.getGridItem(_actionId, position);
-			}
-			if (FileCraftContract.COLUMN_CONTENT_PATH.equals(columnName)) {
-				return _gridItems[position].iconPath;
-			} else if (FileCraftContract.COLUMN_ACTION_ID.equals(columnName)) {
-				return _gridItems[position].actionId;
-			} else if (FileCraftContract.COLUMN_TEXT.equals(columnName)) {
-				return _gridItems[position].text;
-			}
-			break;
-		case GALLERY:
-			if (_galleryItems[position] == null) {
-				_galleryItems[position] = GalleryItem.getGalleryItem(_actionId, position);
-			}
-			if (FileCraftContract.COLUMN_CONTENT_PATH.equals(columnName)) {
-				return _galleryItems[position].imagePath;
-			} else if (FileCraftContract.COLUMN_TEXT.equals(columnName)) {
-				return _galleryItems[position].text;
-			}
-			break;
-		case VIEW:
-			if (ViewTable.COLUMN_VIEW_URI.equals(columnName)) {
-				return _viewItem.uri;
-			}
-			break;
-		case QUIZ:
-			if (FileCraftContract.COLUMN_CONTENT_PATH.equals(columnName)) {
-				return _quiz.iconPath;
-			} else if (FileCraftContract.COLUMN_ACTION_ID.equals(columnName)) {
-				return _quiz.actionId;
-			} else if (QuizTable.COLUMN_DESCRIPTION.equals(columnName)) {
-				return _quiz.description;
-			} else if (QuizTable.COLUMN_TITLE.equals(columnName)) {
-				return _quiz.title;
-			}
-			break;
-		case QUIZ_QUESTIONS:
-			if (FileCraftContract.COLUMN_CONTENT_PATH.equals(columnName)) {
-				return _quizQuestions[position].iconPath;
-			} else if (FileCraftContract.COLUMN_ACTION_ID.equals(columnName)) {
-				return _quizQuestions[position].actionId;
-			} else if (QuizQuestionsTable.COLUMN_QUIZ_QUESTION.equals(columnName)) {
-				return _quizQuestions[position].question;
-			} else if (QuizQuestionsTable.COLUMN_QUIZ_SUBTEXT.equals(columnName)) {
-				return "";
-			}
-			break;
-		case QUIZ_ANSWERS:
-			if (QuizAnswersTable.COLUMN_ANSWER_TEXT.equals(columnName)) {
-				return _quizAnswers[position].answer;
-			}
-			break;
-		default:
-			// NO-OP
-			break;
+		return getString(columnId, getRow(getPosition()));
+	}
+
+	/**
+	 * @return Value of the cell as served to the client.
+	 */
+	private String getString(int columnId, int tableRow) {
+		String value = _table.getString(columnId, tableRow);
+		if (_pathAuthority != null && columnId == CatalogColumn.CONTENT_PATH) {
+			value = TutorialUtils.getContentPath(value, _pathAuthority);
 		}
-		throw new IllegalArgumentException("Unhandled column name: " + columnName + ", uri=" + _uri);
+		return value;
 	}
 
 	@Override
@@ -255,67 +430,116 @@ public class CustomCursor extends AbstractCursor {
 
 	@Override
 	public long getLong(int column) {
-		String columnName = getColumnName(column);
-		if (columnName == null) {
-			return -1;
+		if (_stats != null) {
+			_cellsRead++;
 		}
-		if (FileCraftContract.COLUMN_VERSION.equals(columnName)) {
-			return 0;
+		return _table.getLong(_columnIds[column], getRow(getPosition()));
+	}
+
+	/**
+	 * Writes rows directly from the table into the window. The number of rows that fit is worked
+	 * out from the precomputed cell sizes before anything is written, so the window is filled in
+	 * a single pass instead of failing on allocRow() and being retried.
+	 */
+	@Override
+	public void fillWindow(int position, CursorWindow window) {
+		int count = getCount();
+		if (position < 0 || position >= count) {
+			return;
 		}
-		int position = getPosition();
-		switch (_matcherEntry) {
-		case LIST:
-			if (_listItems[position] == null) {
-				_listItems[position] = ListItem.getListItem(position);
-			}
-			if (FileCraftContract.COLUMN_ACTION_TYPE.equals(columnName)) {
-				return _listItems[position].type.code;
-			} else if (FileCraftContract.COLUMN_CONTENT_TYPE.equals(columnName)) {
-				return _listItems[position].iconType.code;
-			}
-			break;
-		case GRID:
-			if (_gridItems[position] == null) {
-				_gridItems[position] = GridItem.getGridItem(_actionId, position);
-			}
-			if (FileCraftContract.COLUMN_ACTION_TYPE.equals(columnName)) {
-				return _gridItems[position].actionType.code;
-			} else if (FileCraftContract.COLUMN_CONTENT_TYPE.equals(columnName)) {
-				return _gridItems[position].iconType.code;
+		int numColumns = _columnIds.length;
+		boolean traced = QueryTrace.beginSection("FileCraft:fillWindow");
+		window.acquireReference();
+		try {
+			window.clear();
+			window.setStartPosition(position);
+			window.setNumColumns(numColumns);
+			int end = position + getRowsThatFit(position, count);
+			int row = position;
+			for (; row < end; row++) {
+				if (!window.allocRow()) {
+					break;
+				}
+				if (!putRow(window, row)) {
+					window.freeLastRow();
+					break;
+				}
 			}
-			break;
-		case GALLERY:
-			if (_galleryItems[position] == null) {
-				_galleryItems[position] = GalleryItem.getGalleryItem(_actionId, position);
+			_lastWindowRowCount = row - position;
+			if (_stats != null) {
+				_stats.addWindow(_lastWindowRowCount, numColumns, _lastWindowBytes);
 			}
-			if (FileCraftContract.COLUMN_CONTENT_TYPE.equals(columnName)) {
-				return _galleryItems[position].imageType.code;
+			if (Log.isLoggable(TAG, Log.VERBOSE)) {
+				Log.v(TAG, "fillWindow: wrote " + _lastWindowRowCount + " rows starting at " +
+						position + ", uri=" + _uri);
 			}
-			break;
-		case VIEW:
-			if (FileCraftContract.COLUMN_ACTION_TYPE.equals(columnName)) {
-				return _viewItem.type.code;
+		} finally {
+			window.releaseReference();
+			QueryTrace.endSection(traced);
+		}
+	}
+
+	/**
+	 * @return Number of rows written by the most recent call to fillWindow().
+	 */
+	public int getLastWindowRowCount() {
+		return _lastWindowRowCount;
+	}
+
+	private int getRowsThatFit(int position, int count) {
+		int fixedRowBytes = WINDOW_ROW_OVERHEAD_BYTES + _columnIds.length * WINDOW_FIELD_SLOT_BYTES;
+		int remaining = WINDOW_SIZE_BYTES;
+		int row = position;
+		for (; row < count; row++) {
+			int rowBytes = fixedRowBytes;
+			int tableRow = getRow(row);
+			for (int columnId : _columnIds) {
+				rowBytes += _table.getStringBytes(columnId, tableRow);
+				if (columnId == CatalogColumn.CONTENT_PATH) {
+					rowBytes += _pathExtraBytes;
+				}
 			}
-		case QUIZ:
-			if (FileCraftContract.COLUMN_CONTENT_TYPE.equals(columnName)) {
-				return _quiz.iconType.code;
+			if (rowBytes > remaining) {
+				break;
 			}
-			break;
-		case QUIZ_QUESTIONS:
-			if (FileCraftContract.COLUMN_ACTION_TYPE.equals(columnName)) {
-				return QuizQuestionsTable.TYPE_MULTIPLE_CHOICE;
+			remaining -= rowBytes;
+		}
+		_lastWindowBytes = WINDOW_SIZE_BYTES - remaining;
+		// Always attempt at least one row so an oversized row surfaces as a window error instead
+		// of an empty window.
+		return Math.max(1, row - position);
+	}
+
+	private boolean putRow(CursorWindow window, int row) {
+		int tableRow = getRow(row);
+		for (int column = 0; column < _columnIds.length; column++) {
+			int columnId = _columnIds[column];
+			boolean success;
+			if (CatalogColumn.getType(columnId) == FIELD_TYPE_INTEGER) {
+				success = window.putLong(_table.getLong(columnId, tableRow), row, column);
+			} else {
+				String value = getString(columnId, tableRow);
+				success = value == null ? window.putNull(row, column) :
+						window.putString(value, row, column);
 			}
-			break;
-		case QUIZ_ANSWERS:
-			if (QuizAnswersTable.COLUMN_IS_CORRECT_ANSWER.equals(columnName)) {
-				return _quizAnswers[position].isCorrect ? 1 : 0;
+			if (!success) {
+				return false;
 			}
-			break;
-		default:
-			// NO-OP
-			break;
 		}
-		return -1;
+		return true;
+	}
+
+	@Override
+	public void close() {
+		super.close();
+		if (_traceCookie != 0) {
+			QueryTrace.endCursor(_traceCookie);
+			_traceCookie = 0;
+		}
+		if (_stats != null && _cellsRead > 0) {
+			_stats.add(QueryStats.Counters.CELLS, _cellsRead);
+			_cellsRead = 0;
+		}
 	}
 
 	@Override
@@ -330,6 +554,9 @@ public class CustomCursor extends AbstractCursor {
 
 	@Override
 	public boolean isNull(int column) {
-		return false;
+		if (_stats != null) {
+			_cellsRead++;
+		}
+		return _table.isNull(_columnIds[column], getRow(getPosition()));
 	}
 }
@@ -19,51 +19,322 @@ OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWA
 
 package com.filecraft.helloworld;
 
+import java.io.FileNotFoundException;
+import java.util.ArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import android.content.ClipDescription;
 import android.content.ContentProvider;
 import android.content.ContentValues;
+import android.content.Context;
+import android.content.pm.ProviderInfo;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.Configuration;
 import android.database.Cursor;
 import android.net.Uri;
+import android.os.Bundle;
+import android.os.ParcelFileDescriptor;
 
-import com.filecraft.helloworld.FileCraftContract.GalleryTable;
-import com.filecraft.helloworld.FileCraftContract.GridTable;
-import com.filecraft.helloworld.FileCraftContract.ListTable;
+import com.filecraft.helloworld.FileCraftContract.NavigationTree;
+import com.filecraft.helloworld.FileCraftContract.ResourceFile;
+import com.filecraft.helloworld.FileCraftContract.StatsTable;
 import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
-import com.filecraft.helloworld.FileCraftContract.ViewTable;
 
 public class CustomCursorProviderA extends ContentProvider {
 
+	/**
+	 * Runs locale reloads one at a time. Unlike the prefetch thread, which drops its oldest task
+	 * when busy, it queues every reload, since a dropped one would leave the old strings served.
+	 */
+	private static final ThreadPoolExecutor RELOAD_EXECUTOR = new ThreadPoolExecutor(1, 1, 30,
+			TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+
+	static {
+		RELOAD_EXECUTOR.allowCoreThreadTimeOut(true);
+	}
+
+	/**
+	 * Authority from the AndroidManifest, set by attachInfo(). call() has no uri to read it from.
+	 */
+	private String _authority;
+
+	/**
+	 * Anchors resource lookups to this provider's context, since providers are created before
+	 * MyApplication.onCreate(). Everything else is built lazily, optionally ahead of the first
+	 * query by prewarm().
+	 */
 	@Override
 	public boolean onCreate() {
+		StartupTrace.beginSection("FileCraft:onCreate");
+		try {
+			Context context = getContext();
+			TutorialUtils.init(context);
+			if (context.getResources().getBoolean(R.bool.query_stats_enabled)) {
+				QueryStats.setEnabled(true);
+			}
+			if (context.getResources().getBoolean(R.bool.prewarm_providers)) {
+				ContentPrefetcher.getInstance(context).execute(new Runnable() {
+					@Override
+					public void run() {
+						StartupTrace.beginSection("FileCraft:prewarm");
+						try {
+							prewarm();
+						} finally {
+							StartupTrace.endSection();
+						}
+					}
+				});
+			}
+		} finally {
+			StartupTrace.endSection();
+		}
 		return true;
 	}
 
+	/**
+	 * Builds what the first query would otherwise build on a Binder thread. Runs on the
+	 * prefetch thread after onCreate() if R.bool.prewarm_providers is set.
+	 */
+	protected void prewarm() {
+		CatalogSnapshot.getInstance();
+	}
+
+	@Override
+	public void attachInfo(Context context, ProviderInfo info) {
+		super.attachInfo(context, info);
+		_authority = info.authority;
+		ChangeNotifier.getInstance(context).addAuthority(info.authority, getMemoryTableNames());
+	}
+
+	/**
+	 * @return Tables this provider serves from memory, which change when the catalog is reloaded,
+	 *         or null for every table.
+	 */
+	protected String[] getMemoryTableNames() {
+		return null;
+	}
+
+	/**
+	 * Reloads the catalog in the background after a locale change. Observers are only notified
+	 * for the tables whose strings changed.
+	 */
+	@Override
+	public void onConfigurationChanged(Configuration newConfig) {
+		super.onConfigurationChanged(newConfig);
+		// Cheap, and done first so that nothing built from here on reads old strings
+		TutorialUtils.reloadIfConfigurationChanged();
+		final ChangeNotifier notifier = ChangeNotifier.getInstance(getContext());
+		RELOAD_EXECUTOR.execute(new Runnable() {
+			@Override
+			public void run() {
+				CatalogSnapshot.reloadIfLocaleChanged(notifier);
+				SearchIndex.invalidateIfLocaleChanged(notifier);
+			}
+		});
+	}
+
 	@Override
 	public Cursor query(Uri uri, String[] projection,
 			String selection, String[] selectionArgs, String sortOrder) {
-		return new CustomCursor(uri, projection, selection, selectionArgs, sortOrder);
+		if (UriRouter.isStatsUri(uri)) {
+			return QueryStats.query(projection);
+		}
+		long start = StartupTrace.beginQuery();
+		long statsStart = QueryStats.startQuery();
+		boolean traced = QueryTrace.beginSection("FileCraft:query");
+		try {
+			CustomCursor cursor = new CustomCursor(uri, projection, selection, selectionArgs,
+					sortOrder);
+			cursor.setNotificationUri(getContext().getContentResolver(), cursor.getChangeUri());
+			String[] nextPagePaths = cursor.getNextPageContentPaths();
+			if (nextPagePaths != null) {
+				ContentPrefetcher.getInstance(getContext()).prefetchContent(nextPagePaths);
+			}
+			UriMatcherEntry entry = UriRouter.match(uri);
+			prefetchChildren(entry, cursor.getActionId());
+			QueryStats.endQuery(uri, entry, cursor.getCount(), statsStart);
+			return cursor;
+		} finally {
+			QueryTrace.endSection(traced);
+			StartupTrace.endQuery(uri, start);
+		}
+	}
+
+	/**
+	 * Supports NavigationTree.METHOD_FETCH_TREE, StatsTable.METHOD_SET_STATS_ENABLED,
+	 * StatsTable.METHOD_RESET_STATS and FileCraftContract.METHOD_SET_TRACE_ENABLED.
+	 *
+	 * The provider's readPermission does not cover call() before API 21, so it is checked here.
+	 */
+	@Override
+	public Bundle call(String method, String arg, Bundle extras) {
+		getContext().enforceCallingOrSelfPermission(FileCraftContract.READ_PERMISSION,
+				"Calling " + method + " requires " + FileCraftContract.READ_PERMISSION);
+		if (NavigationTree.METHOD_FETCH_TREE.equals(method)) {
+			return TreeFetcher.fetch(_authority, arg, extras);
+		} else if (StatsTable.METHOD_SET_STATS_ENABLED.equals(method)) {
+			enforceControlPermission(method);
+			QueryStats.setEnabled(Boolean.parseBoolean(arg));
+			return null;
+		} else if (StatsTable.METHOD_RESET_STATS.equals(method)) {
+			enforceControlPermission(method);
+			QueryStats.reset();
+			return null;
+		} else if (FileCraftContract.METHOD_SET_TRACE_ENABLED.equals(method)) {
+			enforceControlPermission(method);
+			QueryTrace.setEnabled(Boolean.parseBoolean(arg));
+			return null;
+		}
+		return super.call(method, arg, extras);
+	}
+
+	/**
+	 * Methods that change provider state also need the signature level CONTROL_PERMISSION.
+	 */
+	private void enforceControlPermission(String method) {
+		getContext().enforceCallingOrSelfPermission(FileCraftContract.CONTROL_PERMISSION,
+				"Calling " + method + " requires " + FileCraftContract.CONTROL_PERMISSION);
+	}
+
+	/**
+	 * Warms the tables a list or grid query leads to, since the client is likely to open one
+	 * of them next.
+	 */
+	protected void prefetchChildren(UriMatcherEntry entry, String actionId) {
+		if (entry == UriMatcherEntry.LIST || entry == UriMatcherEntry.GRID) {
+			ContentPrefetcher.getInstance(getContext()).prefetchChildren(entry.getTableName(),
+					actionId);
+		}
 	}
 
 	@Override
 	public String getType(Uri uri) {
-		int tableId = FileCraftContract.URI_MATCHER.match(uri);
-		UriMatcherEntry entry = UriMatcherEntry.getEntryFromTableId(tableId);
-		switch (entry) {
-		case LIST:
-			return ListTable.LIST_TYPE;
-		case LIST_ITEM:
-			return ListTable.LIST_ITEM_TYPE;
-		case GRID:
-			return GridTable.GRID_TYPE;
-		case GRID_ITEM:
-			return GridTable.GRID_ITEM_TYPE;
-		case GALLERY:
-			return GalleryTable.GALLERY_TYPE;
-		case GALLERY_ITEM:
-			return GalleryTable.GALLERY_ITEM_TYPE;
-		case VIEW:
-			return ViewTable.VIEW_TYPE;
+		String type = UriRouter.getType(uri);
+		if (type == null && UriRouter.isStatsUri(uri)) {
+			return StatsTable.STATS_TYPE;
+		}
+		if (type == null) {
+			int resourceId = UriRouter.getResourceId(uri);
+			if (resourceId != UriRouter.NO_POSITION) {
+				type = ResourceFileTable.getInstance(getContext()).getMimeType(resourceId);
+			}
+		}
+		if (type == null) {
+			String url = GalleryItem.getWebImageUrl(UriRouter.getWebImageIndex(uri));
+			if (url != null) {
+				type = WebImageCache.getInstance(getContext()).getMimeType(url);
+			}
+		}
+		return type;
+	}
+
+	@Override
+	public String[] getStreamTypes(Uri uri, String mimeTypeFilter) {
+		int resourceId = UriRouter.getResourceId(uri);
+		if (resourceId == UriRouter.NO_POSITION) {
+			return null;
+		}
+		String type = ResourceFileTable.getInstance(getContext()).getMimeType(resourceId);
+		if (type == null) {
+			return null;
+		}
+		ArrayList<String> types = new ArrayList<String>(
+				1 + SvgThumbnailCache.THUMBNAIL_TYPES.length);
+		if (ClipDescription.compareMimeTypes(type, mimeTypeFilter)) {
+			types.add(type);
+		}
+		if (SvgThumbnailCache.SVG_TYPE.equals(type)) {
+			for (String thumbnailType : SvgThumbnailCache.THUMBNAIL_TYPES) {
+				if (ClipDescription.compareMimeTypes(thumbnailType, mimeTypeFilter)) {
+					types.add(thumbnailType);
+				}
+			}
+		}
+		return types.isEmpty() ? null : types.toArray(new String[types.size()]);
+	}
+
+	/**
+	 * Serves svg resources as rasterized thumbnails when the caller asks for png or webp instead
+	 * of svg. Everything else is opened through openAssetFile().
+	 */
+	@Override
+	public AssetFileDescriptor openTypedAssetFile(Uri uri, String mimeTypeFilter, Bundle opts)
+			throws FileNotFoundException {
+		int resourceId = UriRouter.getResourceId(uri);
+		if (resourceId != UriRouter.NO_POSITION) {
+			String type = ResourceFileTable.getInstance(getContext()).getMimeType(resourceId);
+			if (SvgThumbnailCache.SVG_TYPE.equals(type) &&
+					!ClipDescription.compareMimeTypes(type, mimeTypeFilter)) {
+				for (String thumbnailType : SvgThumbnailCache.THUMBNAIL_TYPES) {
+					if (ClipDescription.compareMimeTypes(thumbnailType, mimeTypeFilter)) {
+						boolean traced = QueryTrace.beginSection("FileCraft:openThumbnail");
+						try {
+							return SvgThumbnailCache.getInstance(getContext()).open(resourceId,
+									getThumbnailSize(uri, opts), thumbnailType);
+						} finally {
+							QueryTrace.endSection(traced);
+						}
+					}
+				}
+			}
+		}
+		return super.openTypedAssetFile(uri, mimeTypeFilter, opts);
+	}
+
+	private static int getThumbnailSize(Uri uri, Bundle opts) {
+		if (opts != null && opts.containsKey(ResourceFile.PARAM_SIZE)) {
+			return opts.getInt(ResourceFile.PARAM_SIZE, 0);
+		}
+		String size = uri.getQueryParameter(ResourceFile.PARAM_SIZE);
+		if (size != null) {
+			try {
+				return Integer.parseInt(size);
+			} catch (NumberFormatException e) {
+				// Use the default size
+			}
+		}
+		return 0;
+	}
+
+	@Override
+	public AssetFileDescriptor openAssetFile(Uri uri, String mode) throws FileNotFoundException {
+		if (!"r".equals(mode)) {
+			throw new FileNotFoundException("Files are read only: " + uri);
+		}
+		int resourceId = UriRouter.getResourceId(uri);
+		if (resourceId == UriRouter.NO_POSITION) {
+			// Web images and unknown uris
+			return super.openAssetFile(uri, mode);
+		}
+		boolean traced = QueryTrace.beginSection("FileCraft:openAssetFile");
+		try {
+			return ResourceFileTable.getInstance(getContext()).open(resourceId);
+		} finally {
+			QueryTrace.endSection(traced);
+		}
+	}
+
+	/**
+	 * Opens the cached copy of a web image, downloading it first if needed. Only urls listed by
+	 * GalleryItem are served.
+	 */
+	@Override
+	public ParcelFileDescriptor openFile(Uri uri, String mode) throws FileNotFoundException {
+		if (!"r".equals(mode)) {
+			throw new FileNotFoundException("Files are read only: " + uri);
+		}
+		String url = GalleryItem.getWebImageUrl(UriRouter.getWebImageIndex(uri));
+		if (url == null) {
+			throw new FileNotFoundException("Unknown file URI: " + uri);
+		}
+		boolean traced = QueryTrace.beginSection("FileCraft:openFile");
+		try {
+			return WebImageCache.getInstance(getContext()).open(url);
+		} finally {
+			QueryTrace.endSection(traced);
 		}
-		return null;
 	}
 
 	@Override
@@ -19,6 +19,7 @@ OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWA
 
 package com.filecraft.helloworld;
 
+import android.app.SearchManager;
 import android.content.ContentResolver;
 import android.content.UriMatcher;
 import android.net.Uri;
@@ -40,6 +41,22 @@ import android.provider.BaseColumns;
  * content://<authority>/quiz_questions/<position>
  * content://<authority>/quiz_answers
  * content://<authority>/quiz_answers/<position>
+ * content://<authority>/search
+ * content://<authority>/search_suggest_query/<query>
+ * content://<authority>/stats
+ * 
+ * Supported file formats (openAssetFile uri):
+ * content://<authority>/resource/<resource id>
+ * content://<authority>/web_image/<index>
+ * 
+ * Queries may filter rows with a selection over the table's columns, for example
+ * "content_type = ?" or "action_type IN (?, ?) AND text LIKE ?". The selection's arguments
+ * follow the action id in selectionArgs. See SelectionPredicate for the supported syntax.
+ * 
+ * Cursors are registered for change notifications on content://<authority>/<table>/<action id>
+ * (content://<authority>/list for the list table), see getChangeUri(). Register a ContentObserver
+ * on content://<authority>/<table> with notifyForDescendants to hear about every action id of a
+ * table. Changes are batched, so a reload notifies each changed table once.
  * 
  * @see http://developer.android.com/guide/topics/providers/content-provider-basics.html#ContractClasses
  */
@@ -51,7 +68,8 @@ public class FileCraftContract implements BaseColumns {
 	 */
 	public enum Authority {
 		CUSTOM_CURSOR_A("com.filecraft.helloworld.custom.cursor.a"),
-		CUSTOM_CURSOR_B("com.filecraft.helloworld.custom.cursor.b");
+		CUSTOM_CURSOR_B("com.filecraft.helloworld.custom.cursor.b"),
+		SQLITE_CURSOR("com.filecraft.helloworld.sqlite.cursor");
 
 		public final String name;
 		public final Uri contentUri;
@@ -67,10 +85,16 @@ public class FileCraftContract implements BaseColumns {
 	 */
 	public static final String READ_PERMISSION = "com.filecraft.permission.READ";
 
+	/**
+	 * Signature permission of the call() methods that change provider state, such as
+	 * StatsTable.METHOD_SET_STATS_ENABLED.
+	 */
+	public static final String CONTROL_PERMISSION = "com.filecraft.permission.CONTROL";
+
 	/**
 	 * Type = String (uri path)
 	 * Path of the content. Supported format prefixes include "file://",
-	 * "android.resource://", and http/https
+	 * "android.resource://", "content://", and http/https
 	 */
 	public static final String COLUMN_CONTENT_PATH = "content_path";
 
@@ -103,10 +127,92 @@ public class FileCraftContract implements BaseColumns {
 
 	/**
 	 * Type = Integer
-	 * Version code returned from queries. Initial version is 0.
+	 * Version code returned from queries. Initial version is 0. Rows of the list, grid, gallery,
+	 * view and quiz tables are versioned by catalog generation, see PARAM_CHANGES_SINCE.
 	 */
 	public static final String COLUMN_VERSION = "version";
 
+	/**
+	 * Type = Integer (true=1, false=0)
+	 * Set to 1 on the tombstone rows of a changes_since query, see PARAM_CHANGES_SINCE. Served
+	 * by every table with a version column, but only when the projection asks for it.
+	 */
+	public static final String COLUMN_DELETED = "deleted";
+
+	/**
+	 * Optional query parameters for reading a table one page at a time. "limit" is the maximum
+	 * number of rows returned and "offset" the number of rows skipped. "after" starts the page
+	 * after the row at the given position, so that following pages stay aligned even if earlier
+	 * rows change. "after" and "offset" may be combined.
+	 * 
+	 * Example: content://<authority>/gallery?limit=50&after=149
+	 */
+	public static final String PARAM_LIMIT = "limit";
+	public static final String PARAM_OFFSET = "offset";
+	public static final String PARAM_AFTER = "after";
+
+	/**
+	 * Optional query parameter of the list, grid, gallery, view and quiz tables. Only rows
+	 * added or changed after the given catalog generation are returned, along with a tombstone
+	 * row for each position removed after it (see COLUMN_DELETED). _id of each row is its
+	 * position in the whole table. Cannot be combined with a selection, sortOrder or paging.
+	 * 
+	 * The version column of each row is the generation the row last changed in. Queries of
+	 * these tables return the current generation in the EXTRA_GENERATION cursor extra, which is
+	 * the value to pass as changes_since in the next sync.
+	 * 
+	 * Example: content://<authority>/grid?changes_since=3
+	 */
+	public static final String PARAM_CHANGES_SINCE = "changes_since";
+
+	/**
+	 * Name accepted in a query's sortOrder for the order rows are normally returned in. Queries
+	 * may also be sorted by one of the text, content_type, action_type or list_name columns,
+	 * optionally followed by ASC or DESC, for example "text DESC". Rows with equal values keep
+	 * their position order. "after" paging follows the sort order.
+	 */
+	public static final String SORT_POSITION = "position";
+
+	/**
+	 * Type = Integer
+	 * Cursor extra of paged queries holding the number of rows in the whole table.
+	 */
+	public static final String EXTRA_TOTAL_COUNT = "total_count";
+
+	/**
+	 * Type = Integer
+	 * Cursor extra of paged queries holding the "after" value of the next page. Not set on the
+	 * last page.
+	 */
+	public static final String EXTRA_NEXT_AFTER = "next_after";
+
+	/**
+	 * Type = Integer
+	 * Cursor extra holding the catalog generation the rows were read at. See
+	 * PARAM_CHANGES_SINCE.
+	 */
+	public static final String EXTRA_GENERATION = "generation";
+
+	/**
+	 * ContentProvider.call() method that turns systrace markers of the providers' process on
+	 * ("true") or off ("false"). Markers cover routing, building rows, filling cursor windows
+	 * and opening files. Needs CONTROL_PERMISSION.
+	 */
+	public static final String METHOD_SET_TRACE_ENABLED = "set_trace_enabled";
+
+	/**
+	 * @return Uri notified when the rows a query with the action id returns change. A null or
+	 *         empty action id returns the uri of the whole table.
+	 */
+	public static Uri getChangeUri(String authority, String tableName, String actionId) {
+		Uri.Builder builder = new Uri.Builder().scheme(ContentResolver.SCHEME_CONTENT)
+				.authority(authority).appendPath(tableName);
+		if (actionId != null && actionId.length() > 0) {
+			builder.appendPath(actionId);
+		}
+		return builder.build();
+	}
+
 	/**
 	 * Content type used along with the "content_type" column. The "content_type" column should
 	 * contain the integer code of the type of content under the column "content_path".
@@ -156,6 +262,43 @@ public class FileCraftContract implements BaseColumns {
 		}
 	}
 
+	/**
+	 * Files packaged with the apk. Opened through ContentResolver.openAssetFileDescriptor() or
+	 * openInputStream() instead of being queried.
+	 *
+	 * Svg files can also be opened as png or webp thumbnails through
+	 * ContentResolver.openTypedAssetFileDescriptor() with a mime type filter of "image/png" or
+	 * "image/webp".
+	 */
+	public static final class ResourceFile {
+		public static final String PATH = "resource";
+
+		/**
+		 * Optional thumbnail width and height in pixels. Passed as an int in the opts Bundle of
+		 * openTypedAssetFileDescriptor(), or as a query parameter of the uri. Rounded up to the
+		 * nearest cached size.
+		 */
+		public static final String PARAM_SIZE = "size";
+
+		public static Uri getUri(String authority, int resourceId) {
+			Uri contentUri = Uri.parse("content://" + authority);
+			return Uri.withAppendedPath(contentUri, PATH + "/" + resourceId);
+		}
+	}
+
+	/**
+	 * Images downloaded from the web and cached by the app, so that gallery items pointing at the
+	 * same url share one download. The index refers to the app's list of known image urls.
+	 */
+	public static final class WebImage {
+		public static final String PATH = "web_image";
+
+		public static Uri getUri(String authority, int index) {
+			Uri contentUri = Uri.parse("content://" + authority);
+			return Uri.withAppendedPath(contentUri, PATH + "/" + index);
+		}
+	}
+
 	/**
 	 * Table for list items found within the left/start drawer of FileCraft.
 	 */
@@ -360,6 +503,13 @@ public class FileCraftContract implements BaseColumns {
 		public static final String COLUMN_DESCRIPTION = "description";
 		// + image path and image type columns
 
+		/**
+		 * Optional id of a quiz session. Passed as a query parameter of quiz_questions and
+		 * quiz_answers uris, or as selectionArgs[1]. Queries with the same session id get the same
+		 * generated questions and answers.
+		 */
+		public static final String PARAM_SESSION = "quiz_session";
+
 		public static final String QUIZ_TYPE =
 				ContentResolver.CURSOR_DIR_BASE_TYPE + "/vnd.com.filecraft.quiz";
 		public static final String QUIZ_ITEM_TYPE =
@@ -425,35 +575,290 @@ public class FileCraftContract implements BaseColumns {
 		}
 	}
 
+	/**
+	 * Ranked search over list entries, grid items and the English and kana of quiz vocabulary.
+	 * The search query is passed as selectionArgs[0]. Each word of the query matches words that
+	 * start with it, and kana also matches within words, so results can be shown while typing.
+	 * Rows are ordered best match first.
+	 * 
+	 * Rows use the columns of the table they were found in: action_type and action_id of list
+	 * and grid rows perform the item's action, and quiz vocabulary rows open their quiz like a
+	 * grid item of type GridActionType.QUIZ.
+	 * 
+	 * SearchManager suggestions are served from content://<authority>/search_suggest_query/<query>
+	 * when android:searchSuggestAuthority of a searchable configuration names a FileCraft
+	 * authority. The query may also be passed as selectionArgs[0].
+	 */
+	public static final class SearchTable {
+		public static final String TABLE_NAME = "search";
+
+		/**
+		 * Type = String
+		 * Name of the table the row was found in: "list", "grid" or "quiz_answers".
+		 */
+		public static final String COLUMN_SOURCE_TABLE = "source_table";
+
+		/**
+		 * Type = String
+		 * Second line of text: the list entry subtext or the vocabulary in kana.
+		 */
+		public static final String COLUMN_SUBTITLE = "subtitle";
+
+		public static final String SEARCH_TYPE =
+				ContentResolver.CURSOR_DIR_BASE_TYPE + "/vnd.com.filecraft.search";
+
+		public static Uri getUri(String authority) {
+			Uri contentUri = Uri.parse("content://" + authority);
+			Uri tableUri = Uri.withAppendedPath(contentUri, TABLE_NAME);
+			return tableUri;
+		}
+
+		public static Uri getSuggestionsUri(String authority, String query) {
+			Uri contentUri = Uri.parse("content://" + authority);
+			return contentUri.buildUpon().appendPath(SearchManager.SUGGEST_URI_PATH_QUERY)
+					.appendPath(query).build();
+		}
+	}
+
+	/**
+	 * ContentProvider.call() method returning the navigation tree below the list or a table in a
+	 * single Bundle, so that opening the drawer and every grid below it takes one IPC instead of
+	 * a query per table.
+	 * 
+	 * call(METHOD_FETCH_TREE, rootActionId, extras): a null or empty rootActionId starts at the
+	 * list table. Otherwise EXTRA_ROOT_TABLE names the root's table, "grid" by default.
+	 * EXTRA_DEPTH limits how many levels below the root are included. Each table is a node, and
+	 * each table reached twice (such as a grid linking back to its parent) is included once.
+	 * 
+	 * Nodes are stored in breadth first order, the root first, as parallel arrays under the
+	 * KEY_NODE_* keys. The rows of every node follow each other as parallel arrays, each node's
+	 * rows starting at KEY_NODE_FIRST_ROW. Row columns are stored under their column names, for
+	 * example "content_path" as a String[] and "content_type" as an int[]. Only columns served by
+	 * at least one node are included, and rows of tables without the column hold null or 0.
+	 * KEY_ROW_CHILD is the node opened by the row's action, or -1 if it is not included.
+	 * 
+	 * The bundle also holds the catalog generation under FileCraftContract.EXTRA_GENERATION.
+	 * Callers need READ_PERMISSION, the same as for queries.
+	 */
+	public static final class NavigationTree {
+		public static final String METHOD_FETCH_TREE = "fetch_tree";
+
+		/**
+		 * Type = String
+		 * Table of a non-empty root action id: "grid", "gallery", "view" or "quiz".
+		 */
+		public static final String EXTRA_ROOT_TABLE = "root_table";
+
+		/**
+		 * Type = Integer
+		 * Levels included below the root. 0 returns the root table alone. Defaults to every
+		 * level.
+		 */
+		public static final String EXTRA_DEPTH = "depth";
+
+		/**
+		 * Type = String[], String[], int[], int[], int[]
+		 * Table name, action id, index of the first row, row count and depth of each node.
+		 */
+		public static final String KEY_NODE_TABLE = "node_table";
+		public static final String KEY_NODE_ACTION_ID = "node_action_id";
+		public static final String KEY_NODE_FIRST_ROW = "node_first_row";
+		public static final String KEY_NODE_ROW_COUNT = "node_row_count";
+		public static final String KEY_NODE_DEPTH = "node_depth";
+
+		/**
+		 * Type = int[]
+		 * Node index of the table opened by each row, or -1.
+		 */
+		public static final String KEY_ROW_CHILD = "row_child";
+	}
+
+	/**
+	 * Read only table of query metrics, recorded while they are enabled. Metrics are per process:
+	 * every provider in the process serves the same rows.
+	 *
+	 * Each row holds the metrics of one table of one authority, for example "grid/#" of the
+	 * sqlite provider, and only tables queried since the last reset have a row. Caches shared by
+	 * every authority have a row of their own, with a null authority and the cache name in
+	 * COLUMN_TABLE, and only COLUMN_CACHE_HITS and COLUMN_CACHE_MISSES set.
+	 *
+	 * Recording is disabled by default. call(METHOD_SET_STATS_ENABLED, "true", null) enables it
+	 * and call(METHOD_RESET_STATS, null, null) clears every row. Both need CONTROL_PERMISSION.
+	 */
+	public static final class StatsTable {
+		public static final String TABLE_NAME = "stats";
+
+		public static final String METHOD_SET_STATS_ENABLED = "set_stats_enabled";
+		public static final String METHOD_RESET_STATS = "reset_stats";
+
+		/**
+		 * Type = String
+		 * Authority queried, or null for cache rows.
+		 */
+		public static final String COLUMN_AUTHORITY = "authority";
+
+		/**
+		 * Type = String
+		 * Path of the UriMatcherEntry queried, or the name of a cache.
+		 */
+		public static final String COLUMN_TABLE = "table_path";
+
+		/**
+		 * Type = Integer
+		 * Number of queries, and their latency percentiles in microseconds. Latencies are
+		 * accurate to within 25%.
+		 */
+		public static final String COLUMN_QUERY_COUNT = "query_count";
+		public static final String COLUMN_LATENCY_P50_US = "latency_p50_us";
+		public static final String COLUMN_LATENCY_P95_US = "latency_p95_us";
+		public static final String COLUMN_LATENCY_P99_US = "latency_p99_us";
+
+		/**
+		 * Type = Integer
+		 * Rows returned, and cells read from the cursors through getters or cursor windows.
+		 */
+		public static final String COLUMN_ROW_COUNT = "row_count";
+		public static final String COLUMN_CELL_COUNT = "cell_count";
+
+		/**
+		 * Type = Integer
+		 * Cursor windows filled, and the estimated bytes written to them.
+		 */
+		public static final String COLUMN_WINDOW_COUNT = "window_count";
+		public static final String COLUMN_WINDOW_BYTES = "window_bytes";
+
+		/**
+		 * Type = Integer
+		 * Lookups served by a cache, and lookups that had to build or download the entry.
+		 */
+		public static final String COLUMN_CACHE_HITS = "cache_hits";
+		public static final String COLUMN_CACHE_MISSES = "cache_misses";
+
+		public static final String STATS_TYPE =
+				ContentResolver.CURSOR_DIR_BASE_TYPE + "/vnd.com.filecraft.stats";
+
+		public static final String[] PROJECTION = { _ID, COLUMN_AUTHORITY, COLUMN_TABLE,
+				COLUMN_QUERY_COUNT, COLUMN_LATENCY_P50_US, COLUMN_LATENCY_P95_US,
+				COLUMN_LATENCY_P99_US, COLUMN_ROW_COUNT, COLUMN_CELL_COUNT, COLUMN_WINDOW_COUNT,
+				COLUMN_WINDOW_BYTES, COLUMN_CACHE_HITS, COLUMN_CACHE_MISSES };
+
+		public static Uri getUri(String authority) {
+			Uri contentUri = Uri.parse("content://" + authority);
+			return Uri.withAppendedPath(contentUri, TABLE_NAME);
+		}
+	}
+
+	/**
+	 * Default projections of each table.
+	 */
+	private static final class Projections {
+		static final String[] LIST = { _ID, COLUMN_CONTENT_PATH, COLUMN_CONTENT_TYPE,
+				COLUMN_ACTION_TYPE, COLUMN_ACTION_ID, ListTable.COLUMN_LIST_NAME,
+				ListTable.COLUMN_LIST_SUBTEXT, COLUMN_VERSION };
+		static final String[] GRID = { _ID, COLUMN_CONTENT_PATH, COLUMN_CONTENT_TYPE, COLUMN_TEXT,
+				COLUMN_ACTION_TYPE, COLUMN_ACTION_ID, COLUMN_VERSION };
+		static final String[] GALLERY = { _ID, COLUMN_CONTENT_PATH, COLUMN_CONTENT_TYPE, COLUMN_TEXT,
+				COLUMN_VERSION };
+		static final String[] VIEW = { _ID, COLUMN_ACTION_TYPE, ViewTable.COLUMN_VIEW_URI,
+				COLUMN_VERSION };
+		static final String[] QUIZ = { _ID, COLUMN_CONTENT_PATH, COLUMN_CONTENT_TYPE,
+				COLUMN_ACTION_ID, QuizTable.COLUMN_TITLE, QuizTable.COLUMN_DESCRIPTION, COLUMN_VERSION };
+		static final String[] QUIZ_QUESTIONS = { _ID, COLUMN_CONTENT_PATH, COLUMN_CONTENT_TYPE,
+				COLUMN_ACTION_TYPE, COLUMN_ACTION_ID, QuizQuestionsTable.COLUMN_QUIZ_QUESTION,
+				QuizQuestionsTable.COLUMN_QUIZ_SUBTEXT, COLUMN_VERSION };
+		static final String[] QUIZ_ANSWERS = { _ID, QuizAnswersTable.COLUMN_ANSWER_TEXT,
+				QuizAnswersTable.COLUMN_IS_CORRECT_ANSWER, COLUMN_VERSION };
+		static final String[] SEARCH = { _ID, COLUMN_CONTENT_PATH, COLUMN_CONTENT_TYPE, COLUMN_TEXT,
+				SearchTable.COLUMN_SUBTITLE, COLUMN_ACTION_TYPE, COLUMN_ACTION_ID,
+				SearchTable.COLUMN_SOURCE_TABLE, COLUMN_VERSION };
+		static final String[] SEARCH_SUGGEST = { _ID, SearchManager.SUGGEST_COLUMN_TEXT_1,
+				SearchManager.SUGGEST_COLUMN_TEXT_2, SearchManager.SUGGEST_COLUMN_INTENT_EXTRA_DATA };
+	}
+
 	/**
 	 * Enum for use by the UriMatcher.
 	 */
 	public static enum UriMatcherEntry {
-		LIST(ListTable.TABLE_NAME, 42),
-		LIST_ITEM(ListTable.TABLE_NAME + "/#", 314),
+		LIST(ListTable.TABLE_NAME, 42, ListTable.LIST_TYPE, Projections.LIST),
+		LIST_ITEM(ListTable.TABLE_NAME + "/#", 314, ListTable.LIST_ITEM_TYPE, Projections.LIST),
 
-		GRID(GridTable.TABLE_NAME, 9000),
-		GRID_ITEM(GridTable.TABLE_NAME + "/#", 13),
+		GRID(GridTable.TABLE_NAME, 9000, GridTable.GRID_TYPE, Projections.GRID),
+		GRID_ITEM(GridTable.TABLE_NAME + "/#", 13, GridTable.GRID_ITEM_TYPE, Projections.GRID),
 
-		GALLERY(GalleryTable.TABLE_NAME, 360),
-		GALLERY_ITEM(GalleryTable.TABLE_NAME + "/#", 1337),
+		GALLERY(GalleryTable.TABLE_NAME, 360, GalleryTable.GALLERY_TYPE, Projections.GALLERY),
+		GALLERY_ITEM(GalleryTable.TABLE_NAME + "/#", 1337, GalleryTable.GALLERY_ITEM_TYPE,
+				Projections.GALLERY),
 
-		VIEW(ViewTable.TABLE_NAME, 404),
+		VIEW(ViewTable.TABLE_NAME, 404, ViewTable.VIEW_TYPE, Projections.VIEW),
 
-		QUIZ(QuizTable.TABLE_NAME, 1),
+		QUIZ(QuizTable.TABLE_NAME, 1, QuizTable.QUIZ_TYPE, Projections.QUIZ),
 
-		QUIZ_QUESTIONS(QuizQuestionsTable.TABLE_NAME, 10),
-		QUIZ_QUESTIONS_ITEM(QuizQuestionsTable.TABLE_NAME + "/#", 11),
+		QUIZ_QUESTIONS(QuizQuestionsTable.TABLE_NAME, 10, QuizQuestionsTable.QUIZ_QUESTIONS_TYPE,
+				Projections.QUIZ_QUESTIONS),
+		QUIZ_QUESTIONS_ITEM(QuizQuestionsTable.TABLE_NAME + "/#", 11,
+				QuizQuestionsTable.QUIZ_QUESTIONS_ITEM_TYPE, Projections.QUIZ_QUESTIONS),
 
-		QUIZ_ANSWERS(QuizAnswersTable.TABLE_NAME, 100),
-		QUIZ_ANSWERS_ITEM(QuizAnswersTable.TABLE_NAME + "/#", 101);
+		QUIZ_ANSWERS(QuizAnswersTable.TABLE_NAME, 100, QuizAnswersTable.QUIZ_ANSWERS_TYPE,
+				Projections.QUIZ_ANSWERS),
+		QUIZ_ANSWERS_ITEM(QuizAnswersTable.TABLE_NAME + "/#", 101,
+				QuizAnswersTable.QUIZ_ANSWERS_ITEM_TYPE, Projections.QUIZ_ANSWERS),
+
+		SEARCH(SearchTable.TABLE_NAME, 808, SearchTable.SEARCH_TYPE, Projections.SEARCH),
+		SEARCH_SUGGEST(SearchManager.SUGGEST_URI_PATH_QUERY + "/*", 809,
+				SearchManager.SUGGEST_MIME_TYPE, Projections.SEARCH_SUGGEST);
+
+		/**
+		 * Suffix of item paths that end with the row position.
+		 */
+		public static final String ITEM_PATH_SUFFIX = "/#";
+
+		/**
+		 * Suffix of paths that end with a free text segment, such as a search query.
+		 */
+		public static final String TEXT_PATH_SUFFIX = "/*";
 
 		public final String path;
 		public final int tableId;
 
-		private UriMatcherEntry(String path, int tableId) {
+		/**
+		 * MIME type returned by ContentProvider.getType() for the table.
+		 */
+		public final String mimeType;
+
+		/**
+		 * Every column served by the table. Used when a query does not provide a projection.
+		 */
+		public final String[] defaultProjection;
+
+		private UriMatcherEntry(String path, int tableId, String mimeType,
+				String[] defaultProjection) {
 			this.path = path;
 			this.tableId = tableId;
+			this.mimeType = mimeType;
+			this.defaultProjection = defaultProjection;
+		}
+
+		/**
+		 * @return True if the path of the entry ends with the row position.
+		 */
+		public boolean isItem() {
+			return path.endsWith(ITEM_PATH_SUFFIX);
+		}
+
+		/**
+		 * @return True if the path of the entry ends with a free text segment.
+		 */
+		public boolean hasTextSegment() {
+			return path.endsWith(TEXT_PATH_SUFFIX);
+		}
+
+		/**
+		 * @return Path of the entry without its position or text segment.
+		 */
+		public String getTableName() {
+			// Both suffixes are two characters long
+			return isItem() || hasTextSegment() ?
+					path.substring(0, path.length() - ITEM_PATH_SUFFIX.length()) : path;
 		}
 
 		public static UriMatcherEntry getEntryFromTableId(int tableId) {
@@ -481,6 +886,10 @@ public class FileCraftContract implements BaseColumns {
 				return QUIZ_ANSWERS;
 			} else if (tableId == QUIZ_ANSWERS_ITEM.tableId) {
 				return QUIZ_ANSWERS_ITEM;
+			} else if (tableId == SEARCH.tableId) {
+				return SEARCH;
+			} else if (tableId == SEARCH_SUGGEST.tableId) {
+				return SEARCH_SUGGEST;
 			} else {
 				return null;
 			}
@@ -18,15 +18,20 @@ public class GalleryItem {
 		}
 
 		public static GalleryItemId getItemId(String actionId) {
-			for (GalleryItemId id : GalleryItemId.values()) {
-				if (id.name().equals(actionId)) {
-					return id;
-				}
-			}
-			return null;
+			return ActionIdRegistry.getGalleryItemId(actionId);
 		}
 	}
 
+	/**
+	 * Urls of the web images shown in galleries. Rows point at the provider's cached copy
+	 * (WebImage uris) instead of the url itself, so repeated urls are only downloaded once. The
+	 * first WEB_ONLY row keeps the url as an example of ContentType.WEB_IMAGE.
+	 */
+	private static final String[] WEB_IMAGE_URLS = {
+		"https://www.google.com/favicon.ico"
+	};
+	private static final int WEB_IMAGE_FAVICON = 0;
+
 	public final String imagePath;
 	public final ContentType imageType;
 	public final String text;
@@ -47,6 +52,13 @@ public class GalleryItem {
 		return GalleryItemId.getItemId(actionId).itemCount;
 	}
 
+	/**
+	 * @return Url of the web image or null if the index is out of range.
+	 */
+	public static String getWebImageUrl(int index) {
+		return index >= 0 && index < WEB_IMAGE_URLS.length ? WEB_IMAGE_URLS[index] : null;
+	}
+
 	public static GalleryItem getGalleryItem(String actionId, int position) {
 		GalleryItemId id = GalleryItemId.getItemId(actionId);
 		switch (id) {
@@ -57,7 +69,7 @@ public class GalleryItem {
 			case 1:
 				return new GalleryItem(TutorialUtils.getResourceFilePath(R.raw.image), ContentType.RASTER_IMAGE);
 			case 2:
-				return new GalleryItem("https://www.google.com/favicon.ico", ContentType.WEB_IMAGE);
+				return new GalleryItem(TutorialUtils.getWebImagePath(WEB_IMAGE_FAVICON), ContentType.RASTER_IMAGE);
 			}
 			break;
 		case SVG_BASIC_ONLY:
@@ -89,25 +101,26 @@ public class GalleryItem {
 		case WEB_ONLY:
 			switch (position) {
 			case 0:
-				return new GalleryItem("https://www.google.com/favicon.ico", ContentType.WEB_IMAGE);
+				// Example of a WEB_IMAGE row, which the client downloads itself
+				return new GalleryItem(getWebImageUrl(WEB_IMAGE_FAVICON), ContentType.WEB_IMAGE);
 			case 1:
-				return new GalleryItem("https://www.google.com/favicon.ico", ContentType.WEB_IMAGE);
+				return new GalleryItem(TutorialUtils.getWebImagePath(WEB_IMAGE_FAVICON), ContentType.RASTER_IMAGE);
 			case 2:
-				return new GalleryItem("https://www.google.com/favicon.ico", ContentType.WEB_IMAGE);
+				return new GalleryItem(TutorialUtils.getWebImagePath(WEB_IMAGE_FAVICON), ContentType.RASTER_IMAGE);
 			case 3:
-				return new GalleryItem("https://www.google.com/favicon.ico", ContentType.WEB_IMAGE);
+				return new GalleryItem(TutorialUtils.getWebImagePath(WEB_IMAGE_FAVICON), ContentType.RASTER_IMAGE);
 			}
 			break;
 		case IMAGE_TEXT_MIX:
 			switch (position) {
 			case 0:
 				return new GalleryItem(TutorialUtils.getResourceFilePath(R.raw.image_svg), ContentType.SVG_BASIC,
-						MyApplication.getAppContext().getResources().getString(R.string.contentprovider_gallery_split_text));
+						TutorialUtils.getString(R.string.contentprovider_gallery_split_text));
 			case 1:
 				return new GalleryItem(TutorialUtils.getResourceFilePath(R.raw.gallery_svg), ContentType.SVG_BASIC);
 			case 2:
 				return new GalleryItem(TutorialUtils.getResourceFilePath(R.raw.download_svg), ContentType.SVG_BASIC,
-						MyApplication.getAppContext().getResources().getString(R.string.contentprovider_gallery_split_text));
+						TutorialUtils.getString(R.string.contentprovider_gallery_split_text));
 			case 3:
 				return new GalleryItem(TutorialUtils.getResourceFilePath(R.raw.web_svg), ContentType.SVG_BASIC);
 			}
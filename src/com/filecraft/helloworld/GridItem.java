@@ -25,12 +25,7 @@ public class GridItem {
 		}
 
 		public static GridItemId getItemId(String actionId) {
-			for (GridItemId id : GridItemId.values()) {
-				if (id.name().equals(actionId)) {
-					return id;
-				}
-			}
-			return null;
+			return ActionIdRegistry.getGridItemId(actionId);
 		}
 	}
 
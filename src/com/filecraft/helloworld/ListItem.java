@@ -37,9 +37,12 @@ public class ListItem {
 		this.actionId = actionId;
 	}
 
-	public static int getListItemCount() {
+	private static final GridItemId[] GRID_ITEM_IDS = GridItemId.values();
+	private static final int LIST_ITEM_COUNT = countListItems();
+
+	private static int countListItems() {
 		int count = 0;
-		for (GridItemId id : GridItemId.values()) {
+		for (GridItemId id : GRID_ITEM_IDS) {
 			if (id.showInList) {
 				count++;
 			}
@@ -47,8 +50,12 @@ public class ListItem {
 		return count;
 	}
 
+	public static int getListItemCount() {
+		return LIST_ITEM_COUNT;
+	}
+
 	public static ListItem getListItem(int position) {
-		GridItemId id = GridItemId.values()[position];
+		GridItemId id = GRID_ITEM_IDS[position];
 		switch (id) {
 		case INTRO:
 			return new ListItem(ListActionType.GRID, TutorialUtils.getResourceFilePath(R.raw.android_svg),
@@ -30,6 +30,7 @@ public class MyApplication extends Application {
 	public void onCreate() {
 		super.onCreate();
 		_appContext = getApplicationContext();
+		TutorialUtils.init(_appContext);
 	}
 
 	public static Context getAppContext() {
@@ -0,0 +1,79 @@
+package com.filecraft.helloworld;
+
+import android.net.Uri;
+import android.os.Bundle;
+
+/**
+ * Paging parameters of a table query. See FileCraftContract.PARAM_LIMIT.
+ */
+public final class PageRequest {
+
+	public static final int NONE = -1;
+
+	public final int limit;
+	public final int offset;
+	public final int after;
+
+	private PageRequest(int limit, int offset, int after) {
+		this.limit = limit;
+		this.offset = offset;
+		this.after = after;
+	}
+
+	/**
+	 * @return Paging parameters of the uri, or null if the query is not paged.
+	 * @throws IllegalArgumentException if a parameter is not a non-negative integer.
+	 */
+	public static PageRequest parse(Uri uri) {
+		int limit = getParameter(uri, FileCraftContract.PARAM_LIMIT);
+		int offset = getParameter(uri, FileCraftContract.PARAM_OFFSET);
+		int after = getParameter(uri, FileCraftContract.PARAM_AFTER);
+		if (limit == NONE && offset == NONE && after == NONE) {
+			return null;
+		}
+		return new PageRequest(limit, offset, after);
+	}
+
+	/**
+	 * @return Value of a non-negative integer query parameter, or NONE if the uri does not have
+	 *         it.
+	 * @throws IllegalArgumentException if the parameter is not a non-negative integer.
+	 */
+	static int getParameter(Uri uri, String name) {
+		String value = uri.getQueryParameter(name);
+		if (value == null) {
+			return NONE;
+		}
+		try {
+			int number = Integer.parseInt(value);
+			if (number >= 0) {
+				return number;
+			}
+		} catch (NumberFormatException e) {
+			// Thrown below
+		}
+		throw new IllegalArgumentException("Invalid " + name + ": " + value + ", uri=" + uri);
+	}
+
+	/**
+	 * @param start Index of the first row of the page, after applying "after" and "offset".
+	 * @param total Number of rows in the whole table.
+	 * @return Index one past the last row of the page.
+	 */
+	public int getEnd(int start, int total) {
+		return limit == NONE ? total : (int) Math.min(total, (long) start + limit);
+	}
+
+	/**
+	 * @param lastPosition Position of the last row of the page.
+	 * @return Cursor extras of the page.
+	 */
+	public static Bundle getExtras(int total, boolean hasNextPage, int lastPosition) {
+		Bundle extras = new Bundle(2);
+		extras.putInt(FileCraftContract.EXTRA_TOTAL_COUNT, total);
+		if (hasNextPage) {
+			extras.putInt(FileCraftContract.EXTRA_NEXT_AFTER, lastPosition);
+		}
+		return extras;
+	}
+}
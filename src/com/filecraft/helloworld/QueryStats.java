@@ -0,0 +1,330 @@
+package com.filecraft.helloworld;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import android.database.Cursor;
+import android.database.MatrixCursor;
+import android.net.Uri;
+
+import com.filecraft.helloworld.FileCraftContract.Authority;
+import com.filecraft.helloworld.FileCraftContract.StatsTable;
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+
+/**
+ * Query metrics of the providers in this process, served as FileCraftContract.StatsTable.
+ *
+ * Counters are striped by thread, so concurrent Binder threads add to different slots instead of
+ * contending on one, and are only summed when the stats table is read. While recording is
+ * disabled every recording method returns after reading one volatile flag, and cursors skip
+ * their counting altogether.
+ */
+final class QueryStats {
+
+	/**
+	 * Caches with a row of their own.
+	 */
+	static final int CACHE_THUMBNAIL = 0;
+	static final int CACHE_WEB_IMAGE = 1;
+	private static final String[] CACHE_NAMES = { "thumbnail_cache", "web_image_cache" };
+
+	private static final Authority[] AUTHORITIES = Authority.values();
+	private static final UriMatcherEntry[] ENTRIES = UriMatcherEntry.values();
+	private static final int QUERY_KEY_COUNT = AUTHORITIES.length * ENTRIES.length;
+
+	private static volatile boolean sEnabled = false;
+
+	/**
+	 * Counters of each authority and entry, followed by those of each cache. Created on first
+	 * use, so tables that are never queried cost nothing.
+	 */
+	private static final AtomicReferenceArray<Counters> COUNTERS =
+			new AtomicReferenceArray<Counters>(QUERY_KEY_COUNT + CACHE_NAMES.length);
+
+	private QueryStats() {
+	}
+
+	static boolean isEnabled() {
+		return sEnabled;
+	}
+
+	static void setEnabled(boolean enabled) {
+		sEnabled = enabled;
+	}
+
+	/**
+	 * Clears every counter. Counts still held by open cursors are dropped.
+	 */
+	static void reset() {
+		for (int i = 0; i < COUNTERS.length(); i++) {
+			COUNTERS.set(i, null);
+		}
+	}
+
+	/**
+	 * @return Start time to pass to endQuery(), or -1 if recording is disabled.
+	 */
+	static long startQuery() {
+		return sEnabled ? System.nanoTime() : -1;
+	}
+
+	/**
+	 * Records a query that returned rowCount rows.
+	 *
+	 * @param startNanos Value returned by startQuery().
+	 */
+	static void endQuery(Uri uri, UriMatcherEntry entry, int rowCount, long startNanos) {
+		if (startNanos < 0) {
+			return;
+		}
+		Counters counters = getCounters(uri, entry);
+		if (counters != null) {
+			counters.addQuery((System.nanoTime() - startNanos) / 1000, rowCount);
+		}
+	}
+
+	/**
+	 * @return Counters of the uri's authority and entry, or null if recording is disabled or the
+	 *         authority is not one of the app's.
+	 */
+	static Counters getCounters(Uri uri, UriMatcherEntry entry) {
+		if (!sEnabled || entry == null) {
+			return null;
+		}
+		String authority = uri.getAuthority();
+		for (int i = 0; i < AUTHORITIES.length; i++) {
+			if (AUTHORITIES[i].name.equals(authority)) {
+				return getCounters(i * ENTRIES.length + entry.ordinal());
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * @param cache One of the CACHE_* constants.
+	 */
+	static void recordCache(int cache, boolean hit) {
+		if (sEnabled) {
+			getCounters(QUERY_KEY_COUNT + cache).add(hit ? Counters.CACHE_HITS :
+					Counters.CACHE_MISSES, 1);
+		}
+	}
+
+	/**
+	 * @return Counters of the key, never null even if reset() clears the key concurrently.
+	 */
+	private static Counters getCounters(int key) {
+		Counters counters = COUNTERS.get(key);
+		if (counters == null) {
+			Counters created = new Counters();
+			counters = COUNTERS.compareAndSet(key, null, created) ? created : COUNTERS.get(key);
+			if (counters == null) {
+				// Another thread set the key and reset() cleared it since, so count into ours
+				counters = created;
+			}
+		}
+		return counters;
+	}
+
+	/**
+	 * @param projection Columns of StatsTable, or null for StatsTable.PROJECTION.
+	 * @throws IllegalArgumentException if a column is not one of StatsTable's.
+	 */
+	static Cursor query(String[] projection) {
+		if (projection == null) {
+			projection = StatsTable.PROJECTION;
+		}
+		int[] columns = new int[projection.length];
+		for (int i = 0; i < projection.length; i++) {
+			columns[i] = indexOf(StatsTable.PROJECTION, projection[i]);
+			if (columns[i] < 0) {
+				throw new IllegalArgumentException("Unhandled column name: " + projection[i] +
+						", table=" + StatsTable.TABLE_NAME);
+			}
+		}
+		MatrixCursor cursor = new MatrixCursor(projection);
+		Object[] values = new Object[StatsTable.PROJECTION.length];
+		Object[] row = new Object[projection.length];
+		for (int key = 0; key < COUNTERS.length(); key++) {
+			Counters counters = COUNTERS.get(key);
+			if (counters == null) {
+				continue;
+			}
+			fillRow(key, counters, values);
+			for (int i = 0; i < columns.length; i++) {
+				row[i] = values[columns[i]];
+			}
+			cursor.addRow(row);
+		}
+		return cursor;
+	}
+
+	/**
+	 * Fills values in the order of StatsTable.PROJECTION.
+	 */
+	private static void fillRow(int key, Counters counters, Object[] values) {
+		long[] histogram = counters.sumHistogram();
+		int i = 0;
+		values[i++] = key;
+		if (key < QUERY_KEY_COUNT) {
+			values[i++] = AUTHORITIES[key / ENTRIES.length].name;
+			values[i++] = ENTRIES[key % ENTRIES.length].path;
+		} else {
+			values[i++] = null;
+			values[i++] = CACHE_NAMES[key - QUERY_KEY_COUNT];
+		}
+		values[i++] = counters.sum(Counters.QUERIES);
+		values[i++] = Histogram.getPercentile(histogram, 50);
+		values[i++] = Histogram.getPercentile(histogram, 95);
+		values[i++] = Histogram.getPercentile(histogram, 99);
+		values[i++] = counters.sum(Counters.ROWS);
+		values[i++] = counters.sum(Counters.CELLS);
+		values[i++] = counters.sum(Counters.WINDOWS);
+		values[i++] = counters.sum(Counters.WINDOW_BYTES);
+		values[i++] = counters.sum(Counters.CACHE_HITS);
+		values[i++] = counters.sum(Counters.CACHE_MISSES);
+	}
+
+	private static int indexOf(String[] names, String name) {
+		for (int i = 0; i < names.length; i++) {
+			if (names[i].equals(name)) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	/**
+	 * Counters of one table or cache, striped by thread.
+	 */
+	static final class Counters {
+		static final int QUERIES = 0;
+		static final int ROWS = 1;
+		static final int CELLS = 2;
+		static final int WINDOWS = 3;
+		static final int WINDOW_BYTES = 4;
+		static final int CACHE_HITS = 5;
+		static final int CACHE_MISSES = 6;
+		private static final int HISTOGRAM = 7;
+		private static final int SLOT_COUNT = HISTOGRAM + Histogram.BUCKET_COUNT;
+
+		/**
+		 * Power of two. Binder pools default to 16 threads, which rarely all query at once.
+		 */
+		private static final int STRIPES = 4;
+
+		/**
+		 * Slots per stripe, padded by a cache line so that stripes never share one.
+		 */
+		private static final int STRIDE = SLOT_COUNT + 8;
+
+		private final AtomicLongArray _slots = new AtomicLongArray(STRIPES * STRIDE);
+
+		void add(int slot, long delta) {
+			_slots.getAndAdd(getStripe() + slot, delta);
+		}
+
+		void addQuery(long latencyUs, int rowCount) {
+			int stripe = getStripe();
+			_slots.getAndIncrement(stripe + QUERIES);
+			_slots.getAndAdd(stripe + ROWS, rowCount);
+			_slots.getAndIncrement(stripe + HISTOGRAM + Histogram.getBucket(latencyUs));
+		}
+
+		void addWindow(int rowCount, int columnCount, long bytes) {
+			int stripe = getStripe();
+			_slots.getAndIncrement(stripe + WINDOWS);
+			_slots.getAndAdd(stripe + WINDOW_BYTES, bytes);
+			_slots.getAndAdd(stripe + CELLS, (long) rowCount * columnCount);
+		}
+
+		long sum(int slot) {
+			long sum = 0;
+			for (int stripe = 0; stripe < STRIPES; stripe++) {
+				sum += _slots.get(stripe * STRIDE + slot);
+			}
+			return sum;
+		}
+
+		long[] sumHistogram() {
+			long[] buckets = new long[Histogram.BUCKET_COUNT];
+			for (int i = 0; i < buckets.length; i++) {
+				buckets[i] = sum(HISTOGRAM + i);
+			}
+			return buckets;
+		}
+
+		private static int getStripe() {
+			return ((int) Thread.currentThread().getId() & (STRIPES - 1)) * STRIDE;
+		}
+	}
+
+	/**
+	 * Log-linear latency buckets: values below SUB_BUCKETS have a bucket each, and every power
+	 * of two above is split into SUB_BUCKETS buckets, so a bucket is at most 25% wide.
+	 */
+	static final class Histogram {
+		private static final int SUB_BUCKET_BITS = 2;
+		private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+		/**
+		 * Largest power of two with buckets of its own. 2^25us is about 33 seconds, and anything
+		 * slower lands in the last bucket.
+		 */
+		private static final int MAX_EXPONENT = 25;
+		static final int BUCKET_COUNT = SUB_BUCKETS +
+				(MAX_EXPONENT - SUB_BUCKET_BITS + 1) * SUB_BUCKETS;
+
+		private Histogram() {
+		}
+
+		static int getBucket(long value) {
+			if (value < SUB_BUCKETS) {
+				return value < 0 ? 0 : (int) value;
+			}
+			int exponent = 63 - Long.numberOfLeadingZeros(value);
+			if (exponent > MAX_EXPONENT) {
+				return BUCKET_COUNT - 1;
+			}
+			int shift = exponent - SUB_BUCKET_BITS;
+			int subBucket = (int) (value >>> shift) & (SUB_BUCKETS - 1);
+			return SUB_BUCKETS + shift * SUB_BUCKETS + subBucket;
+		}
+
+		/**
+		 * @return Largest value that falls into the bucket.
+		 */
+		static long getUpperBound(int bucket) {
+			if (bucket < SUB_BUCKETS) {
+				return bucket;
+			}
+			int shift = (bucket - SUB_BUCKETS) / SUB_BUCKETS;
+			int subBucket = (bucket - SUB_BUCKETS) % SUB_BUCKETS;
+			long lowerBound = (long) (SUB_BUCKETS + subBucket) << shift;
+			return lowerBound + (1L << shift) - 1;
+		}
+
+		/**
+		 * @return Upper bound of the bucket holding the percentile, or 0 if nothing was recorded.
+		 */
+		static long getPercentile(long[] buckets, int percentile) {
+			long total = 0;
+			for (long count : buckets) {
+				total += count;
+			}
+			if (total == 0) {
+				return 0;
+			}
+			// Rank of the value, rounded up so that p99 of 10 values is the largest
+			long rank = (total * percentile + 99) / 100;
+			long seen = 0;
+			for (int i = 0; i < buckets.length; i++) {
+				seen += buckets[i];
+				if (seen >= rank) {
+					return getUpperBound(i);
+				}
+			}
+			return getUpperBound(buckets.length - 1);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+package com.filecraft.helloworld;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import android.os.Build;
+import android.os.Trace;
+import android.util.Log;
+
+/**
+ * Systrace markers of the query pipeline: routing, building rows, filling cursor windows and
+ * opening files, so that provider work shows up in system traces next to the client's frames.
+ *
+ * Markers are only written while enabled, either with FileCraftContract.METHOD_SET_TRACE_ENABLED
+ * or from process start with "adb shell setprop log.tag.FileCraftTrace DEBUG". Sections need API
+ * 18. Async sections (the lifetime of each cursor) and counters (cache sizes and open cursors)
+ * need API 29.
+ */
+final class QueryTrace {
+
+	private static final String TAG = "FileCraftTrace";
+
+	/**
+	 * Async section from a cursor's creation to its close().
+	 */
+	static final String CURSOR_OPEN = "FileCraft:cursorOpen";
+
+	private static final String COUNTER_OPEN_CURSORS = "FileCraft:openCursors";
+
+	private static volatile boolean sEnabled = Log.isLoggable(TAG, Log.DEBUG);
+
+	private static final AtomicInteger sNextCookie = new AtomicInteger(1);
+	private static final AtomicInteger sOpenCursors = new AtomicInteger(0);
+
+	private QueryTrace() {
+	}
+
+	static boolean isEnabled() {
+		return sEnabled;
+	}
+
+	static void setEnabled(boolean enabled) {
+		sEnabled = enabled;
+	}
+
+	/**
+	 * @return True if a section was begun, to be passed to endSection(). Sections are paired by
+	 *         this rather than by isEnabled(), which may change in between.
+	 */
+	static boolean beginSection(String name) {
+		if (!sEnabled || Build.VERSION.SDK_INT < Build.VERSION_CODES.JELLY_BEAN_MR2) {
+			return false;
+		}
+		Trace.beginSection(name);
+		return true;
+	}
+
+	static void endSection(boolean began) {
+		if (began) {
+			Trace.endSection();
+		}
+	}
+
+	/**
+	 * Begins the async section of an open cursor.
+	 *
+	 * @return Cookie to pass to endCursor(), or 0 if tracing is disabled.
+	 */
+	static int beginCursor() {
+		if (!sEnabled) {
+			return 0;
+		}
+		int cookie = sNextCookie.getAndIncrement();
+		if (cookie == 0) {
+			cookie = sNextCookie.getAndIncrement();
+		}
+		AsyncApi.invoke(AsyncApi.BEGIN_ASYNC_SECTION, CURSOR_OPEN, cookie);
+		AsyncApi.invoke(AsyncApi.SET_COUNTER, COUNTER_OPEN_CURSORS,
+				(long) sOpenCursors.incrementAndGet());
+		return cookie;
+	}
+
+	/**
+	 * @param cookie Value returned by beginCursor(). Ends the section even if tracing was
+	 *        disabled since, so that the open cursor count stays balanced.
+	 */
+	static void endCursor(int cookie) {
+		if (cookie == 0) {
+			return;
+		}
+		AsyncApi.invoke(AsyncApi.END_ASYNC_SECTION, CURSOR_OPEN, cookie);
+		AsyncApi.invoke(AsyncApi.SET_COUNTER, COUNTER_OPEN_CURSORS,
+				(long) sOpenCursors.decrementAndGet());
+	}
+
+	/**
+	 * Sets a counter track, such as the size of a cache.
+	 */
+	static void setCounter(String name, long value) {
+		if (sEnabled) {
+			AsyncApi.invoke(AsyncApi.SET_COUNTER, name, value);
+		}
+	}
+
+	/**
+	 * Async sections and counters became public in API 29, above the SDK the app compiles
+	 * against, so they are looked up once by reflection. Loaded on first use only.
+	 */
+	private static final class AsyncApi {
+		private static final int API_LEVEL = 29;
+
+		static final Method BEGIN_ASYNC_SECTION =
+				getMethod("beginAsyncSection", String.class, int.class);
+		static final Method END_ASYNC_SECTION =
+				getMethod("endAsyncSection", String.class, int.class);
+		static final Method SET_COUNTER = getMethod("setCounter", String.class, long.class);
+
+		private static Method getMethod(String name, Class<?>... parameterTypes) {
+			if (Build.VERSION.SDK_INT < API_LEVEL) {
+				return null;
+			}
+			try {
+				return Trace.class.getMethod(name, parameterTypes);
+			} catch (NoSuchMethodException e) {
+				Log.w(TAG, "Trace." + name + "() not found", e);
+				return null;
+			}
+		}
+
+		static void invoke(Method method, Object... args) {
+			if (method == null) {
+				return;
+			}
+			try {
+				method.invoke(null, args);
+			} catch (Exception e) {
+				Log.w(TAG, "Failed to call Trace." + method.getName() + "()", e);
+			}
+		}
+	}
+}
@@ -1,20 +1,36 @@
 package com.filecraft.helloworld;
 
 import com.filecraft.helloworld.FileCraftContract.ContentType;
+import com.filecraft.helloworld.QuizAnswerSet.QuizAnswerSetId;
 
 public class Quiz {
 
 	public enum QuizId {
-		JAPANESE_VOCAB_SAMPLE,
-		JAPANESE_BASICS;
+		JAPANESE_VOCAB_SAMPLE(QuizAnswerSetId.JAPANESE_VOCAB, 3),
+		JAPANESE_BASICS(QuizAnswerSetId.JAPANESE_BASICS, QuizId.ALL_QUESTIONS);
+
+		/**
+		 * Question count of quizzes that ask about every entry of their answer set.
+		 */
+		public static final int ALL_QUESTIONS = Integer.MAX_VALUE;
+
+		/**
+		 * Answer set the questions and answers are drawn from.
+		 */
+		public final QuizAnswerSetId answerSetId;
+
+		/**
+		 * Maximum number of questions asked in the quiz.
+		 */
+		public final int questionCount;
+
+		private QuizId(QuizAnswerSetId answerSetId, int questionCount) {
+			this.answerSetId = answerSetId;
+			this.questionCount = questionCount;
+		}
 
 		public static QuizId getId(String actionId) {
-			for (QuizId id : QuizId.values()) {
-				if (id.name().equals(actionId)) {
-					return id;
-				}
-			}
-			return null;
+			return ActionIdRegistry.getQuizId(actionId);
 		}
 	}
 
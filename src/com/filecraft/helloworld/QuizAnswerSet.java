@@ -0,0 +1,162 @@
+package com.filecraft.helloworld;
+
+import java.io.ByteArrayOutputStream;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import android.content.res.AssetFileDescriptor;
+import android.content.res.Resources;
+import android.util.Log;
+
+/**
+ * Answer sets of the quizzes, each stored as a QuizDeck raw resource.
+ */
+public final class QuizAnswerSet {
+
+	private static final String TAG = QuizAnswerSet.class.getSimpleName();
+
+	public enum QuizAnswerSetId {
+		JAPANESE_VOCAB(10, R.raw.deck_japanese_vocab),
+		JAPANESE_BASICS(6, R.raw.deck_japanese_basics);
+
+		/**
+		 * Number of answers shown for each question.
+		 */
+		public final int answerCount;
+
+		/**
+		 * Raw resource holding the QuizDeck of the answer set. Decks are named *.mp3 because
+		 * aapt stores files with that extension uncompressed, which lets openDeck() map them.
+		 * Neither the ADT nor the Ant build can turn off compression for another extension.
+		 */
+		public final int deckResourceId;
+
+		private QuizAnswerSetId(int answerCount, int deckResourceId) {
+			this.answerCount = answerCount;
+			this.deckResourceId = deckResourceId;
+		}
+
+		public static QuizAnswerSetId getId(String actionId) {
+			return ActionIdRegistry.getQuizAnswerSetId(actionId);
+		}
+	}
+
+	private static final QuizAnswerSetId[] ANSWER_SET_IDS = QuizAnswerSetId.values();
+	private static final AtomicReferenceArray<QuizDeck> DECKS =
+			new AtomicReferenceArray<QuizDeck>(ANSWER_SET_IDS.length);
+
+	private QuizAnswerSet() {
+	}
+
+	public static int getQuizAnswerCount(String actionId) {
+		for (QuizAnswerSetId setId : ANSWER_SET_IDS) {
+			if (getDeck(setId).find(actionId) >= 0) {
+				return setId.answerCount;
+			}
+		}
+		return 0;
+	}
+
+	public static QuizAnswer[] getQuizAnswers(String actionId, boolean inJapanese) {
+		boolean traced = QueryTrace.beginSection("FileCraft:getQuizAnswers");
+		try {
+			return getQuizAnswers(actionId, inJapanese, QuizSampler.getRandom());
+		} finally {
+			QueryTrace.endSection(traced);
+		}
+	}
+
+	/**
+	 * Returns the correct answer for the action id followed by distinct wrong answers drawn from
+	 * the same answer set. Runs in time proportional to the number of answers returned.
+	 */
+	public static QuizAnswer[] getQuizAnswers(String actionId, boolean inJapanese, Random random) {
+		for (QuizAnswerSetId setId : ANSWER_SET_IDS) {
+			QuizDeck deck = getDeck(setId);
+			int ordinal = deck.find(actionId);
+			if (ordinal >= 0) {
+				return QuizAnswer.getQuizAnswers(deck, ordinal, setId.answerCount, inJapanese,
+						random);
+			}
+		}
+		throw new IllegalArgumentException("Unknown quiz answer: " + actionId);
+	}
+
+	/**
+	 * @return Number of answers in the answer set.
+	 */
+	public static int getAnswerSetSize(QuizAnswerSetId setId) {
+		return getDeck(setId).size();
+	}
+
+	public static String getAnswerText(QuizAnswerSetId setId, int ordinal, boolean inJapanese) {
+		return getDeck(setId).getString(ordinal, QuizAnswer.getTextField(inJapanese));
+	}
+
+	/**
+	 * @return Action id used to query the answers of the answer set entry.
+	 */
+	public static String getAnswerActionId(QuizAnswerSetId setId, int ordinal) {
+		return getDeck(setId).getString(ordinal, QuizDeck.FIELD_NAME);
+	}
+
+	/**
+	 * @return Deck of the answer set. Opened on first use and kept for the life of the process.
+	 */
+	public static QuizDeck getDeck(QuizAnswerSetId setId) {
+		QuizDeck deck = DECKS.get(setId.ordinal());
+		if (deck == null) {
+			deck = openDeck(TutorialUtils.getResources(), setId.deckResourceId);
+			if (!DECKS.compareAndSet(setId.ordinal(), null, deck)) {
+				deck = DECKS.get(setId.ordinal());
+			}
+		}
+		return deck;
+	}
+
+	/**
+	 * Maps the deck straight out of the apk, where it is stored uncompressed. Should a deck end
+	 * up compressed anyway, for example under another extension, it is read once into a buffer
+	 * instead and a warning is logged.
+	 */
+	private static QuizDeck openDeck(Resources resources, int resourceId) {
+		try {
+			AssetFileDescriptor fd = null;
+			try {
+				fd = resources.openRawResourceFd(resourceId);
+			} catch (Resources.NotFoundException e) {
+				Log.w(TAG, "Quiz deck " + resourceId + " is compressed in the apk, copying it " +
+						"to the heap");
+			}
+			if (fd != null) {
+				FileInputStream in = fd.createInputStream();
+				try {
+					FileChannel channel = in.getChannel();
+					return QuizDeck.wrap(channel.map(FileChannel.MapMode.READ_ONLY,
+							fd.getStartOffset(), fd.getLength()));
+				} finally {
+					in.close();
+				}
+			}
+			InputStream in = resources.openRawResource(resourceId);
+			try {
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					out.write(buffer, 0, read);
+				}
+				return QuizDeck.wrap(ByteBuffer.wrap(out.toByteArray()));
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			throw new IllegalStateException("Failed to open quiz deck " + resourceId, e);
+		}
+	}
+}
@@ -1,12 +1,10 @@
 package com.filecraft.helloworld;
 
-import java.util.ArrayList;
-import java.util.HashSet;
+import java.util.Random;
 
 import com.filecraft.helloworld.FileCraftContract.ContentType;
 import com.filecraft.helloworld.Quiz.QuizId;
-import com.filecraft.helloworld.QuizAnswer.JapaneseBasics;
-import com.filecraft.helloworld.QuizAnswer.QuizAnswerSetId;
+import com.filecraft.helloworld.QuizAnswerSet.QuizAnswerSetId;
 
 public class QuizQuestion {
 
@@ -24,35 +22,35 @@ public class QuizQuestion {
 
 	public static int getQuizQuestionCount(String actionId) {
 		QuizId id = QuizId.getId(actionId);
-		switch (id) {
-		case JAPANESE_VOCAB_SAMPLE:
-			return 3;
-		case JAPANESE_BASICS:
-			return JapaneseBasics.values().length;
-		}
-		return 0;
+		return Math.min(id.questionCount, QuizAnswerSet.getAnswerSetSize(id.answerSetId));
 	}
 
 	public static QuizQuestion[] getQuizQuestions(String actionId, boolean inJapanese) {
-		QuizId id = QuizId.getId(actionId);
-		String answerActionId = null;
-		switch (id) {
-		case JAPANESE_VOCAB_SAMPLE:
-			answerActionId = QuizAnswerSetId.JAPANESE_VOCAB.name();
-			break;
-		case JAPANESE_BASICS:
-			answerActionId = QuizAnswerSetId.JAPANESE_BASICS.name();
-			break;
+		boolean traced = QueryTrace.beginSection("FileCraft:getQuizQuestions");
+		try {
+			return getQuizQuestions(actionId, inJapanese, QuizSampler.getRandom());
+		} finally {
+			QueryTrace.endSection(traced);
 		}
-		ArrayList<QuizQuestion> questions = new ArrayList<QuizQuestion>();
-		HashSet<String> questionsAdded = new HashSet<String>();
-		while (questionsAdded.size() < getQuizQuestionCount(actionId)) {
-			String[] question = QuizAnswer.getRandomQuizAnswer(answerActionId, inJapanese);
-			if (questionsAdded.add(question[1])) {
-				questions.add(new QuizQuestion(TutorialUtils.getResourceFilePath(R.raw.text_svg),
-						ContentType.SVG_BASIC, question[0], question[1]));
-			}
+	}
+
+	/**
+	 * Returns the questions of the quiz in random order. Every question is a distinct entry of the
+	 * quiz's answer set.
+	 */
+	public static QuizQuestion[] getQuizQuestions(String actionId, boolean inJapanese, Random random) {
+		QuizId id = QuizId.getId(actionId);
+		QuizAnswerSetId answerSetId = id.answerSetId;
+		int answerSetSize = QuizAnswerSet.getAnswerSetSize(answerSetId);
+		int[] ordinals = QuizSampler.sample(answerSetSize,
+				Math.min(id.questionCount, answerSetSize), -1, random);
+		String iconPath = TutorialUtils.getResourceFilePath(R.raw.text_svg);
+		QuizQuestion[] questions = new QuizQuestion[ordinals.length];
+		for (int i = 0; i < ordinals.length; i++) {
+			questions[i] = new QuizQuestion(iconPath, ContentType.SVG_BASIC,
+					QuizAnswerSet.getAnswerText(answerSetId, ordinals[i], inJapanese),
+					QuizAnswerSet.getAnswerActionId(answerSetId, ordinals[i]));
 		}
-		return questions.toArray(new QuizQuestion[questions.size()]);
+		return questions;
 	}
 }
@@ -0,0 +1,103 @@
+package com.filecraft.helloworld;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Keeps the generated questions and answers of recent quiz sessions so that requerying a session,
+ * e.g. after a configuration change, returns the same quiz instead of generating a new one.
+ *
+ * Sessions are kept in a bounded LRU and expire after they have not been used for SESSION_TTL_MS.
+ */
+public final class QuizSessionStore {
+
+	public static final int MAX_SESSIONS = 16;
+	public static final long SESSION_TTL_MS = 30 * 60 * 1000;
+
+	private static final QuizSessionStore INSTANCE = new QuizSessionStore(MAX_SESSIONS, SESSION_TTL_MS);
+
+	private final long _ttlMs;
+	private final LinkedHashMap<String, Session> _sessions;
+
+	QuizSessionStore(final int maxSessions, long ttlMs) {
+		_ttlMs = ttlMs;
+		_sessions = new LinkedHashMap<String, Session>(maxSessions, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Session> eldest) {
+				return size() > maxSessions;
+			}
+		};
+	}
+
+	public static QuizSessionStore getInstance() {
+		return INSTANCE;
+	}
+
+	/**
+	 * @return Questions of the quiz for the session. Generated on first request.
+	 */
+	public CatalogTable getQuestions(String sessionId, String quizActionId) {
+		Session session = getSession(sessionId);
+		synchronized (session) {
+			CatalogTable table = session.questions.get(quizActionId);
+			if (table == null) {
+				table = CatalogSnapshot.buildQuizQuestionsTable(
+						QuizQuestion.getQuizQuestions(quizActionId, false));
+				session.questions.put(quizActionId, table);
+			}
+			return table;
+		}
+	}
+
+	/**
+	 * @return Answers of the question for the session. Generated on first request.
+	 */
+	public CatalogTable getAnswers(String sessionId, String questionActionId) {
+		Session session = getSession(sessionId);
+		synchronized (session) {
+			CatalogTable table = session.answers.get(questionActionId);
+			if (table == null) {
+				table = CatalogSnapshot.buildQuizAnswersTable(
+						QuizAnswerSet.getQuizAnswers(questionActionId, true));
+				session.answers.put(questionActionId, table);
+			}
+			return table;
+		}
+	}
+
+	public synchronized void clear() {
+		_sessions.clear();
+	}
+
+	private synchronized Session getSession(String sessionId) {
+		long now = System.nanoTime() / 1000000;
+		evictExpired(now);
+		Session session = _sessions.get(sessionId);
+		if (session == null) {
+			session = new Session();
+			_sessions.put(sessionId, session);
+		}
+		session.lastAccessMs = now;
+		return session;
+	}
+
+	private void evictExpired(long now) {
+		// Access order puts the least recently used sessions first
+		while (!_sessions.isEmpty()) {
+			Map.Entry<String, Session> eldest = _sessions.entrySet().iterator().next();
+			if (now - eldest.getValue().lastAccessMs < _ttlMs) {
+				break;
+			}
+			_sessions.remove(eldest.getKey());
+		}
+	}
+
+	private static final class Session {
+		final HashMap<String, CatalogTable> questions = new HashMap<String, CatalogTable>();
+		final HashMap<String, CatalogTable> answers = new HashMap<String, CatalogTable>();
+		long lastAccessMs;
+	}
+}
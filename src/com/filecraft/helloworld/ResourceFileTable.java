@@ -0,0 +1,191 @@
+package com.filecraft.helloworld;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import android.content.Context;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.Resources;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+import android.util.SparseArray;
+import android.util.TypedValue;
+
+/**
+ * Location of every resource file served by the ContentProviders. Resources stored uncompressed in
+ * the apk (png files) are handed out as AssetFileDescriptor slices of the apk itself, so no bytes
+ * are copied. Compressed resources (raw svg files) are extracted once to the cache directory and
+ * served from there.
+ */
+public final class ResourceFileTable {
+
+	private static final String TAG = ResourceFileTable.class.getSimpleName();
+
+	/**
+	 * Resources that may be opened through the providers. Nothing else in the apk is exposed.
+	 */
+	private static final int[] SERVED_RESOURCE_IDS = {
+		R.drawable.ic_launcher,
+		R.raw.android_svg,
+		R.raw.download,
+		R.raw.download_svg,
+		R.raw.gallery,
+		R.raw.gallery_svg,
+		R.raw.image,
+		R.raw.image_svg,
+		R.raw.octocat_svg,
+		R.raw.text_svg,
+		R.raw.up_arrow_svg,
+		R.raw.web,
+		R.raw.web_svg
+	};
+
+	private static final String EXTRACT_DIRECTORY = "resources";
+
+	private static volatile ResourceFileTable sInstance = null;
+
+	private final File _apkFile;
+	private final File _extractDirectory;
+	private final Resources _resources;
+	private final SparseArray<ResourceFile> _files = new SparseArray<ResourceFile>();
+
+	private static final class ResourceFile {
+		final String mimeType;
+
+		/**
+		 * Position of the file within the apk, or -1 if the file is compressed.
+		 */
+		final long offset;
+		final long length;
+
+		ResourceFile(String mimeType, long offset, long length) {
+			this.mimeType = mimeType;
+			this.offset = offset;
+			this.length = length;
+		}
+	}
+
+	private ResourceFileTable(Context context) {
+		_apkFile = new File(context.getApplicationInfo().sourceDir);
+		_extractDirectory = new File(context.getCacheDir(), EXTRACT_DIRECTORY);
+		_resources = context.getResources();
+		TypedValue value = new TypedValue();
+		for (int resourceId : SERVED_RESOURCE_IDS) {
+			_resources.getValue(resourceId, value, true);
+			String mimeType = getMimeType(value.string.toString());
+			long offset = -1;
+			long length = -1;
+			try {
+				AssetFileDescriptor fd = _resources.openRawResourceFd(resourceId);
+				if (fd != null) {
+					offset = fd.getStartOffset();
+					length = fd.getLength();
+					fd.close();
+				}
+			} catch (Resources.NotFoundException e) {
+				// Compressed in the apk
+			} catch (IOException e) {
+				Log.w(TAG, "Failed to close resource " + resourceId, e);
+			}
+			_files.put(resourceId, new ResourceFile(mimeType, offset, length));
+		}
+	}
+
+	public static ResourceFileTable getInstance(Context context) {
+		ResourceFileTable instance = sInstance;
+		if (instance == null) {
+			synchronized (ResourceFileTable.class) {
+				instance = sInstance;
+				if (instance == null) {
+					instance = new ResourceFileTable(context.getApplicationContext());
+					sInstance = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * @return MIME type of the resource or null if the resource is not served.
+	 */
+	public String getMimeType(int resourceId) {
+		ResourceFile file = _files.get(resourceId);
+		return file == null ? null : file.mimeType;
+	}
+
+	public AssetFileDescriptor open(int resourceId) throws FileNotFoundException {
+		ResourceFile file = _files.get(resourceId);
+		if (file == null) {
+			throw new FileNotFoundException("Resource is not served: " + resourceId);
+		}
+		if (file.offset >= 0) {
+			ParcelFileDescriptor apk = ParcelFileDescriptor.open(_apkFile,
+					ParcelFileDescriptor.MODE_READ_ONLY);
+			return new AssetFileDescriptor(apk, file.offset, file.length);
+		}
+		File extracted = extract(resourceId);
+		ParcelFileDescriptor fd = ParcelFileDescriptor.open(extracted,
+				ParcelFileDescriptor.MODE_READ_ONLY);
+		return new AssetFileDescriptor(fd, 0, AssetFileDescriptor.UNKNOWN_LENGTH);
+	}
+
+	/**
+	 * Copies a compressed resource to the cache directory. The file name includes the apk's last
+	 * modified time so that files from an older install are never served.
+	 */
+	private synchronized File extract(int resourceId) throws FileNotFoundException {
+		File file = new File(_extractDirectory, resourceId + "-" + _apkFile.lastModified());
+		if (file.exists()) {
+			return file;
+		}
+		if (!_extractDirectory.isDirectory() && !_extractDirectory.mkdirs()) {
+			throw new FileNotFoundException("Failed to create " + _extractDirectory);
+		}
+		File temp = new File(_extractDirectory, file.getName() + ".tmp");
+		try {
+			InputStream in = _resources.openRawResource(resourceId);
+			try {
+				OutputStream out = new FileOutputStream(temp);
+				try {
+					byte[] buffer = new byte[8192];
+					int read;
+					while ((read = in.read(buffer)) != -1) {
+						out.write(buffer, 0, read);
+					}
+				} finally {
+					out.close();
+				}
+			} finally {
+				in.close();
+			}
+		} catch (IOException e) {
+			temp.delete();
+			throw new FileNotFoundException("Failed to extract resource " + resourceId + ": " + e);
+		}
+		if (!temp.renameTo(file)) {
+			temp.delete();
+			throw new FileNotFoundException("Failed to extract resource " + resourceId);
+		}
+		return file;
+	}
+
+	private static String getMimeType(String path) {
+		String lowerCasePath = path.toLowerCase();
+		if (lowerCasePath.endsWith(".svg")) {
+			return "image/svg+xml";
+		} else if (lowerCasePath.endsWith(".png")) {
+			return "image/png";
+		} else if (lowerCasePath.endsWith(".jpg") || lowerCasePath.endsWith(".jpeg")) {
+			return "image/jpeg";
+		} else if (lowerCasePath.endsWith(".gif")) {
+			return "image/gif";
+		} else if (lowerCasePath.endsWith(".webp")) {
+			return "image/webp";
+		}
+		return "application/octet-stream";
+	}
+}
@@ -0,0 +1,375 @@
+package com.filecraft.helloworld;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+import com.filecraft.helloworld.FileCraftContract.ContentType;
+import com.filecraft.helloworld.FileCraftContract.GridTable;
+import com.filecraft.helloworld.FileCraftContract.GridTable.GridActionType;
+import com.filecraft.helloworld.FileCraftContract.ListTable;
+import com.filecraft.helloworld.FileCraftContract.QuizAnswersTable;
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+import com.filecraft.helloworld.GridItem.GridItemId;
+import com.filecraft.helloworld.Quiz.QuizId;
+import com.filecraft.helloworld.QuizAnswerSet.QuizAnswerSetId;
+
+/**
+ * In-memory inverted index behind the search table. Documents are the list entries, the grid
+ * items of every grid and the entries of every quiz deck. Their text is split into lower case
+ * words, and words are kept in one sorted array so that every word starting with a prefix is a
+ * contiguous range found by binary search. Words with kana or kanji, which are not separated by
+ * spaces, are also indexed from each of their characters so that they match within a word.
+ *
+ * The index is built on the first search and rebuilt on the first search after a locale change.
+ * Searches only read it.
+ */
+public final class SearchIndex {
+
+	/**
+	 * Posting flags, stored in the low bits of each posting below the document id.
+	 */
+	private static final int FLAG_SUBTITLE = 1;
+	private static final int FLAG_WITHIN_WORD = 2;
+	private static final int FLAG_BITS = 2;
+	private static final int FLAG_MASK = (1 << FLAG_BITS) - 1;
+
+	/**
+	 * Score of a query word for a matching document word. Title matches count double.
+	 */
+	private static final int SCORE_WORD = 6;
+	private static final int SCORE_PREFIX = 3;
+	private static final int SCORE_WITHIN_WORD = 1;
+
+	/**
+	 * Added to the score of every document of a source, so that navigation entries rank above
+	 * vocabulary with the same score.
+	 */
+	private static final int BOOST_LIST = 2;
+	private static final int BOOST_GRID = 1;
+	private static final int BOOST_QUIZ = 0;
+
+	private static volatile SearchIndex sInstance = null;
+
+	private final String[] _sourceTables;
+	private final String[] _contentPaths;
+	private final int[] _contentTypes;
+	private final String[] _texts;
+	private final String[] _subtitles;
+	private final int[] _actionTypes;
+	private final String[] _actionIds;
+	private final int[] _boosts;
+
+	/**
+	 * Locale of the resources the documents were read from.
+	 */
+	private final Locale _locale;
+
+	/**
+	 * Sorted distinct words, and the postings (document id << FLAG_BITS | flags) of each.
+	 */
+	private final String[] _words;
+	private final int[][] _postings;
+
+	private SearchIndex(Documents documents) {
+		_locale = documents.locale;
+		int count = documents.texts.size();
+		_sourceTables = documents.sourceTables.toArray(new String[count]);
+		_contentPaths = documents.contentPaths.toArray(new String[count]);
+		_texts = documents.texts.toArray(new String[count]);
+		_subtitles = documents.subtitles.toArray(new String[count]);
+		_actionIds = documents.actionIds.toArray(new String[count]);
+		_contentTypes = toArray(documents.contentTypes);
+		_actionTypes = toArray(documents.actionTypes);
+		_boosts = toArray(documents.boosts);
+
+		TreeMap<String, ArrayList<Integer>> postings = new TreeMap<String, ArrayList<Integer>>();
+		ArrayList<String> words = new ArrayList<String>();
+		for (int document = 0; document < count; document++) {
+			addPostings(postings, words, document, _texts[document], 0);
+			addPostings(postings, words, document, _subtitles[document], FLAG_SUBTITLE);
+		}
+		_words = new String[postings.size()];
+		_postings = new int[postings.size()][];
+		int i = 0;
+		for (Map.Entry<String, ArrayList<Integer>> entry : postings.entrySet()) {
+			_words[i] = entry.getKey();
+			_postings[i] = toArray(entry.getValue());
+			i++;
+		}
+	}
+
+	public static SearchIndex getInstance() {
+		SearchIndex instance = sInstance;
+		if (instance == null) {
+			synchronized (SearchIndex.class) {
+				instance = sInstance;
+				if (instance == null) {
+					StartupTrace.beginSection("FileCraft:buildSearchIndex");
+					try {
+						instance = new SearchIndex(collectDocuments());
+					} finally {
+						StartupTrace.endSection();
+					}
+					sInstance = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * Drops the index if the locale changed since it was built, and notifies the search tables.
+	 */
+	public static void invalidateIfLocaleChanged(ChangeNotifier notifier) {
+		synchronized (SearchIndex.class) {
+			SearchIndex instance = sInstance;
+			if (instance == null || instance._locale.equals(CatalogSnapshot.getLocale())) {
+				return;
+			}
+			sInstance = null;
+		}
+		notifier.notifyChange(UriMatcherEntry.SEARCH.getTableName(), null);
+		notifier.notifyChange(UriMatcherEntry.SEARCH_SUGGEST.getTableName(), null);
+	}
+
+	/**
+	 * @return Documents matching every word of the query as a table in the search table's column
+	 *         shape, best match first. Documents with equal scores stay in index order.
+	 */
+	public CatalogTable search(String query) {
+		ArrayList<String> queryWords = new ArrayList<String>();
+		tokenize(query, queryWords);
+		int documentCount = _texts.length;
+		int[] scores = new int[documentCount];
+		int[] matchedWords = new int[documentCount];
+		int[] best = new int[documentCount];
+		for (int q = 0; q < queryWords.size(); q++) {
+			String queryWord = queryWords.get(q);
+			Arrays.fill(best, 0);
+			int end = _words.length;
+			for (int w = findFirst(queryWord); w < end && _words[w].startsWith(queryWord); w++) {
+				boolean whole = _words[w].length() == queryWord.length();
+				for (int posting : _postings[w]) {
+					int document = posting >>> FLAG_BITS;
+					int score = (posting & FLAG_WITHIN_WORD) != 0 ? SCORE_WITHIN_WORD :
+							(whole ? SCORE_WORD : SCORE_PREFIX);
+					if ((posting & FLAG_SUBTITLE) == 0) {
+						score *= 2;
+					}
+					if (score > best[document]) {
+						best[document] = score;
+					}
+				}
+			}
+			for (int document = 0; document < documentCount; document++) {
+				// Documents must match every query word
+				if (best[document] > 0 && matchedWords[document] == q) {
+					matchedWords[document]++;
+					scores[document] += best[document];
+				}
+			}
+		}
+		// Sort by descending score, then by document id, packed into one long per match
+		long[] keys = new long[documentCount];
+		int matchCount = 0;
+		for (int document = 0; document < documentCount; document++) {
+			if (!queryWords.isEmpty() && matchedWords[document] == queryWords.size()) {
+				long score = scores[document] + _boosts[document];
+				keys[matchCount++] = (-score << 32) | document;
+			}
+		}
+		Arrays.sort(keys, 0, matchCount);
+		CatalogTable.Builder builder = new CatalogTable.Builder(matchCount);
+		for (int row = 0; row < matchCount; row++) {
+			int document = (int) keys[row];
+			builder.setString(CatalogColumn.CONTENT_PATH, row, _contentPaths[document])
+					.setInt(CatalogColumn.CONTENT_TYPE, row, _contentTypes[document])
+					.setString(CatalogColumn.TEXT, row, _texts[document])
+					.setString(CatalogColumn.SUBTITLE, row, _subtitles[document])
+					.setInt(CatalogColumn.ACTION_TYPE, row, _actionTypes[document])
+					.setString(CatalogColumn.ACTION_ID, row, _actionIds[document])
+					.setString(CatalogColumn.SOURCE_TABLE, row, _sourceTables[document])
+					.setString(CatalogColumn.SUGGEST_TEXT_1, row, _texts[document])
+					.setString(CatalogColumn.SUGGEST_TEXT_2, row, _subtitles[document])
+					.setString(CatalogColumn.SUGGEST_INTENT_EXTRA_DATA, row, _actionIds[document]);
+		}
+		return builder.build();
+	}
+
+	/**
+	 * @return Index of the first word not less than the prefix.
+	 */
+	private int findFirst(String prefix) {
+		int low = 0;
+		int high = _words.length;
+		while (low < high) {
+			int middle = (low + high) >>> 1;
+			if (_words[middle].compareTo(prefix) < 0) {
+				low = middle + 1;
+			} else {
+				high = middle;
+			}
+		}
+		return low;
+	}
+
+	private static void addPostings(TreeMap<String, ArrayList<Integer>> postings,
+			ArrayList<String> words, int document, String text, int flags) {
+		words.clear();
+		tokenize(text, words);
+		for (String word : words) {
+			addPosting(postings, word, (document << FLAG_BITS) | flags);
+			if (hasUnspacedScript(word)) {
+				for (int i = 1; i < word.length(); i++) {
+					addPosting(postings, word.substring(i),
+							(document << FLAG_BITS) | flags | FLAG_WITHIN_WORD);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds the posting unless the document already has a better one for the word. Postings are
+	 * added in document order, so only the last posting of the word needs checking.
+	 */
+	private static void addPosting(TreeMap<String, ArrayList<Integer>> postings, String word,
+			int posting) {
+		ArrayList<Integer> list = postings.get(word);
+		if (list == null) {
+			list = new ArrayList<Integer>(2);
+			postings.put(word, list);
+		}
+		int last = list.isEmpty() ? -1 : list.get(list.size() - 1);
+		if (last != -1 && last >>> FLAG_BITS == posting >>> FLAG_BITS) {
+			// Keep the flags of the better match: title over subtitle, whole word over within
+			if ((posting & FLAG_MASK) < (last & FLAG_MASK)) {
+				list.set(list.size() - 1, posting);
+			}
+			return;
+		}
+		list.add(posting);
+	}
+
+	/**
+	 * Splits text into lower case words of letters and digits. Html tags are skipped, since
+	 * some item texts are formatted with Html.fromHtml().
+	 */
+	static void tokenize(String text, ArrayList<String> words) {
+		if (text == null) {
+			return;
+		}
+		StringBuilder word = new StringBuilder();
+		boolean inTag = false;
+		for (int i = 0; i < text.length(); i++) {
+			char c = text.charAt(i);
+			if (inTag) {
+				inTag = c != '>';
+				continue;
+			}
+			if (Character.isLetterOrDigit(c)) {
+				word.append(Character.toLowerCase(c));
+				continue;
+			}
+			if (word.length() > 0) {
+				words.add(word.toString());
+				word.setLength(0);
+			}
+			inTag = c == '<';
+		}
+		if (word.length() > 0) {
+			words.add(word.toString());
+		}
+	}
+
+	/**
+	 * @return True if the word has kana or kanji, which are written without spaces between
+	 *         words.
+	 */
+	private static boolean hasUnspacedScript(String word) {
+		for (int i = 0; i < word.length(); i++) {
+			char c = word.charAt(i);
+			if (c >= '\u3040' && c <= '\u9fff') {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private static Documents collectDocuments() {
+		Documents documents = new Documents();
+		for (int position = 0; position < ListItem.getListItemCount(); position++) {
+			ListItem item = ListItem.getListItem(position);
+			documents.add(ListTable.TABLE_NAME, item.iconPath, item.iconType, item.name,
+					item.subtext, item.type.code, item.actionId, BOOST_LIST);
+		}
+		for (GridItemId id : GridItemId.values()) {
+			for (int position = 0; position < id.itemCount; position++) {
+				GridItem item = GridItem.getGridItem(id.name(), position);
+				documents.add(GridTable.TABLE_NAME, item.iconPath, item.iconType, item.text, null,
+						item.actionType.code, item.actionId, BOOST_GRID);
+			}
+		}
+		String iconPath = TutorialUtils.getResourceFilePath(R.raw.text_svg);
+		for (QuizId quizId : QuizId.values()) {
+			// Each answer set is indexed once, under the first quiz asking about it
+			if (getFirstQuiz(quizId.answerSetId) != quizId) {
+				continue;
+			}
+			QuizDeck deck = QuizAnswerSet.getDeck(quizId.answerSetId);
+			for (int ordinal = 0; ordinal < deck.size(); ordinal++) {
+				documents.add(QuizAnswersTable.TABLE_NAME, iconPath, ContentType.SVG_BASIC,
+						deck.getString(ordinal, QuizDeck.FIELD_ENGLISH),
+						deck.getString(ordinal, QuizDeck.FIELD_JAPANESE),
+						GridActionType.QUIZ.code, quizId.name(), BOOST_QUIZ);
+			}
+		}
+		return documents;
+	}
+
+	private static QuizId getFirstQuiz(QuizAnswerSetId answerSetId) {
+		for (QuizId quizId : QuizId.values()) {
+			if (quizId.answerSetId == answerSetId) {
+				return quizId;
+			}
+		}
+		return null;
+	}
+
+	private static int[] toArray(ArrayList<Integer> list) {
+		int[] array = new int[list.size()];
+		for (int i = 0; i < array.length; i++) {
+			array[i] = list.get(i);
+		}
+		return array;
+	}
+
+	/**
+	 * Columns of the documents while the index is built.
+	 */
+	private static final class Documents {
+		final Locale locale = CatalogSnapshot.getLocale();
+		final ArrayList<String> sourceTables = new ArrayList<String>();
+		final ArrayList<String> contentPaths = new ArrayList<String>();
+		final ArrayList<Integer> contentTypes = new ArrayList<Integer>();
+		final ArrayList<String> texts = new ArrayList<String>();
+		final ArrayList<String> subtitles = new ArrayList<String>();
+		final ArrayList<Integer> actionTypes = new ArrayList<Integer>();
+		final ArrayList<String> actionIds = new ArrayList<String>();
+		final ArrayList<Integer> boosts = new ArrayList<Integer>();
+
+		void add(String sourceTable, String contentPath, ContentType contentType, String text,
+				String subtitle, int actionType, String actionId, int boost) {
+			sourceTables.add(sourceTable);
+			contentPaths.add(contentPath);
+			contentTypes.add(contentType.code);
+			texts.add(text);
+			subtitles.add(subtitle);
+			actionTypes.add(actionType);
+			actionIds.add(actionId);
+			boosts.add(boost);
+		}
+	}
+}
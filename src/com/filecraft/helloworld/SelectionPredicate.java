@@ -0,0 +1,691 @@
+package com.filecraft.helloworld;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import android.database.Cursor;
+import android.util.LruCache;
+
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+
+/**
+ * Compiled query selection over catalog columns, for example "content_type = ?",
+ * "action_type IN (?, ?)" or "text LIKE ? AND NOT content_type = 4". Supported are comparisons
+ * (=, ==, !=, <>, <, <=, >, >=), [NOT] IN, [NOT] LIKE, IS [NOT] NULL, NOT, AND, OR and
+ * parentheses. Operands are ? placeholders or integer and 'string' literals.
+ *
+ * Column names are resolved to CatalogColumn ids and types when the selection is compiled, so
+ * matching a row reads the typed column array directly instead of converting every cell to a
+ * String. Results follow sqlite: integer columns compare numerically, text columns compare
+ * binary, LIKE ignores ASCII case and comparisons with NULL match nothing.
+ *
+ * Compiled selections hold no arguments and are cached by selection string.
+ */
+public final class SelectionPredicate {
+
+	private static final int CACHE_SIZE = 32;
+
+	private static final LruCache<String, SelectionPredicate> sCache =
+			new LruCache<String, SelectionPredicate>(CACHE_SIZE);
+
+	/**
+	 * Results of evaluating a node. NULL is sqlite's unknown, which is not a match.
+	 */
+	private static final int FALSE = 0;
+	private static final int TRUE = 1;
+	private static final int NULL = 2;
+
+	private static final int OP_EQUAL = 0;
+	private static final int OP_NOT_EQUAL = 1;
+	private static final int OP_LESS = 2;
+	private static final int OP_LESS_OR_EQUAL = 3;
+	private static final int OP_GREATER = 4;
+	private static final int OP_GREATER_OR_EQUAL = 5;
+
+	private static final String[] OP_SQL = { "=", "!=", "<", "<=", ">", ">=" };
+
+	private final String _selection;
+	private final Node _root;
+	private final int _columnMask;
+
+	/**
+	 * Literal of each operand in order of appearance, or null if the operand is a placeholder.
+	 */
+	private final String[] _literals;
+
+	private SelectionPredicate(String selection, Node root, int columnMask, String[] literals) {
+		_selection = selection;
+		_root = root;
+		_columnMask = columnMask;
+		_literals = literals;
+	}
+
+	/**
+	 * @return Compiled selection, or null if the selection is null or empty.
+	 * @throws IllegalArgumentException if the selection is not supported.
+	 */
+	public static SelectionPredicate compile(String selection) {
+		if (selection == null || selection.trim().length() == 0) {
+			return null;
+		}
+		SelectionPredicate predicate = sCache.get(selection);
+		if (predicate == null) {
+			predicate = new Parser(selection).parse();
+			sCache.put(selection, predicate);
+		}
+		return predicate;
+	}
+
+	/**
+	 * @return Index of the first selectionArg bound to a placeholder. selectionArgs[0] holds the
+	 *         action id of every table except the list.
+	 */
+	public static int getFirstArg(UriMatcherEntry entry) {
+		return entry == UriMatcherEntry.LIST || entry == UriMatcherEntry.LIST_ITEM ? 0 : 1;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the selection uses a column the table does not serve.
+	 */
+	public void checkColumns(UriMatcherEntry entry) {
+		for (int columnId = 0; columnId < CatalogColumn.COUNT; columnId++) {
+			if ((_columnMask & (1 << columnId)) != 0 &&
+					!CatalogSchema.isSupported(entry, columnId)) {
+				throw new IllegalArgumentException("Unhandled column name: " +
+						CatalogSchema.getName(columnId) + ", table=" + entry.path);
+			}
+		}
+	}
+
+	/**
+	 * @param rows Table rows to filter in cursor order, or null for every row of the table.
+	 * @return Rows that match, in the order they were given.
+	 */
+	public int[] filter(CatalogTable table, int[] rows, String[] selectionArgs, int firstArg) {
+		Operands operands = new Operands(getOperands(selectionArgs, firstArg));
+		int count = rows == null ? table.getRowCount() : rows.length;
+		int[] matches = new int[count];
+		int matchCount = 0;
+		for (int i = 0; i < count; i++) {
+			int row = rows == null ? i : rows[i];
+			if (_root.evaluate(table, row, operands) == TRUE) {
+				matches[matchCount++] = row;
+			}
+		}
+		return matchCount == count ? matches : Arrays.copyOf(matches, matchCount);
+	}
+
+	/**
+	 * Appends the selection as sql. Every operand, literals included, is written as a numbered
+	 * parameter starting at firstParameter, and getOperands() returns their values in the same
+	 * order. Column names come from CatalogColumn, so nothing of the caller's selection string
+	 * ends up in the sql.
+	 *
+	 * @param isCorrectAnswer Expression written for the is_correct_answer column, which is not
+	 *        stored in the database.
+	 */
+	public void appendSql(StringBuilder sql, int firstParameter, String isCorrectAnswer) {
+		_root.appendSql(sql, firstParameter, isCorrectAnswer);
+	}
+
+	/**
+	 * @return Value of every operand in order of appearance.
+	 * @throws IllegalArgumentException if an argument is missing.
+	 */
+	public String[] getOperands(String[] selectionArgs, int firstArg) {
+		String[] values = new String[_literals.length];
+		int placeholder = 0;
+		for (int i = 0; i < values.length; i++) {
+			if (_literals[i] != null) {
+				values[i] = _literals[i];
+				continue;
+			}
+			int arg = firstArg + placeholder++;
+			if (selectionArgs == null || arg >= selectionArgs.length ||
+					selectionArgs[arg] == null) {
+				throw new IllegalArgumentException("Missing selectionArgs[" + arg +
+						"] for selection: " + _selection);
+			}
+			values[i] = selectionArgs[arg];
+		}
+		return values;
+	}
+
+	/**
+	 * Operand values of one query, with the integer value of operands that are integers.
+	 */
+	private static final class Operands {
+		final String[] text;
+		final long[] number;
+		final boolean[] isNumber;
+
+		Operands(String[] values) {
+			text = values;
+			number = new long[values.length];
+			isNumber = new boolean[values.length];
+			for (int i = 0; i < values.length; i++) {
+				try {
+					number[i] = Long.parseLong(values[i].trim());
+					isNumber[i] = true;
+				} catch (NumberFormatException e) {
+					// Compared as text
+				}
+			}
+		}
+	}
+
+	private static abstract class Node {
+		abstract int evaluate(CatalogTable table, int row, Operands operands);
+
+		abstract void appendSql(StringBuilder sql, int firstParameter, String isCorrectAnswer);
+	}
+
+	private static abstract class ColumnNode extends Node {
+		final int columnId;
+		final boolean isInteger;
+
+		ColumnNode(int columnId) {
+			this.columnId = columnId;
+			isInteger = CatalogColumn.getType(columnId) == Cursor.FIELD_TYPE_INTEGER;
+		}
+
+		/**
+		 * Compares the cell with an operand the way sqlite does, where an integer is less than
+		 * any text.
+		 */
+		int compare(CatalogTable table, int row, Operands operands, int operand) {
+			if (isInteger) {
+				if (!operands.isNumber[operand]) {
+					return -1;
+				}
+				long value = table.getLong(columnId, row);
+				long other = operands.number[operand];
+				return value < other ? -1 : (value == other ? 0 : 1);
+			}
+			return CatalogTable.compareBinary(table.getString(columnId, row),
+					operands.text[operand]);
+		}
+
+		void appendColumn(StringBuilder sql, String isCorrectAnswer) {
+			if (columnId == CatalogColumn.IS_CORRECT_ANSWER && isCorrectAnswer != null) {
+				sql.append(isCorrectAnswer);
+			} else {
+				sql.append(CatalogSchema.getName(columnId));
+			}
+		}
+	}
+
+	private static final class Comparison extends ColumnNode {
+		private final int _op;
+		private final int _operand;
+
+		Comparison(int columnId, int op, int operand) {
+			super(columnId);
+			_op = op;
+			_operand = operand;
+		}
+
+		@Override
+		int evaluate(CatalogTable table, int row, Operands operands) {
+			if (table.isNull(columnId, row)) {
+				return NULL;
+			}
+			int result = compare(table, row, operands, _operand);
+			boolean matches;
+			switch (_op) {
+			case OP_EQUAL:
+				matches = result == 0;
+				break;
+			case OP_NOT_EQUAL:
+				matches = result != 0;
+				break;
+			case OP_LESS:
+				matches = result < 0;
+				break;
+			case OP_LESS_OR_EQUAL:
+				matches = result <= 0;
+				break;
+			case OP_GREATER:
+				matches = result > 0;
+				break;
+			default:
+				matches = result >= 0;
+				break;
+			}
+			return matches ? TRUE : FALSE;
+		}
+
+		@Override
+		void appendSql(StringBuilder sql, int firstParameter, String isCorrectAnswer) {
+			sql.append('(');
+			appendColumn(sql, isCorrectAnswer);
+			sql.append(OP_SQL[_op]).append('?').append(firstParameter + _operand).append(')');
+		}
+	}
+
+	private static final class In extends ColumnNode {
+		private final int[] _operands;
+		private final boolean _not;
+
+		In(int columnId, int[] operands, boolean not) {
+			super(columnId);
+			_operands = operands;
+			_not = not;
+		}
+
+		@Override
+		int evaluate(CatalogTable table, int row, Operands operands) {
+			if (table.isNull(columnId, row)) {
+				return NULL;
+			}
+			for (int operand : _operands) {
+				if (compare(table, row, operands, operand) == 0) {
+					return _not ? FALSE : TRUE;
+				}
+			}
+			return _not ? TRUE : FALSE;
+		}
+
+		@Override
+		void appendSql(StringBuilder sql, int firstParameter, String isCorrectAnswer) {
+			sql.append('(');
+			appendColumn(sql, isCorrectAnswer);
+			sql.append(_not ? " NOT IN (" : " IN (");
+			for (int i = 0; i < _operands.length; i++) {
+				if (i > 0) {
+					sql.append(',');
+				}
+				sql.append('?').append(firstParameter + _operands[i]);
+			}
+			sql.append("))");
+		}
+	}
+
+	private static final class Like extends ColumnNode {
+		private final int _operand;
+		private final boolean _not;
+
+		Like(int columnId, int operand, boolean not) {
+			super(columnId);
+			_operand = operand;
+			_not = not;
+		}
+
+		@Override
+		int evaluate(CatalogTable table, int row, Operands operands) {
+			if (table.isNull(columnId, row)) {
+				return NULL;
+			}
+			boolean matches = like(operands.text[_operand], table.getString(columnId, row));
+			return matches != _not ? TRUE : FALSE;
+		}
+
+		@Override
+		void appendSql(StringBuilder sql, int firstParameter, String isCorrectAnswer) {
+			sql.append('(');
+			appendColumn(sql, isCorrectAnswer);
+			sql.append(_not ? " NOT LIKE ?" : " LIKE ?").append(firstParameter + _operand)
+					.append(')');
+		}
+
+		/**
+		 * sqlite's default LIKE: % matches any run of characters, _ matches one character and
+		 * ASCII letters match either case. Backtracks to the last % on a mismatch.
+		 */
+		private static boolean like(String pattern, String value) {
+			int p = 0;
+			int v = 0;
+			int percent = -1;
+			int percentValue = 0;
+			while (v < value.length()) {
+				if (p < pattern.length()) {
+					char c = pattern.charAt(p);
+					if (c == '%') {
+						percent = p++;
+						percentValue = v;
+						continue;
+					}
+					if (c == '_' || foldCase(c) == foldCase(value.charAt(v))) {
+						p++;
+						v++;
+						continue;
+					}
+				}
+				if (percent == -1) {
+					return false;
+				}
+				p = percent + 1;
+				v = ++percentValue;
+			}
+			while (p < pattern.length() && pattern.charAt(p) == '%') {
+				p++;
+			}
+			return p == pattern.length();
+		}
+
+		private static char foldCase(char c) {
+			return c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+		}
+	}
+
+	private static final class IsNull extends ColumnNode {
+		private final boolean _not;
+
+		IsNull(int columnId, boolean not) {
+			super(columnId);
+			_not = not;
+		}
+
+		@Override
+		int evaluate(CatalogTable table, int row, Operands operands) {
+			return table.isNull(columnId, row) != _not ? TRUE : FALSE;
+		}
+
+		@Override
+		void appendSql(StringBuilder sql, int firstParameter, String isCorrectAnswer) {
+			sql.append('(');
+			appendColumn(sql, isCorrectAnswer);
+			sql.append(_not ? " IS NOT NULL)" : " IS NULL)");
+		}
+	}
+
+	private static final class Not extends Node {
+		private final Node _child;
+
+		Not(Node child) {
+			_child = child;
+		}
+
+		@Override
+		int evaluate(CatalogTable table, int row, Operands operands) {
+			int result = _child.evaluate(table, row, operands);
+			return result == NULL ? NULL : (result == TRUE ? FALSE : TRUE);
+		}
+
+		@Override
+		void appendSql(StringBuilder sql, int firstParameter, String isCorrectAnswer) {
+			sql.append("(NOT ");
+			_child.appendSql(sql, firstParameter, isCorrectAnswer);
+			sql.append(')');
+		}
+	}
+
+	/**
+	 * AND or OR of two or more nodes, evaluated left to right until the result is known.
+	 */
+	private static final class Logical extends Node {
+		private final Node[] _children;
+		private final boolean _and;
+
+		Logical(Node[] children, boolean and) {
+			_children = children;
+			_and = and;
+		}
+
+		@Override
+		int evaluate(CatalogTable table, int row, Operands operands) {
+			int decided = _and ? FALSE : TRUE;
+			int result = _and ? TRUE : FALSE;
+			for (Node child : _children) {
+				int childResult = child.evaluate(table, row, operands);
+				if (childResult == decided) {
+					return decided;
+				}
+				if (childResult == NULL) {
+					result = NULL;
+				}
+			}
+			return result;
+		}
+
+		@Override
+		void appendSql(StringBuilder sql, int firstParameter, String isCorrectAnswer) {
+			sql.append('(');
+			for (int i = 0; i < _children.length; i++) {
+				if (i > 0) {
+					sql.append(_and ? " AND " : " OR ");
+				}
+				_children[i].appendSql(sql, firstParameter, isCorrectAnswer);
+			}
+			sql.append(')');
+		}
+	}
+
+	/**
+	 * Recursive descent parser. OR binds weaker than AND, which binds weaker than NOT.
+	 */
+	private static final class Parser {
+
+		/**
+		 * Most parentheses and NOTs an expression may be nested in. Deeper selections are
+		 * rejected before they overflow the stack of the Binder thread, which would take the
+		 * provider process down. Well below sqlite's default SQLITE_MAX_EXPR_DEPTH of 1000, which
+		 * takes about 1MB of stack to parse here.
+		 */
+		private static final int MAX_DEPTH = 100;
+
+		private final String _selection;
+		private int _index = 0;
+		private int _depth = 0;
+		private int _columnMask = 0;
+		private final ArrayList<String> _literals = new ArrayList<String>();
+
+		Parser(String selection) {
+			_selection = selection;
+		}
+
+		SelectionPredicate parse() {
+			Node root = parseOr();
+			skipWhitespace();
+			if (_index < _selection.length()) {
+				throw error("Unexpected input");
+			}
+			return new SelectionPredicate(_selection, root, _columnMask,
+					_literals.toArray(new String[_literals.size()]));
+		}
+
+		private Node parseOr() {
+			ArrayList<Node> children = new ArrayList<Node>(2);
+			children.add(parseAnd());
+			while (acceptKeyword("OR")) {
+				children.add(parseAnd());
+			}
+			return children.size() == 1 ? children.get(0) :
+					new Logical(children.toArray(new Node[children.size()]), false);
+		}
+
+		private Node parseAnd() {
+			ArrayList<Node> children = new ArrayList<Node>(2);
+			children.add(parseNot());
+			while (acceptKeyword("AND")) {
+				children.add(parseNot());
+			}
+			return children.size() == 1 ? children.get(0) :
+					new Logical(children.toArray(new Node[children.size()]), true);
+		}
+
+		private Node parseNot() {
+			if (acceptKeyword("NOT")) {
+				enter();
+				Node node = new Not(parseNot());
+				_depth--;
+				return node;
+			}
+			if (accept("(")) {
+				enter();
+				Node node = parseOr();
+				expect(")");
+				_depth--;
+				return node;
+			}
+			return parseTerm();
+		}
+
+		private void enter() {
+			if (++_depth > MAX_DEPTH) {
+				throw error("Selection nested too deeply");
+			}
+		}
+
+		private Node parseTerm() {
+			int columnId = parseColumn();
+			if (acceptKeyword("IS")) {
+				boolean not = acceptKeyword("NOT");
+				expectKeyword("NULL");
+				return new IsNull(columnId, not);
+			}
+			boolean not = acceptKeyword("NOT");
+			if (acceptKeyword("IN")) {
+				expect("(");
+				ArrayList<Integer> operands = new ArrayList<Integer>();
+				do {
+					operands.add(parseOperand());
+				} while (accept(","));
+				expect(")");
+				int[] indexes = new int[operands.size()];
+				for (int i = 0; i < indexes.length; i++) {
+					indexes[i] = operands.get(i);
+				}
+				return new In(columnId, indexes, not);
+			}
+			if (acceptKeyword("LIKE")) {
+				return new Like(columnId, parseOperand(), not);
+			}
+			if (not) {
+				throw error("Expected IN or LIKE");
+			}
+			int op;
+			if (accept("==") || accept("=")) {
+				op = OP_EQUAL;
+			} else if (accept("!=") || accept("<>")) {
+				op = OP_NOT_EQUAL;
+			} else if (accept("<=")) {
+				op = OP_LESS_OR_EQUAL;
+			} else if (accept("<")) {
+				op = OP_LESS;
+			} else if (accept(">=")) {
+				op = OP_GREATER_OR_EQUAL;
+			} else if (accept(">")) {
+				op = OP_GREATER;
+			} else {
+				throw error("Expected an operator");
+			}
+			return new Comparison(columnId, op, parseOperand());
+		}
+
+		private int parseColumn() {
+			String name = parseIdentifier();
+			int columnId = name == null ? -1 : CatalogSchema.getColumnId(name);
+			if (columnId < 0) {
+				throw error("Expected a column");
+			}
+			_columnMask |= 1 << columnId;
+			return columnId;
+		}
+
+		/**
+		 * @return Index of the operand.
+		 */
+		private int parseOperand() {
+			skipWhitespace();
+			if (accept("?")) {
+				_literals.add(null);
+			} else if (peek() == '\'') {
+				StringBuilder literal = new StringBuilder();
+				_index++;
+				while (true) {
+					if (_index >= _selection.length()) {
+						throw error("Unterminated string");
+					}
+					char c = _selection.charAt(_index++);
+					if (c == '\'') {
+						if (peek() != '\'') {
+							break;
+						}
+						_index++;
+					}
+					literal.append(c);
+				}
+				_literals.add(literal.toString());
+			} else {
+				int start = _index;
+				if (peek() == '-' || peek() == '+') {
+					_index++;
+				}
+				while (Character.isDigit(peek())) {
+					_index++;
+				}
+				String number = _selection.substring(start, _index);
+				try {
+					_literals.add(String.valueOf(Long.parseLong(number)));
+				} catch (NumberFormatException e) {
+					_index = start;
+					throw error("Expected ?, a number or a string");
+				}
+			}
+			return _literals.size() - 1;
+		}
+
+		private String parseIdentifier() {
+			skipWhitespace();
+			int start = _index;
+			while (_index < _selection.length()) {
+				char c = _selection.charAt(_index);
+				if (c == '_' || (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') ||
+						(_index > start && c >= '0' && c <= '9')) {
+					_index++;
+				} else {
+					break;
+				}
+			}
+			return _index > start ? _selection.substring(start, _index) : null;
+		}
+
+		private boolean acceptKeyword(String keyword) {
+			int start = _index;
+			String identifier = parseIdentifier();
+			if (keyword.equalsIgnoreCase(identifier)) {
+				return true;
+			}
+			_index = start;
+			return false;
+		}
+
+		private void expectKeyword(String keyword) {
+			if (!acceptKeyword(keyword)) {
+				throw error("Expected " + keyword);
+			}
+		}
+
+		private boolean accept(String token) {
+			skipWhitespace();
+			if (_selection.startsWith(token, _index)) {
+				_index += token.length();
+				return true;
+			}
+			return false;
+		}
+
+		private void expect(String token) {
+			if (!accept(token)) {
+				throw error("Expected " + token);
+			}
+		}
+
+		private char peek() {
+			return _index < _selection.length() ? _selection.charAt(_index) : 0;
+		}
+
+		private void skipWhitespace() {
+			while (_index < _selection.length() &&
+					Character.isWhitespace(_selection.charAt(_index))) {
+				_index++;
+			}
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " at index " + _index +
+					" of selection: " + _selection);
+		}
+	}
+}
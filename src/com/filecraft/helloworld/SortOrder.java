@@ -0,0 +1,82 @@
+package com.filecraft.helloworld;
+
+import java.util.Locale;
+
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+
+/**
+ * Parsed sortOrder of a table query: one sortable column or the row position, ascending or
+ * descending. Rows with the same value stay in position order (reversed when descending).
+ *
+ * Every static table keeps a presorted permutation of its rows for each sortable column (see
+ * CatalogTable.getSortedRows()), so a sorted query remaps cursor positions instead of sorting.
+ */
+public final class SortOrder {
+
+	/**
+	 * Column id used for the row position, which is not a column of the tables.
+	 */
+	public static final int POSITION = -1;
+
+	public final int columnId;
+	public final boolean descending;
+
+	private SortOrder(int columnId, boolean descending) {
+		this.columnId = columnId;
+		this.descending = descending;
+	}
+
+	/**
+	 * @return Sort order of the query, or null if the rows are returned in position order. Quiz
+	 *         questions and answers always keep their generated order.
+	 * @throws IllegalArgumentException if the sort order is not "<column> [ASC|DESC]" for a
+	 *         sortable column the table serves.
+	 */
+	public static SortOrder parse(UriMatcherEntry entry, String sortOrder) {
+		if (sortOrder == null) {
+			return null;
+		}
+		switch (entry) {
+		case QUIZ_QUESTIONS:
+		case QUIZ_QUESTIONS_ITEM:
+		case QUIZ_ANSWERS:
+		case QUIZ_ANSWERS_ITEM:
+			return null;
+		default:
+			break;
+		}
+		String[] terms = sortOrder.trim().split("\\s+");
+		if (terms.length == 0 || terms[0].length() == 0) {
+			return null;
+		}
+		boolean descending = false;
+		if (terms.length == 2) {
+			String direction = terms[1].toUpperCase(Locale.US);
+			if ("DESC".equals(direction)) {
+				descending = true;
+			} else if (!"ASC".equals(direction)) {
+				throw new IllegalArgumentException("Invalid sort order: " + sortOrder);
+			}
+		} else if (terms.length > 2) {
+			throw new IllegalArgumentException("Invalid sort order: " + sortOrder);
+		}
+		if (FileCraftContract.SORT_POSITION.equals(terms[0])) {
+			return descending ? new SortOrder(POSITION, true) : null;
+		}
+		int columnId = CatalogSchema.getColumnId(terms[0]);
+		if (!isSortable(columnId) || !CatalogSchema.isSupported(entry, columnId)) {
+			throw new IllegalArgumentException("Unsupported sort column: " + terms[0] +
+					", table=" + entry.path);
+		}
+		return new SortOrder(columnId, descending);
+	}
+
+	static boolean isSortable(int columnId) {
+		for (int sortable : CatalogColumn.SORTABLE_COLUMNS) {
+			if (sortable == columnId) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
@@ -0,0 +1,131 @@
+/**
+The MIT License (MIT)
+
+Permission is hereby granted, free of charge, to any person obtaining a copy of this software and 
+associated documentation files (the "Software"), to deal in the Software without restriction, 
+including without limitation the rights to use, copy, modify, merge, publish, distribute, 
+sublicense, and/or sell copies of the Software, and to permit persons to whom the Software is 
+furnished to do so, subject to the following conditions:
+
+The above copyright notice and this permission notice shall be included in all copies or 
+substantial portions of the Software.
+
+THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR IMPLIED, INCLUDING BUT 
+NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY, FITNESS FOR A PARTICULAR PURPOSE AND 
+NONINFRINGEMENT. IN NO EVENT SHALL THE AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, 
+DAMAGES OR OTHER LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM, OUT 
+OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE SOFTWARE.
+ */
+
+package com.filecraft.helloworld;
+
+import android.database.Cursor;
+import android.net.Uri;
+import android.os.Bundle;
+
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+
+/**
+ * Serves the same tables as CustomCursorProviderA from the prebuilt CatalogDatabase. Files and
+ * quiz sessions are still served by CustomCursorProviderA, since a session's questions and
+ * answers must stay the same across queries. Searches and NavigationTree calls are also served
+ * by CustomCursorProviderA, from the in-memory SearchIndex and CatalogSnapshot.
+ *
+ * Not marked multiprocess in the AndroidManifest so that every client shares one database
+ * connection pool.
+ */
+public class SqliteCursorProvider extends CustomCursorProviderA {
+
+	@Override
+	public Cursor query(Uri uri, String[] projection,
+			String selection, String[] selectionArgs, String sortOrder) {
+		long start = StartupTrace.beginQuery();
+		boolean traced = QueryTrace.beginSection("FileCraft:sqliteQuery");
+		try {
+			UriMatcherEntry entry = UriRouter.match(uri);
+			if (entry == null && UriRouter.isStatsUri(uri)) {
+				return super.query(uri, projection, selection, selectionArgs, sortOrder);
+			} else if (entry == null) {
+				throw new IllegalArgumentException("Unknown table URI: " + uri);
+			}
+			switch (entry) {
+			case QUIZ_QUESTIONS:
+			case QUIZ_QUESTIONS_ITEM:
+			case QUIZ_ANSWERS:
+			case QUIZ_ANSWERS_ITEM:
+				if (CustomCursor.getQuizSessionId(uri, selection, selectionArgs) != null) {
+					return super.query(uri, projection, selection, selectionArgs, sortOrder);
+				}
+				break;
+			case SEARCH:
+			case SEARCH_SUGGEST:
+				return super.query(uri, projection, selection, selectionArgs, sortOrder);
+			default:
+				// NO-OP
+				break;
+			}
+			long statsStart = QueryStats.startQuery();
+			CatalogDatabase database = CatalogDatabase.getInstance(getContext());
+			Cursor cursor = database.query(entry, uri, projection, selection, selectionArgs,
+					sortOrder);
+			cursor.setNotificationUri(getContext().getContentResolver(),
+					FileCraftContract.getChangeUri(uri.getAuthority(), entry.getTableName(),
+							CatalogDatabase.getActionId(entry, selectionArgs)));
+			Bundle extras = cursor.getExtras();
+			if (extras.containsKey(FileCraftContract.EXTRA_NEXT_AFTER) &&
+					CatalogSchema.isSupported(entry, CatalogColumn.CONTENT_PATH)) {
+				prefetchNextPage(database, entry, CatalogDatabase.getActionId(entry, selectionArgs),
+						selection, selectionArgs, sortOrder,
+						extras.getInt(FileCraftContract.EXTRA_NEXT_AFTER), cursor.getCount());
+			}
+			prefetchChildren(entry, entry == UriMatcherEntry.GRID ? selectionArgs[0] : null);
+			QueryStats.endQuery(uri, entry, cursor.getCount(), statsStart);
+			return cursor;
+		} finally {
+			QueryTrace.endSection(traced);
+			StartupTrace.endQuery(uri, start);
+		}
+	}
+
+	/**
+	 * Opens the database, which every query of this provider reads. The in-memory catalog is
+	 * left to the calls and searches that need it.
+	 */
+	@Override
+	protected void prewarm() {
+		CatalogDatabase.getInstance(getContext());
+	}
+
+	/**
+	 * Reads the tables from the database, which holds the rows this provider serves.
+	 */
+	@Override
+	protected void prefetchChildren(UriMatcherEntry entry, String actionId) {
+		if (entry == UriMatcherEntry.LIST || entry == UriMatcherEntry.GRID) {
+			ContentPrefetcher.getInstance(getContext()).prefetchChildren(
+					CatalogDatabase.getInstance(getContext()), entry.getTableName(), actionId);
+		}
+	}
+
+	/**
+	 * Only searches are served from memory. The database does not change with the locale.
+	 */
+	@Override
+	protected String[] getMemoryTableNames() {
+		return new String[] { UriMatcherEntry.SEARCH.getTableName(),
+				UriMatcherEntry.SEARCH_SUGGEST.getTableName() };
+	}
+
+	private void prefetchNextPage(final CatalogDatabase database, final UriMatcherEntry entry,
+			final String actionId, final String selection, final String[] selectionArgs,
+			final String sortOrder, final int after, final int limit) {
+		final ContentPrefetcher prefetcher = ContentPrefetcher.getInstance(getContext());
+		prefetcher.execute(new Runnable() {
+			@Override
+			public void run() {
+				prefetcher.warmContent(database.getContentPaths(entry, actionId, selection,
+						selectionArgs, sortOrder, after, limit));
+			}
+		});
+	}
+}
@@ -0,0 +1,87 @@
+package com.filecraft.helloworld;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import android.net.Uri;
+import android.os.Build;
+import android.os.SystemClock;
+import android.os.Trace;
+import android.util.Log;
+
+/**
+ * Startup markers of a provider process. Each step of a cold start (provider creation, the
+ * background prewarm, building the catalog and opening the database) is a systrace section, and
+ * the latency of the first query is logged against COLD_QUERY_BUDGET_MS.
+ *
+ * Sections are only written on API 18 and above, where android.os.Trace exists.
+ */
+final class StartupTrace {
+
+	private static final String TAG = StartupTrace.class.getSimpleName();
+
+	/**
+	 * Time the first query of a process may take, including building whatever it reads. Slower
+	 * first queries are logged as warnings.
+	 */
+	static final long COLD_QUERY_BUDGET_MS = 100;
+
+	/**
+	 * Uptime when the class was first loaded, which is during the first provider's onCreate().
+	 */
+	private static final long PROCESS_START_UPTIME_MS = SystemClock.uptimeMillis();
+
+	private static final AtomicBoolean sFirstQueryDone = new AtomicBoolean(false);
+
+	private StartupTrace() {
+	}
+
+	static void beginSection(String name) {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+			Trace.beginSection(name);
+		}
+	}
+
+	static void endSection() {
+		if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.JELLY_BEAN_MR2) {
+			Trace.endSection();
+		}
+	}
+
+	/**
+	 * Starts timing a query if it is the first of the process.
+	 *
+	 * @return Start time to pass to endQuery(), or -1 if the process already served a query.
+	 */
+	static long beginQuery() {
+		if (sFirstQueryDone.get()) {
+			return -1;
+		}
+		beginSection("FileCraft:coldQuery");
+		return SystemClock.uptimeMillis();
+	}
+
+	/**
+	 * Logs the latency of the process' first query.
+	 *
+	 * @param startUptimeMs Value returned by beginQuery().
+	 */
+	static void endQuery(Uri uri, long startUptimeMs) {
+		if (startUptimeMs < 0) {
+			return;
+		}
+		endSection();
+		if (!sFirstQueryDone.compareAndSet(false, true)) {
+			return;
+		}
+		long now = SystemClock.uptimeMillis();
+		long latency = now - startUptimeMs;
+		String message = "Cold query took " + latency + "ms (budget " + COLD_QUERY_BUDGET_MS +
+				"ms), " + (now - PROCESS_START_UPTIME_MS) + "ms after the first provider was " +
+				"created, uri=" + uri;
+		if (latency > COLD_QUERY_BUDGET_MS) {
+			Log.w(TAG, message);
+		} else if (Log.isLoggable(TAG, Log.DEBUG)) {
+			Log.d(TAG, message);
+		}
+	}
+}
@@ -0,0 +1,406 @@
+package com.filecraft.helloworld;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+import android.graphics.Path;
+import android.util.Xml;
+
+/**
+ * Renders the subset of SVG Basic used by the packaged icons into a square Bitmap: filled path
+ * elements inside groups with matrix, translate and scale transforms. Arcs, strokes, gradients
+ * and text are not supported and are skipped.
+ */
+public final class SvgRasterizer {
+
+	private SvgRasterizer() {
+	}
+
+	/**
+	 * @param size Width and height of the returned bitmap. The image is scaled to fit and centered.
+	 */
+	public static Bitmap rasterize(InputStream in, int size) throws IOException {
+		Bitmap bitmap = Bitmap.createBitmap(size, size, Bitmap.Config.ARGB_8888);
+		Canvas canvas = new Canvas(bitmap);
+		Paint paint = new Paint(Paint.ANTI_ALIAS_FLAG);
+		paint.setStyle(Paint.Style.FILL);
+		Path path = new Path();
+		try {
+			XmlPullParser parser = Xml.newPullParser();
+			parser.setInput(in, null);
+			int event;
+			while ((event = parser.next()) != XmlPullParser.END_DOCUMENT) {
+				if (event == XmlPullParser.START_TAG) {
+					String name = parser.getName();
+					canvas.save();
+					if ("svg".equals(name)) {
+						fitViewport(canvas, parser, size);
+					}
+					String transform = parser.getAttributeValue(null, "transform");
+					if (transform != null) {
+						canvas.concat(parseTransform(transform));
+					}
+					if ("path".equals(name)) {
+						drawPath(canvas, parser, path, paint);
+					}
+				} else if (event == XmlPullParser.END_TAG) {
+					canvas.restore();
+				}
+			}
+		} catch (XmlPullParserException e) {
+			bitmap.recycle();
+			throw new IOException("Invalid svg: " + e.getMessage());
+		}
+		return bitmap;
+	}
+
+	private static void fitViewport(Canvas canvas, XmlPullParser parser, int size) {
+		float x = 0;
+		float y = 0;
+		float width = parseLength(parser.getAttributeValue(null, "width"));
+		float height = parseLength(parser.getAttributeValue(null, "height"));
+		String viewBox = parser.getAttributeValue(null, "viewBox");
+		if (viewBox != null) {
+			float[] values = new float[4];
+			if (new NumberScanner(viewBox).readNumbers(values) == 4) {
+				x = values[0];
+				y = values[1];
+				width = values[2];
+				height = values[3];
+			}
+		}
+		if (width <= 0 || height <= 0) {
+			return;
+		}
+		float scale = size / Math.max(width, height);
+		canvas.translate((size - width * scale) / 2, (size - height * scale) / 2);
+		canvas.scale(scale, scale);
+		canvas.translate(-x, -y);
+	}
+
+	private static void drawPath(Canvas canvas, XmlPullParser parser, Path path, Paint paint) {
+		String data = parser.getAttributeValue(null, "d");
+		if (data == null) {
+			return;
+		}
+		String fill = parser.getAttributeValue(null, "fill");
+		String opacity = parser.getAttributeValue(null, "fill-opacity");
+		String style = parser.getAttributeValue(null, "style");
+		if (style != null) {
+			for (String declaration : style.split(";")) {
+				int colon = declaration.indexOf(':');
+				if (colon < 0) {
+					continue;
+				}
+				String property = declaration.substring(0, colon).trim();
+				String value = declaration.substring(colon + 1).trim();
+				if ("fill".equals(property)) {
+					fill = value;
+				} else if ("fill-opacity".equals(property)) {
+					opacity = value;
+				}
+			}
+		}
+		if ("none".equals(fill)) {
+			return;
+		}
+		paint.setColor(fill == null ? Color.BLACK : parseColor(fill));
+		if (opacity != null) {
+			paint.setAlpha(Math.round(255 * parseLength(opacity)));
+		}
+		path.reset();
+		parsePathData(data, path);
+		canvas.drawPath(path, paint);
+	}
+
+	static void parsePathData(String data, Path path) {
+		NumberScanner scanner = new NumberScanner(data);
+		float[] args = new float[6];
+		float x = 0;
+		float y = 0;
+		float startX = 0;
+		float startY = 0;
+		// Control point of the previous curve, reflected by the smooth curve commands
+		float controlX = 0;
+		float controlY = 0;
+		char previous = ' ';
+		char command = ' ';
+		while (true) {
+			char next = scanner.nextCommand();
+			if (next == 0) {
+				break;
+			} else if (next != ' ') {
+				command = next;
+			} else if (command == 'M') {
+				// Coordinates after a moveto are implicit linetos
+				command = 'L';
+			} else if (command == 'm') {
+				command = 'l';
+			}
+			boolean relative = Character.isLowerCase(command);
+			float originX = relative ? x : 0;
+			float originY = relative ? y : 0;
+			switch (Character.toUpperCase(command)) {
+			case 'Z':
+				path.close();
+				x = startX;
+				y = startY;
+				break;
+			case 'M':
+				if (!scanner.read(args, 2)) {
+					return;
+				}
+				x = originX + args[0];
+				y = originY + args[1];
+				startX = x;
+				startY = y;
+				path.moveTo(x, y);
+				break;
+			case 'L':
+				if (!scanner.read(args, 2)) {
+					return;
+				}
+				x = originX + args[0];
+				y = originY + args[1];
+				path.lineTo(x, y);
+				break;
+			case 'H':
+				if (!scanner.read(args, 1)) {
+					return;
+				}
+				x = originX + args[0];
+				path.lineTo(x, y);
+				break;
+			case 'V':
+				if (!scanner.read(args, 1)) {
+					return;
+				}
+				y = originY + args[0];
+				path.lineTo(x, y);
+				break;
+			case 'C':
+				if (!scanner.read(args, 6)) {
+					return;
+				}
+				controlX = originX + args[2];
+				controlY = originY + args[3];
+				x = originX + args[4];
+				y = originY + args[5];
+				path.cubicTo(originX + args[0], originY + args[1], controlX, controlY, x, y);
+				break;
+			case 'S': {
+				if (!scanner.read(args, 4)) {
+					return;
+				}
+				boolean afterCubic = "CcSs".indexOf(previous) >= 0;
+				float x1 = afterCubic ? 2 * x - controlX : x;
+				float y1 = afterCubic ? 2 * y - controlY : y;
+				controlX = originX + args[0];
+				controlY = originY + args[1];
+				x = originX + args[2];
+				y = originY + args[3];
+				path.cubicTo(x1, y1, controlX, controlY, x, y);
+				break;
+			}
+			case 'Q':
+				if (!scanner.read(args, 4)) {
+					return;
+				}
+				controlX = originX + args[0];
+				controlY = originY + args[1];
+				x = originX + args[2];
+				y = originY + args[3];
+				path.quadTo(controlX, controlY, x, y);
+				break;
+			case 'T': {
+				if (!scanner.read(args, 2)) {
+					return;
+				}
+				boolean afterQuad = "QqTt".indexOf(previous) >= 0;
+				controlX = afterQuad ? 2 * x - controlX : x;
+				controlY = afterQuad ? 2 * y - controlY : y;
+				x = originX + args[0];
+				y = originY + args[1];
+				path.quadTo(controlX, controlY, x, y);
+				break;
+			}
+			default:
+				// Unsupported command such as an arc. Keep what was drawn so far.
+				return;
+			}
+			previous = command;
+		}
+	}
+
+	static Matrix parseTransform(String transform) {
+		Matrix result = new Matrix();
+		Matrix step = new Matrix();
+		float[] args = new float[6];
+		int index = 0;
+		while (index < transform.length()) {
+			int open = transform.indexOf('(', index);
+			int close = transform.indexOf(')', open + 1);
+			if (open < 0 || close < 0) {
+				break;
+			}
+			String name = transform.substring(index, open).trim();
+			if (name.startsWith(",")) {
+				name = name.substring(1).trim();
+			}
+			int count = new NumberScanner(transform.substring(open + 1, close)).readNumbers(args);
+			if ("matrix".equals(name) && count == 6) {
+				step.setValues(new float[] {
+						args[0], args[2], args[4],
+						args[1], args[3], args[5],
+						0, 0, 1 });
+				result.preConcat(step);
+			} else if ("translate".equals(name) && count >= 1) {
+				result.preTranslate(args[0], count > 1 ? args[1] : 0);
+			} else if ("scale".equals(name) && count >= 1) {
+				result.preScale(args[0], count > 1 ? args[1] : args[0]);
+			} else if ("rotate".equals(name) && count == 1) {
+				result.preRotate(args[0]);
+			}
+			index = close + 1;
+		}
+		return result;
+	}
+
+	private static int parseColor(String value) {
+		if (value.length() == 4 && value.charAt(0) == '#') {
+			// Expand #rgb to #rrggbb
+			char r = value.charAt(1);
+			char g = value.charAt(2);
+			char b = value.charAt(3);
+			value = new String(new char[] { '#', r, r, g, g, b, b });
+		}
+		try {
+			return Color.parseColor(value);
+		} catch (IllegalArgumentException e) {
+			return Color.BLACK;
+		}
+	}
+
+	private static float parseLength(String value) {
+		if (value == null) {
+			return 0;
+		}
+		float[] result = new float[1];
+		return new NumberScanner(value).readNumbers(result) == 1 ? result[0] : 0;
+	}
+
+	/**
+	 * Reads commands and numbers from svg path data. Numbers may be separated by whitespace,
+	 * commas, a sign or a second decimal point, e.g. "1.5-2.5.5".
+	 */
+	private static final class NumberScanner {
+		private final String _text;
+		private int _index = 0;
+
+		NumberScanner(String text) {
+			_text = text;
+		}
+
+		/**
+		 * @return Next command letter, ' ' if the next token is a number, or 0 at the end.
+		 */
+		char nextCommand() {
+			skipSeparators();
+			if (_index >= _text.length()) {
+				return 0;
+			}
+			char c = _text.charAt(_index);
+			if (Character.isLetter(c) && c != 'e' && c != 'E') {
+				_index++;
+				return c;
+			}
+			return ' ';
+		}
+
+		boolean read(float[] values, int count) {
+			for (int i = 0; i < count; i++) {
+				skipSeparators();
+				if (!readNumber(values, i)) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		int readNumbers(float[] values) {
+			int count = 0;
+			while (count < values.length) {
+				skipSeparators();
+				if (!readNumber(values, count)) {
+					break;
+				}
+				count++;
+			}
+			return count;
+		}
+
+		private void skipSeparators() {
+			while (_index < _text.length()) {
+				char c = _text.charAt(_index);
+				if (c != ',' && !Character.isWhitespace(c)) {
+					break;
+				}
+				_index++;
+			}
+		}
+
+		private boolean readNumber(float[] values, int index) {
+			int start = _index;
+			int length = _text.length();
+			if (_index < length && (_text.charAt(_index) == '-' || _text.charAt(_index) == '+')) {
+				_index++;
+			}
+			boolean seenPoint = false;
+			boolean seenDigit = false;
+			while (_index < length) {
+				char c = _text.charAt(_index);
+				if (c >= '0' && c <= '9') {
+					seenDigit = true;
+				} else if (c == '.' && !seenPoint) {
+					seenPoint = true;
+				} else {
+					break;
+				}
+				_index++;
+			}
+			if (seenDigit && _index < length && (_text.charAt(_index) == 'e' ||
+					_text.charAt(_index) == 'E')) {
+				int exponent = _index + 1;
+				if (exponent < length && (_text.charAt(exponent) == '-' ||
+						_text.charAt(exponent) == '+')) {
+					exponent++;
+				}
+				if (exponent < length && Character.isDigit(_text.charAt(exponent))) {
+					_index = exponent;
+					while (_index < length && Character.isDigit(_text.charAt(_index))) {
+						_index++;
+					}
+				}
+			}
+			if (!seenDigit) {
+				_index = start;
+				return false;
+			}
+			try {
+				values[index] = Float.parseFloat(_text.substring(start, _index));
+			} catch (NumberFormatException e) {
+				_index = start;
+				return false;
+			}
+			return true;
+		}
+	}
+}
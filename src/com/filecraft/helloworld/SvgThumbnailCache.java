@@ -0,0 +1,202 @@
+package com.filecraft.helloworld;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.res.AssetFileDescriptor;
+import android.content.res.Resources;
+import android.graphics.Bitmap;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+
+/**
+ * Disk cache of svg resources rasterized to png or webp. Each svg is rendered at most once per
+ * size bucket and apk version, after which opening a thumbnail is a plain file read.
+ */
+public final class SvgThumbnailCache {
+
+	private static final String TAG = SvgThumbnailCache.class.getSimpleName();
+
+	public static final String SVG_TYPE = "image/svg+xml";
+	public static final String PNG_TYPE = "image/png";
+	public static final String WEBP_TYPE = "image/webp";
+
+	/**
+	 * Types a svg resource can be converted to, in order of preference.
+	 */
+	public static final String[] THUMBNAIL_TYPES = { PNG_TYPE, WEBP_TYPE };
+
+	/**
+	 * Requested sizes are rounded up to the next bucket so that nearby sizes share a file. The
+	 * buckets are 48dp at every density from mdpi to xxxhdpi, plus larger sizes for galleries.
+	 */
+	private static final int[] SIZE_BUCKETS = { 48, 72, 96, 144, 192, 288, 384, 512 };
+	public static final int DEFAULT_SIZE = 192;
+
+	private static final String CACHE_DIRECTORY = "thumbnails";
+	private static final int WEBP_QUALITY = 90;
+
+	private static volatile SvgThumbnailCache sInstance = null;
+
+	private final File _directory;
+	private final Resources _resources;
+
+	/**
+	 * Suffix shared by every thumbnail of this apk install.
+	 */
+	private final String _versionSuffix;
+	private boolean _pruned = false;
+
+	private SvgThumbnailCache(Context context) {
+		_directory = new File(context.getCacheDir(), CACHE_DIRECTORY);
+		_resources = context.getResources();
+		int versionCode = 0;
+		long updateTime = 0;
+		try {
+			PackageInfo info = context.getPackageManager().getPackageInfo(
+					context.getPackageName(), 0);
+			versionCode = info.versionCode;
+			updateTime = info.lastUpdateTime;
+		} catch (PackageManager.NameNotFoundException e) {
+			Log.w(TAG, "Failed to read package version", e);
+		}
+		_versionSuffix = "-" + versionCode + "-" + updateTime;
+	}
+
+	public static SvgThumbnailCache getInstance(Context context) {
+		SvgThumbnailCache instance = sInstance;
+		if (instance == null) {
+			synchronized (SvgThumbnailCache.class) {
+				instance = sInstance;
+				if (instance == null) {
+					instance = new SvgThumbnailCache(context.getApplicationContext());
+					sInstance = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * @return Smallest size bucket holding the requested size, or DEFAULT_SIZE if size is not
+	 *         positive.
+	 */
+	public static int getSizeBucket(int size) {
+		if (size <= 0) {
+			return DEFAULT_SIZE;
+		}
+		for (int bucket : SIZE_BUCKETS) {
+			if (bucket >= size) {
+				return bucket;
+			}
+		}
+		return SIZE_BUCKETS[SIZE_BUCKETS.length - 1];
+	}
+
+	/**
+	 * @param resourceId Raw svg resource. The caller checks that the resource is served.
+	 * @param size Requested width and height in pixels, rounded up to a size bucket.
+	 * @param mimeType One of THUMBNAIL_TYPES.
+	 */
+	public AssetFileDescriptor open(int resourceId, int size, String mimeType)
+			throws FileNotFoundException {
+		File file = getFile(resourceId, getSizeBucket(size), mimeType);
+		boolean cached = file.exists();
+		QueryStats.recordCache(QueryStats.CACHE_THUMBNAIL, cached);
+		if (!cached) {
+			boolean traced = QueryTrace.beginSection("FileCraft:rasterize");
+			try {
+				rasterize(resourceId, getSizeBucket(size), mimeType, file);
+			} finally {
+				QueryTrace.endSection(traced);
+			}
+		}
+		ParcelFileDescriptor fd = ParcelFileDescriptor.open(file,
+				ParcelFileDescriptor.MODE_READ_ONLY);
+		return new AssetFileDescriptor(fd, 0, file.length());
+	}
+
+	private File getFile(int resourceId, int bucket, String mimeType) {
+		String extension = WEBP_TYPE.equals(mimeType) ? ".webp" : ".png";
+		return new File(_directory, resourceId + "-" + bucket + _versionSuffix + extension);
+	}
+
+	/**
+	 * Renders the thumbnail into a temporary file and renames it into place, so concurrent
+	 * readers never see a partial file. Serialized so that each thumbnail is rendered once.
+	 */
+	private synchronized void rasterize(int resourceId, int bucket, String mimeType, File file)
+			throws FileNotFoundException {
+		if (file.exists()) {
+			return;
+		}
+		if (!_directory.isDirectory() && !_directory.mkdirs()) {
+			throw new FileNotFoundException("Failed to create " + _directory);
+		}
+		if (!_pruned) {
+			pruneOldVersions();
+			_pruned = true;
+		}
+		long start = System.nanoTime();
+		File temp = new File(_directory, file.getName() + ".tmp");
+		Bitmap bitmap = null;
+		try {
+			InputStream in = _resources.openRawResource(resourceId);
+			try {
+				bitmap = SvgRasterizer.rasterize(in, bucket);
+			} finally {
+				in.close();
+			}
+			OutputStream out = new FileOutputStream(temp);
+			try {
+				boolean webp = WEBP_TYPE.equals(mimeType);
+				if (!bitmap.compress(webp ? Bitmap.CompressFormat.WEBP : Bitmap.CompressFormat.PNG,
+						webp ? WEBP_QUALITY : 100, out)) {
+					throw new IOException("Failed to compress bitmap");
+				}
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			temp.delete();
+			throw new FileNotFoundException("Failed to rasterize resource " + resourceId + ": " + e);
+		} finally {
+			if (bitmap != null) {
+				bitmap.recycle();
+			}
+		}
+		if (!temp.renameTo(file)) {
+			temp.delete();
+			throw new FileNotFoundException("Failed to rasterize resource " + resourceId);
+		}
+		if (Log.isLoggable(TAG, Log.VERBOSE)) {
+			Log.v(TAG, "Rasterized " + file.getName() + " in "
+					+ (System.nanoTime() - start) / 1000 + "us");
+		}
+	}
+
+	/**
+	 * Deletes thumbnails rendered by an earlier install of the apk.
+	 */
+	private void pruneOldVersions() {
+		File[] files = _directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		for (File file : files) {
+			String name = file.getName();
+			int extension = name.lastIndexOf('.');
+			if (extension < 0 || !name.regionMatches(extension - _versionSuffix.length(),
+					_versionSuffix, 0, _versionSuffix.length())) {
+				file.delete();
+			}
+		}
+	}
+}
@@ -0,0 +1,224 @@
+package com.filecraft.helloworld;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+
+import android.database.Cursor;
+import android.os.Bundle;
+
+import com.filecraft.helloworld.FileCraftContract.GalleryTable;
+import com.filecraft.helloworld.FileCraftContract.GridTable;
+import com.filecraft.helloworld.FileCraftContract.GridTable.GridActionType;
+import com.filecraft.helloworld.FileCraftContract.ListTable;
+import com.filecraft.helloworld.FileCraftContract.ListTable.ListActionType;
+import com.filecraft.helloworld.FileCraftContract.NavigationTree;
+import com.filecraft.helloworld.FileCraftContract.QuizTable;
+import com.filecraft.helloworld.FileCraftContract.ViewTable;
+
+/**
+ * Answers NavigationTree.METHOD_FETCH_TREE calls. The tree is read from one CatalogSnapshot, so
+ * every node is of the same generation, and packed into parallel arrays so that the Bundle
+ * holds a few arrays instead of a Bundle per row.
+ */
+final class TreeFetcher {
+
+	private TreeFetcher() {
+	}
+
+	/**
+	 * @param authority Authority of the provider called, which content paths are moved to.
+	 * @param actionId Action id of the root, or null or empty for the list table.
+	 * @param extras Optional NavigationTree.EXTRA_ROOT_TABLE and NavigationTree.EXTRA_DEPTH.
+	 * @throws IllegalArgumentException if the root table or action id is unknown.
+	 */
+	static Bundle fetch(String authority, String actionId, Bundle extras) {
+		String rootTable = ListTable.TABLE_NAME;
+		int maxDepth = Integer.MAX_VALUE;
+		if (actionId != null && actionId.length() > 0) {
+			rootTable = GridTable.TABLE_NAME;
+		}
+		if (extras != null) {
+			String table = extras.getString(NavigationTree.EXTRA_ROOT_TABLE);
+			if (table != null && actionId != null && actionId.length() > 0) {
+				rootTable = table;
+			}
+			maxDepth = extras.getInt(NavigationTree.EXTRA_DEPTH, maxDepth);
+		}
+		CatalogSnapshot snapshot = CatalogSnapshot.getInstance();
+		CatalogTable root = snapshot.getTable(rootTable, actionId);
+		if (root == null || maxDepth < 0) {
+			throw new IllegalArgumentException("Invalid tree root: table=" + rootTable +
+					", actionId=" + actionId + ", depth=" + maxDepth);
+		}
+
+		// Breadth first walk, numbering each table the first time it is reached
+		ArrayList<Node> nodes = new ArrayList<Node>();
+		HashMap<String, Integer> nodeIndexes = new HashMap<String, Integer>();
+		if (actionId == null || rootTable.equals(ListTable.TABLE_NAME)) {
+			actionId = "";
+		}
+		nodes.add(new Node(rootTable, actionId, root, 0));
+		nodeIndexes.put(getKey(rootTable, actionId), 0);
+		int rowCount = 0;
+		for (int i = 0; i < nodes.size(); i++) {
+			Node node = nodes.get(i);
+			CatalogTable table = node.table;
+			node.firstRow = rowCount;
+			node.children = new int[table.getRowCount()];
+			for (int row = 0; row < node.children.length; row++) {
+				node.children[row] = -1;
+				String childTable = getChildTable(node.tableName, table, row);
+				if (childTable == null) {
+					continue;
+				}
+				String childActionId = table.getString(CatalogColumn.ACTION_ID, row);
+				String key = getKey(childTable, childActionId);
+				Integer index = nodeIndexes.get(key);
+				if (index == null && node.depth < maxDepth) {
+					CatalogTable child = snapshot.getTable(childTable, childActionId);
+					if (child != null) {
+						index = nodes.size();
+						nodes.add(new Node(childTable, childActionId, child, node.depth + 1));
+						nodeIndexes.put(key, index);
+					}
+				}
+				if (index != null) {
+					node.children[row] = index;
+				}
+			}
+			rowCount += table.getRowCount();
+		}
+		return pack(nodes, rowCount, snapshot.getGeneration(), authority);
+	}
+
+	private static Bundle pack(ArrayList<Node> nodes, int rowCount, int generation,
+			String authority) {
+		int nodeCount = nodes.size();
+		String[] tableNames = new String[nodeCount];
+		String[] actionIds = new String[nodeCount];
+		int[] firstRows = new int[nodeCount];
+		int[] rowCounts = new int[nodeCount];
+		int[] depths = new int[nodeCount];
+		int[] children = new int[rowCount];
+		for (int i = 0; i < nodeCount; i++) {
+			Node node = nodes.get(i);
+			tableNames[i] = node.tableName;
+			actionIds[i] = node.actionId;
+			firstRows[i] = node.firstRow;
+			rowCounts[i] = node.children.length;
+			depths[i] = node.depth;
+			System.arraycopy(node.children, 0, children, node.firstRow, node.children.length);
+		}
+		Bundle bundle = new Bundle();
+		bundle.putStringArray(NavigationTree.KEY_NODE_TABLE, tableNames);
+		bundle.putStringArray(NavigationTree.KEY_NODE_ACTION_ID, actionIds);
+		bundle.putIntArray(NavigationTree.KEY_NODE_FIRST_ROW, firstRows);
+		bundle.putIntArray(NavigationTree.KEY_NODE_ROW_COUNT, rowCounts);
+		bundle.putIntArray(NavigationTree.KEY_NODE_DEPTH, depths);
+		bundle.putIntArray(NavigationTree.KEY_ROW_CHILD, children);
+		bundle.putInt(FileCraftContract.EXTRA_GENERATION, generation);
+
+		for (int columnId = 0; columnId < CatalogColumn.COUNT; columnId++) {
+			if (columnId == CatalogColumn.ID || columnId == CatalogColumn.DELETED ||
+					!hasColumn(nodes, columnId)) {
+				// _id is the row's index within its node, and tree rows are never tombstones
+				continue;
+			}
+			String name = CatalogSchema.getName(columnId);
+			if (CatalogColumn.getType(columnId) == Cursor.FIELD_TYPE_INTEGER) {
+				int[] values = new int[rowCount];
+				for (Node node : nodes) {
+					if (node.table.hasColumn(columnId)) {
+						for (int row = 0; row < node.children.length; row++) {
+							values[node.firstRow + row] = (int) node.table.getLong(columnId, row);
+						}
+					}
+				}
+				bundle.putIntArray(name, values);
+			} else {
+				String[] values = new String[rowCount];
+				String pathAuthority = columnId == CatalogColumn.CONTENT_PATH ? authority : null;
+				for (Node node : nodes) {
+					if (node.table.hasColumn(columnId)) {
+						for (int row = 0; row < node.children.length; row++) {
+							values[node.firstRow + row] = TutorialUtils.getContentPath(
+									node.table.getString(columnId, row), pathAuthority);
+						}
+					}
+				}
+				bundle.putStringArray(name, values);
+			}
+		}
+		return bundle;
+	}
+
+	private static boolean hasColumn(ArrayList<Node> nodes, int columnId) {
+		for (Node node : nodes) {
+			if (node.table.hasColumn(columnId)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return Table opened by the row's action, or null if the row has no action that opens a
+	 *         table.
+	 */
+	static String getChildTable(String tableName, CatalogTable table, int row) {
+		if (!table.hasColumn(CatalogColumn.ACTION_TYPE) ||
+				!table.hasColumn(CatalogColumn.ACTION_ID)) {
+			return null;
+		}
+		return getChildTable(tableName, (int) table.getLong(CatalogColumn.ACTION_TYPE, row));
+	}
+
+	/**
+	 * @return Table opened by an action of a row of the table, or null if the action does not
+	 *         open a table.
+	 */
+	static String getChildTable(String tableName, int actionType) {
+		if (ListTable.TABLE_NAME.equals(tableName)) {
+			return ListActionType.getType(actionType) == ListActionType.GRID ?
+					GridTable.TABLE_NAME : null;
+		} else if (GridTable.TABLE_NAME.equals(tableName)) {
+			GridActionType type = GridActionType.getType(actionType);
+			if (type == null) {
+				return null;
+			}
+			switch (type) {
+			case GALLERY:
+				return GalleryTable.TABLE_NAME;
+			case VIEW:
+				return ViewTable.TABLE_NAME;
+			case GRID:
+				return GridTable.TABLE_NAME;
+			case QUIZ:
+				return QuizTable.TABLE_NAME;
+			default:
+				return null;
+			}
+		}
+		return null;
+	}
+
+	private static String getKey(String tableName, String actionId) {
+		return tableName + '/' + actionId;
+	}
+
+	private static final class Node {
+		final String tableName;
+		final String actionId;
+		final CatalogTable table;
+		final int depth;
+		int firstRow;
+		int[] children;
+
+		Node(String tableName, String actionId, CatalogTable table, int depth) {
+			this.tableName = tableName;
+			this.actionId = actionId;
+			this.table = table;
+			this.depth = depth;
+		}
+	}
+}
@@ -1,16 +1,206 @@
 package com.filecraft.helloworld;
 
+import java.util.HashMap;
+
+import android.content.Context;
+import android.content.res.Configuration;
 import android.content.res.Resources;
+import android.util.SparseArray;
+
+import com.filecraft.helloworld.FileCraftContract.Authority;
+import com.filecraft.helloworld.FileCraftContract.ResourceFile;
+import com.filecraft.helloworld.FileCraftContract.WebImage;
 
 public class TutorialUtils {
-	private static final String PACKAGE_NAME = MyApplication.getAppContext().getPackageName();
-	private static final Resources RESOURCES = MyApplication.getAppContext().getResources();
 
+	/**
+	 * Resources of the application, set by init(). Not read in a static initializer, since the
+	 * providers are created before MyApplication.onCreate() sets its context.
+	 */
+	private static volatile Resources sResources = null;
+
+	/**
+	 * Authority of the provider paths stored in the catalog tables. The tables are shared by
+	 * every provider in the process, so each provider moves the paths to its own authority with
+	 * getContentPath() as it serves them.
+	 */
+	static final String CATALOG_AUTHORITY = Authority.CUSTOM_CURSOR_A.name;
+	static final String CATALOG_PATH_PREFIX = "content://" + CATALOG_AUTHORITY + "/";
+
+	private static final String RESOURCE_PATH_PREFIX =
+			CATALOG_PATH_PREFIX + ResourceFile.PATH + "/";
+
+	/**
+	 * Catalog paths moved to each other authority, by catalog path. Built once per path, since
+	 * the catalog only holds a few distinct provider paths.
+	 */
+	private static final HashMap<String, HashMap<String, String>> AUTHORITY_PATHS =
+			new HashMap<String, HashMap<String, String>>();
+
+	/**
+	 * Provider paths of packaged files by resource id, built once per id. Paths do not depend on
+	 * the configuration, so they are kept for the life of the process.
+	 */
+	private static final SparseArray<String> RESOURCE_PATHS = new SparseArray<String>();
+
+	/**
+	 * Strings resolved for the current configuration. Replaced by an empty table when the
+	 * configuration changes, so a string of the old configuration is never returned once
+	 * reloadIfConfigurationChanged() has returned.
+	 */
+	private static volatile StringTable sStrings = null;
+
+	/**
+	 * Anchors resource lookups to the context of the first component created in the process.
+	 * Each provider calls this from onCreate() with its own context. Later calls do nothing.
+	 */
+	public static void init(Context context) {
+		if (sResources != null) {
+			return;
+		}
+		synchronized (TutorialUtils.class) {
+			if (sResources == null) {
+				Resources resources = context.getResources();
+				sStrings = new StringTable(resources.getConfiguration());
+				sResources = resources;
+			}
+		}
+	}
+
+	/**
+	 * @return Catalog path of a packaged file, to be moved to the serving provider's authority
+	 *         with getContentPath(). Served by CustomCursorProviderA.openAssetFile().
+	 */
 	public static String getResourceFilePath(int resourceId) {
-		return "android.resource://" + PACKAGE_NAME + "/" + resourceId;
+		synchronized (RESOURCE_PATHS) {
+			String path = RESOURCE_PATHS.get(resourceId);
+			if (path == null) {
+				path = RESOURCE_PATH_PREFIX + resourceId;
+				RESOURCE_PATHS.put(resourceId, path);
+				QueryTrace.setCounter("FileCraft:resourcePathCacheSize", RESOURCE_PATHS.size());
+			}
+			return path;
+		}
 	}
 
+	/**
+	 * @return Catalog path of a cached web image, to be moved to the serving provider's authority
+	 *         with getContentPath(). Served by CustomCursorProviderA.openFile().
+	 */
+	public static String getWebImagePath(int index) {
+		return CATALOG_PATH_PREFIX + WebImage.PATH + "/" + index;
+	}
+
+	/**
+	 * @return The catalog path as served by the authority: a path of this app's providers points
+	 *         at the authority instead of CATALOG_AUTHORITY. Other paths are returned as is.
+	 */
+	public static String getContentPath(String path, String authority) {
+		if (!movesPaths(authority) || path == null || !path.startsWith(CATALOG_PATH_PREFIX)) {
+			return path;
+		}
+		synchronized (AUTHORITY_PATHS) {
+			HashMap<String, String> paths = AUTHORITY_PATHS.get(authority);
+			if (paths == null) {
+				paths = new HashMap<String, String>();
+				AUTHORITY_PATHS.put(authority, paths);
+			}
+			String movedPath = paths.get(path);
+			if (movedPath == null) {
+				movedPath = "content://" + authority + "/" +
+						path.substring(CATALOG_PATH_PREFIX.length());
+				paths.put(path, movedPath);
+			}
+			return movedPath;
+		}
+	}
+
+	/**
+	 * @return True if catalog paths served by the authority must be moved with getContentPath().
+	 *         False for CATALOG_AUTHORITY and for authorities that are not the app's.
+	 */
+	public static boolean movesPaths(String authority) {
+		if (CATALOG_AUTHORITY.equals(authority)) {
+			return false;
+		}
+		for (Authority candidate : Authority.values()) {
+			if (candidate.name.equals(authority)) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * @return Bytes a moved catalog path may take up beyond the catalog path, for sizing cursor
+	 *         windows. Authorities are ASCII, so characters and UTF-8 bytes are the same.
+	 */
+	public static int getMovedPathExtraBytes(String authority) {
+		if (!movesPaths(authority)) {
+			return 0;
+		}
+		return Math.max(0, authority.length() - CATALOG_AUTHORITY.length());
+	}
+
+	/**
+	 * @throws IllegalStateException if no provider has been created and MyApplication.onCreate()
+	 *         has not run yet.
+	 */
+	public static Resources getResources() {
+		Resources resources = sResources;
+		if (resources == null) {
+			Context context = MyApplication.getAppContext();
+			if (context == null) {
+				throw new IllegalStateException("TutorialUtils.init() has not been called");
+			}
+			init(context);
+			resources = sResources;
+		}
+		return resources;
+	}
+
+	/**
+	 * @return Localized string, read from the resources on the first call for the id in the
+	 *         current configuration.
+	 */
 	public static String getString(int stringId) {
-		return RESOURCES.getString(stringId);
+		Resources resources = getResources();
+		StringTable strings = sStrings;
+		synchronized (strings) {
+			String value = strings.values.get(stringId);
+			if (value == null) {
+				boolean traced = QueryTrace.beginSection("FileCraft:getString");
+				try {
+					value = resources.getString(stringId);
+				} finally {
+					QueryTrace.endSection(traced);
+				}
+				strings.values.put(stringId, value);
+				QueryTrace.setCounter("FileCraft:stringCacheSize", strings.values.size());
+			}
+			return value;
+		}
+	}
+
+	/**
+	 * Drops the resolved strings if the configuration changed since they were read. Called from
+	 * ContentProvider.onConfigurationChanged() before anything is rebuilt from the strings.
+	 */
+	public static void reloadIfConfigurationChanged() {
+		Configuration configuration = getResources().getConfiguration();
+		synchronized (TutorialUtils.class) {
+			if (sStrings.configuration.diff(configuration) != 0) {
+				sStrings = new StringTable(configuration);
+			}
+		}
+	}
+
+	private static final class StringTable {
+		final Configuration configuration;
+		final SparseArray<String> values = new SparseArray<String>();
+
+		StringTable(Configuration configuration) {
+			this.configuration = new Configuration(configuration);
+		}
 	}
 }
@@ -0,0 +1,99 @@
+package com.filecraft.helloworld;
+
+import java.util.List;
+
+import android.net.Uri;
+
+import com.filecraft.helloworld.FileCraftContract.Authority;
+import com.filecraft.helloworld.FileCraftContract.ResourceFile;
+import com.filecraft.helloworld.FileCraftContract.StatsTable;
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+import com.filecraft.helloworld.FileCraftContract.WebImage;
+
+/**
+ * Routes query uris to their UriMatcherEntry. Replaces FileCraftContract.URI_MATCHER for the
+ * providers in this app: UriMatcher.match() splits the path into a new list of segments on every
+ * call, while the PathRouter underneath hashes the table name in place and parses the position
+ * segment without allocating.
+ *
+ * Uris are expected in the form content://<authority>/<table>[/<position>],
+ * content://<authority>/search_suggest_query/<query>, or
+ * content://<authority>/resource/<resource id> and content://<authority>/web_image/<index> for
+ * files. content://<authority>/stats is checked separately by isStatsUri().
+ */
+public final class UriRouter {
+
+	public static final int NO_POSITION = PathRouter.NO_POSITION;
+
+	private static final PathRouter<UriMatcherEntry> ROUTER;
+	static {
+		Authority[] authorities = Authority.values();
+		String[] names = new String[authorities.length];
+		for (int i = 0; i < authorities.length; i++) {
+			names[i] = authorities[i].name;
+		}
+		ROUTER = new PathRouter<UriMatcherEntry>(names);
+		for (UriMatcherEntry entry : UriMatcherEntry.values()) {
+			if (entry.isItem()) {
+				ROUTER.addItemEntry(entry.getTableName(), entry);
+			} else {
+				ROUTER.addDirEntry(entry.getTableName(), entry, entry.hasTextSegment());
+			}
+		}
+	}
+
+	private UriRouter() {
+	}
+
+	/**
+	 * @return Matching entry or null if the uri does not belong to one of the tables.
+	 */
+	public static UriMatcherEntry match(Uri uri) {
+		return ROUTER.match(uri.getAuthority(), uri.getPath());
+	}
+
+	/**
+	 * @return Row position of an item uri, or NO_POSITION if the uri does not end with one.
+	 */
+	public static int getPosition(Uri uri) {
+		return PathRouter.getPosition(uri.getPath());
+	}
+
+	/**
+	 * @return Decoded text segment of a uri such as a search suggestion query, or an empty string
+	 *         if the uri has none.
+	 */
+	public static String getTextSegment(Uri uri) {
+		List<String> segments = uri.getPathSegments();
+		return segments.size() > 1 ? segments.get(1) : "";
+	}
+
+	/**
+	 * @return Resource id of a resource file uri, or NO_POSITION if the uri is not one.
+	 */
+	public static int getResourceId(Uri uri) {
+		return ROUTER.getFileId(uri.getAuthority(), uri.getPath(), ResourceFile.PATH);
+	}
+
+	/**
+	 * @return Index of a web image uri, or NO_POSITION if the uri is not one.
+	 */
+	public static int getWebImageIndex(Uri uri) {
+		return ROUTER.getFileId(uri.getAuthority(), uri.getPath(), WebImage.PATH);
+	}
+
+	/**
+	 * @return True if the uri is FileCraftContract.StatsTable of one of the app's authorities.
+	 */
+	public static boolean isStatsUri(Uri uri) {
+		return ROUTER.isPath(uri.getAuthority(), uri.getPath(), StatsTable.TABLE_NAME);
+	}
+
+	/**
+	 * @return MIME type of the table the uri belongs to, or null if it matches no table.
+	 */
+	public static String getType(Uri uri) {
+		UriMatcherEntry entry = match(uri);
+		return entry == null ? null : entry.mimeType;
+	}
+}
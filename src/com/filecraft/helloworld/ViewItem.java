@@ -12,12 +12,7 @@ public class ViewItem {
 		WEB_GITHUB;
 
 		public static ViewItemId getItemId(String actionId) {
-			for (ViewItemId id : ViewItemId.values()) {
-				if (id.name().equals(actionId)) {
-					return id;
-				}
-			}
-			return null;
+			return ActionIdRegistry.getViewItemId(actionId);
 		}
 	}
 
@@ -0,0 +1,463 @@
+package com.filecraft.helloworld;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+
+import android.content.Context;
+import android.os.ParcelFileDescriptor;
+import android.util.Log;
+
+/**
+ * Bounded disk cache of images downloaded over http. Every url is downloaded once no matter how
+ * many rows or clients point at it: concurrent requests for the same url wait on a single fetch,
+ * and later requests are served from disk. Expired entries are revalidated with the ETag and
+ * Last-Modified validators of the cached response, and the stale copy is served if the server
+ * cannot be reached.
+ *
+ * Each entry is a data file named after the SHA-1 of its url plus a properties file holding the
+ * response headers. The least recently used entries are deleted once the cache exceeds its size.
+ */
+public final class WebImageCache {
+
+	private static final String TAG = WebImageCache.class.getSimpleName();
+
+	private static final String CACHE_DIRECTORY = "web_images";
+	private static final long MAX_CACHE_BYTES = 8 * 1024 * 1024;
+
+	/**
+	 * Freshness of responses without Cache-Control max-age or Expires headers.
+	 */
+	private static final long DEFAULT_MAX_AGE_MS = 10 * 60 * 1000;
+	private static final int CONNECT_TIMEOUT_MS = 10000;
+	private static final int READ_TIMEOUT_MS = 15000;
+
+	private static final String META_SUFFIX = ".meta";
+	private static final String TEMP_SUFFIX = ".tmp";
+	private static final String KEY_URL = "url";
+	private static final String KEY_ETAG = "etag";
+	private static final String KEY_LAST_MODIFIED = "last_modified";
+	private static final String KEY_MIME_TYPE = "mime_type";
+	private static final String KEY_EXPIRES = "expires";
+
+	private static volatile WebImageCache sInstance = null;
+
+	private final File _directory;
+	private final long _maxBytes;
+
+	/**
+	 * Cached entries by key, least recently used first. Guarded by this.
+	 */
+	private final LinkedHashMap<String, Entry> _entries =
+			new LinkedHashMap<String, Entry>(16, 0.75f, true);
+	private final HashMap<String, Fetch> _fetches = new HashMap<String, Fetch>();
+	private long _size = 0;
+	private boolean _loaded = false;
+
+	private static final class Entry {
+		final String url;
+		final String etag;
+		final String lastModified;
+		final String mimeType;
+
+		/**
+		 * Wall clock time in milliseconds after which the entry is revalidated.
+		 */
+		final long expires;
+		final long length;
+
+		Entry(String url, String etag, String lastModified, String mimeType, long expires,
+				long length) {
+			this.url = url;
+			this.etag = etag;
+			this.lastModified = lastModified;
+			this.mimeType = mimeType;
+			this.expires = expires;
+			this.length = length;
+		}
+	}
+
+	/**
+	 * Download in progress. Requests for the same url wait on the latch instead of starting
+	 * their own download.
+	 */
+	private static final class Fetch {
+		final CountDownLatch done = new CountDownLatch(1);
+		IOException error;
+	}
+
+	public WebImageCache(File directory, long maxBytes) {
+		_directory = directory;
+		_maxBytes = maxBytes;
+	}
+
+	public static WebImageCache getInstance(Context context) {
+		WebImageCache instance = sInstance;
+		if (instance == null) {
+			synchronized (WebImageCache.class) {
+				instance = sInstance;
+				if (instance == null) {
+					instance = new WebImageCache(new File(context.getCacheDir(), CACHE_DIRECTORY),
+							MAX_CACHE_BYTES);
+					sInstance = instance;
+				}
+			}
+		}
+		return instance;
+	}
+
+	/**
+	 * @return MIME type sent by the server, or null if the url has not been downloaded yet.
+	 */
+	public synchronized String getMimeType(String url) {
+		load();
+		Entry entry = _entries.get(getKey(url));
+		return entry == null ? null : entry.mimeType;
+	}
+
+	/**
+	 * Opens the cached copy of the url, downloading or revalidating it first if needed. Blocks
+	 * for the duration of the download, so it must not be called from the main thread.
+	 */
+	public ParcelFileDescriptor open(String url) throws FileNotFoundException {
+		String key = getKey(url);
+		Entry entry;
+		Fetch fetch;
+		boolean isFetcher = false;
+		synchronized (this) {
+			load();
+			entry = _entries.get(key);
+			if (entry != null && entry.expires > System.currentTimeMillis()) {
+				QueryStats.recordCache(QueryStats.CACHE_WEB_IMAGE, true);
+				return openEntry(key);
+			}
+			QueryStats.recordCache(QueryStats.CACHE_WEB_IMAGE, false);
+			fetch = _fetches.get(key);
+			if (fetch == null) {
+				fetch = new Fetch();
+				_fetches.put(key, fetch);
+				isFetcher = true;
+			}
+		}
+		if (isFetcher) {
+			try {
+				download(key, url, entry);
+			} catch (IOException e) {
+				fetch.error = e;
+			} finally {
+				synchronized (this) {
+					_fetches.remove(key);
+				}
+				fetch.done.countDown();
+			}
+		} else {
+			try {
+				fetch.done.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new FileNotFoundException("Interrupted while downloading " + url);
+			}
+		}
+		synchronized (this) {
+			if (_entries.get(key) == null) {
+				throw new FileNotFoundException("Failed to download " + url + ": " + fetch.error);
+			}
+			if (fetch.error != null) {
+				Log.w(TAG, "Serving stale copy of " + url, fetch.error);
+			}
+			return openEntry(key);
+		}
+	}
+
+	/**
+	 * Deletes every cached entry. Downloads in progress still complete.
+	 */
+	public synchronized void clear() {
+		load();
+		for (String key : _entries.keySet()) {
+			deleteFiles(key);
+		}
+		_entries.clear();
+		_size = 0;
+		QueryTrace.setCounter("FileCraft:webImageCacheBytes", _size);
+	}
+
+	private ParcelFileDescriptor openEntry(String key) throws FileNotFoundException {
+		File file = new File(_directory, key);
+		// The file's modified time keeps the LRU order across restarts
+		file.setLastModified(System.currentTimeMillis());
+		return ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+	}
+
+	private void download(String key, String url, Entry cached) throws IOException {
+		long start = System.nanoTime();
+		HttpURLConnection connection = (HttpURLConnection) new URL(url).openConnection();
+		boolean traced = QueryTrace.beginSection("FileCraft:download");
+		try {
+			connection.setConnectTimeout(CONNECT_TIMEOUT_MS);
+			connection.setReadTimeout(READ_TIMEOUT_MS);
+			connection.setUseCaches(false);
+			if (cached != null) {
+				if (cached.etag != null) {
+					connection.setRequestProperty("If-None-Match", cached.etag);
+				}
+				if (cached.lastModified != null) {
+					connection.setRequestProperty("If-Modified-Since", cached.lastModified);
+				}
+			}
+			int status = connection.getResponseCode();
+			long expires = getExpires(connection);
+			if (status == HttpURLConnection.HTTP_NOT_MODIFIED && cached != null) {
+				put(key, new Entry(url, cached.etag, cached.lastModified, cached.mimeType, expires,
+						cached.length), null);
+			} else if (status == HttpURLConnection.HTTP_OK) {
+				File temp = new File(_directory, key + TEMP_SUFFIX);
+				long length = writeBody(connection, temp);
+				put(key, new Entry(url, connection.getHeaderField("ETag"),
+						connection.getHeaderField("Last-Modified"), getMimeType(connection), expires,
+						length), temp);
+			} else {
+				throw new IOException("Unexpected response " + status);
+			}
+			if (Log.isLoggable(TAG, Log.VERBOSE)) {
+				Log.v(TAG, "Fetched " + url + " (" + status + ") in "
+						+ (System.nanoTime() - start) / 1000 + "us");
+			}
+		} finally {
+			connection.disconnect();
+			QueryTrace.endSection(traced);
+		}
+	}
+
+	private long writeBody(HttpURLConnection connection, File temp) throws IOException {
+		if (!_directory.isDirectory() && !_directory.mkdirs()) {
+			throw new IOException("Failed to create " + _directory);
+		}
+		long length = 0;
+		InputStream in = connection.getInputStream();
+		try {
+			OutputStream out = new FileOutputStream(temp);
+			try {
+				byte[] buffer = new byte[8192];
+				int read;
+				while ((read = in.read(buffer)) != -1) {
+					out.write(buffer, 0, read);
+					length += read;
+				}
+			} finally {
+				out.close();
+			}
+		} catch (IOException e) {
+			temp.delete();
+			throw e;
+		} finally {
+			in.close();
+		}
+		return length;
+	}
+
+	/**
+	 * Stores the entry, moving the downloaded body into place if there is one, and evicts the
+	 * least recently used entries until the cache fits its size.
+	 */
+	private synchronized void put(String key, Entry entry, File body) throws IOException {
+		if (body == null && !new File(_directory, key).exists()) {
+			// Evicted while being revalidated
+			throw new IOException("Cached copy of " + entry.url + " was deleted");
+		}
+		try {
+			writeMeta(key, entry);
+		} catch (IOException e) {
+			if (body != null) {
+				body.delete();
+			}
+			throw e;
+		}
+		if (body != null && !body.renameTo(new File(_directory, key))) {
+			body.delete();
+			throw new IOException("Failed to store " + entry.url);
+		}
+		Entry previous = _entries.put(key, entry);
+		if (previous != null) {
+			_size -= previous.length;
+		}
+		_size += entry.length;
+		Iterator<Map.Entry<String, Entry>> iterator = _entries.entrySet().iterator();
+		while (_size > _maxBytes && iterator.hasNext()) {
+			Map.Entry<String, Entry> eldest = iterator.next();
+			if (eldest.getKey().equals(key)) {
+				continue;
+			}
+			_size -= eldest.getValue().length;
+			deleteFiles(eldest.getKey());
+			iterator.remove();
+		}
+		QueryTrace.setCounter("FileCraft:webImageCacheBytes", _size);
+	}
+
+	/**
+	 * Reads the entries left by earlier processes, least recently used first.
+	 */
+	private void load() {
+		if (_loaded) {
+			return;
+		}
+		_loaded = true;
+		File[] files = _directory.listFiles();
+		if (files == null) {
+			return;
+		}
+		ArrayList<File> dataFiles = new ArrayList<File>(files.length / 2);
+		for (File file : files) {
+			String name = file.getName();
+			if (name.endsWith(TEMP_SUFFIX)) {
+				file.delete();
+			} else if (!name.endsWith(META_SUFFIX)) {
+				dataFiles.add(file);
+			}
+		}
+		Collections.sort(dataFiles, new Comparator<File>() {
+			@Override
+			public int compare(File lhs, File rhs) {
+				long lhsTime = lhs.lastModified();
+				long rhsTime = rhs.lastModified();
+				return lhsTime < rhsTime ? -1 : (lhsTime == rhsTime ? 0 : 1);
+			}
+		});
+		for (File file : dataFiles) {
+			String key = file.getName();
+			Entry entry = readMeta(key, file.length());
+			if (entry == null) {
+				deleteFiles(key);
+			} else {
+				_entries.put(key, entry);
+				_size += entry.length;
+			}
+		}
+		QueryTrace.setCounter("FileCraft:webImageCacheBytes", _size);
+	}
+
+	private Entry readMeta(String key, long length) {
+		Properties properties = new Properties();
+		try {
+			InputStream in = new FileInputStream(new File(_directory, key + META_SUFFIX));
+			try {
+				properties.load(in);
+			} finally {
+				in.close();
+			}
+			return new Entry(properties.getProperty(KEY_URL),
+					properties.getProperty(KEY_ETAG),
+					properties.getProperty(KEY_LAST_MODIFIED),
+					properties.getProperty(KEY_MIME_TYPE),
+					Long.parseLong(properties.getProperty(KEY_EXPIRES, "0")),
+					length);
+		} catch (IOException e) {
+			return null;
+		} catch (NumberFormatException e) {
+			return null;
+		}
+	}
+
+	private void writeMeta(String key, Entry entry) throws IOException {
+		if (!_directory.isDirectory() && !_directory.mkdirs()) {
+			throw new IOException("Failed to create " + _directory);
+		}
+		Properties properties = new Properties();
+		properties.setProperty(KEY_URL, entry.url);
+		if (entry.etag != null) {
+			properties.setProperty(KEY_ETAG, entry.etag);
+		}
+		if (entry.lastModified != null) {
+			properties.setProperty(KEY_LAST_MODIFIED, entry.lastModified);
+		}
+		if (entry.mimeType != null) {
+			properties.setProperty(KEY_MIME_TYPE, entry.mimeType);
+		}
+		properties.setProperty(KEY_EXPIRES, String.valueOf(entry.expires));
+		File temp = new File(_directory, key + META_SUFFIX + TEMP_SUFFIX);
+		OutputStream out = new FileOutputStream(temp);
+		try {
+			properties.store(out, null);
+		} finally {
+			out.close();
+		}
+		if (!temp.renameTo(new File(_directory, key + META_SUFFIX))) {
+			temp.delete();
+			throw new IOException("Failed to store headers of " + entry.url);
+		}
+	}
+
+	private void deleteFiles(String key) {
+		new File(_directory, key).delete();
+		new File(_directory, key + META_SUFFIX).delete();
+	}
+
+	/**
+	 * @return Time until which the response may be served without revalidation. Responses marked
+	 *         no-cache or no-store are revalidated on every request.
+	 */
+	private static long getExpires(HttpURLConnection connection) {
+		long now = System.currentTimeMillis();
+		String cacheControl = connection.getHeaderField("Cache-Control");
+		if (cacheControl != null) {
+			for (String directive : cacheControl.split(",")) {
+				directive = directive.trim();
+				if (directive.equals("no-cache") || directive.equals("no-store")) {
+					return 0;
+				} else if (directive.startsWith("max-age=")) {
+					try {
+						return now + Long.parseLong(directive.substring(8).trim()) * 1000;
+					} catch (NumberFormatException e) {
+						// Fall through to the other headers
+					}
+				}
+			}
+		}
+		long expiration = connection.getExpiration();
+		return expiration > 0 ? expiration : now + DEFAULT_MAX_AGE_MS;
+	}
+
+	private static String getMimeType(HttpURLConnection connection) {
+		String type = connection.getContentType();
+		if (type == null) {
+			return null;
+		}
+		int parameters = type.indexOf(';');
+		return (parameters < 0 ? type : type.substring(0, parameters)).trim();
+	}
+
+	private static String getKey(String url) {
+		try {
+			MessageDigest digest = MessageDigest.getInstance("SHA-1");
+			byte[] hash = digest.digest(url.getBytes("UTF-8"));
+			StringBuilder builder = new StringBuilder(hash.length * 2);
+			for (byte b : hash) {
+				builder.append(Character.forDigit((b >> 4) & 0xF, 16));
+				builder.append(Character.forDigit(b & 0xF, 16));
+			}
+			return builder.toString();
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException(e);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
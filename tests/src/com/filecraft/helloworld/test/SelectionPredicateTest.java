@@ -0,0 +1,119 @@
+package com.filecraft.helloworld.test;
+
+import java.util.Arrays;
+
+import junit.framework.TestCase;
+
+import com.filecraft.helloworld.CatalogColumn;
+import com.filecraft.helloworld.CatalogTable;
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+import com.filecraft.helloworld.SelectionPredicate;
+
+/**
+ * Checks SelectionPredicate against results worked out with sqlite for the same rows.
+ */
+public class SelectionPredicateTest extends TestCase {
+
+	private static final String[] TEXTS = { "Hello World", null, "hello", "abc%", "Zed" };
+	private static final int[] CONTENT_TYPES = { 4, 1, 4, 2, 4 };
+
+	private CatalogTable _table;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		CatalogTable.Builder builder = new CatalogTable.Builder(TEXTS.length);
+		for (int row = 0; row < TEXTS.length; row++) {
+			builder.setString(CatalogColumn.TEXT, row, TEXTS[row]);
+			builder.setInt(CatalogColumn.CONTENT_TYPE, row, CONTENT_TYPES[row]);
+		}
+		_table = builder.build();
+	}
+
+	public void testComparisons() {
+		assertRows("content_type = ?", new String[] { "4" }, 0, 2, 4);
+		assertRows("content_type IN (?, 2)", new String[] { "1" }, 1, 3);
+		assertRows("NOT text = 'hello'", null, 0, 3, 4);
+		assertRows("(text > 'a' AND content_type <> 4) OR text == 'Zed'", null, 3, 4);
+		// An integer is less than any text
+		assertRows("content_type < 'x'", null, 0, 1, 2, 3, 4);
+	}
+
+	public void testLike() {
+		assertRows("text LIKE ?", new String[] { "hel%" }, 0, 2);
+		assertRows("text like '%o%' or content_type = 2", null, 0, 2, 3);
+		assertRows("text NOT LIKE 'h_llo'", null, 0, 3, 4);
+	}
+
+	public void testNull() {
+		assertRows("text IS NULL", null, 1);
+		assertRows("text IS NOT NULL AND content_type = 4", null, 0, 2, 4);
+	}
+
+	public void testSql() {
+		SelectionPredicate predicate = SelectionPredicate.compile(
+				"content_type IN (?, 2) AND text LIKE 'a%'");
+		StringBuilder sql = new StringBuilder();
+		predicate.appendSql(sql, 3, null);
+		assertEquals("((content_type IN (?3,?4)) AND (text LIKE ?5))", sql.toString());
+		assertTrue(Arrays.equals(new String[] { "1", "2", "a%" },
+				predicate.getOperands(new String[] { "ACTION_ID", "1" }, 1)));
+	}
+
+	public void testCompiledSelectionIsCached() {
+		assertSame(SelectionPredicate.compile("text = ?"), SelectionPredicate.compile("text = ?"));
+		assertNull(SelectionPredicate.compile(" "));
+	}
+
+	public void testInvalidSelections() {
+		for (String selection : new String[] { "unknown = ?", "text = ", "text = ? AND",
+				"text NOT = 1", "text = 'x", "text = ?; DROP TABLE catalog" }) {
+			try {
+				SelectionPredicate.compile(selection);
+				fail("Accepted " + selection);
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+		try {
+			SelectionPredicate.compile("view_uri = ?").checkColumns(UriMatcherEntry.GRID);
+			fail("Accepted a column the grid does not serve");
+		} catch (IllegalArgumentException e) {
+			// Expected
+		}
+	}
+
+	public void testNestingLimit() {
+		assertRows(repeat("(", 100) + "text = 'Zed'" + repeat(")", 100), null, 4);
+		assertRows(repeat("NOT ", 100) + "text = 'Zed'", null, 4);
+		for (String selection : new String[] { repeat("(", 100000) + "text = 'Zed'",
+				repeat("NOT ", 100000) + "text = 'Zed'",
+				repeat("NOT (", 51) + "text = 'Zed'" + repeat(")", 51) }) {
+			try {
+				SelectionPredicate.compile(selection);
+				fail("Accepted a selection nested " + selection.length() + " deep");
+			} catch (IllegalArgumentException e) {
+				// Expected
+			}
+		}
+	}
+
+	private static String repeat(String text, int count) {
+		StringBuilder builder = new StringBuilder(text.length() * count);
+		for (int i = 0; i < count; i++) {
+			builder.append(text);
+		}
+		return builder.toString();
+	}
+
+	private void assertRows(String selection, String[] args, int... expected) {
+		String[] selectionArgs = new String[1 + (args == null ? 0 : args.length)];
+		selectionArgs[0] = "ACTION_ID";
+		if (args != null) {
+			System.arraycopy(args, 0, selectionArgs, 1, args.length);
+		}
+		int[] rows = SelectionPredicate.compile(selection).filter(_table, null, selectionArgs, 1);
+		assertTrue(selection + " matched " + Arrays.toString(rows),
+				Arrays.equals(expected, rows));
+	}
+}
@@ -0,0 +1,98 @@
+package com.filecraft.helloworld.test;
+
+import android.net.Uri;
+import android.test.AndroidTestCase;
+import android.util.Log;
+
+import com.filecraft.helloworld.FileCraftContract;
+import com.filecraft.helloworld.FileCraftContract.Authority;
+import com.filecraft.helloworld.FileCraftContract.UriMatcherEntry;
+import com.filecraft.helloworld.UriRouter;
+
+/**
+ * Compares UriRouter against the UriMatcher path the providers used before. Results are logged
+ * under the UriRouterBenchmark tag.
+ */
+public class UriRouterBenchmark extends AndroidTestCase {
+
+	private static final String TAG = UriRouterBenchmark.class.getSimpleName();
+
+	private static final int WARMUP_ITERATIONS = 2000;
+	private static final int ITERATIONS = 20000;
+
+	private Uri[] _uris;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		UriMatcherEntry[] entries = UriMatcherEntry.values();
+		Authority[] authorities = Authority.values();
+		_uris = new Uri[entries.length * authorities.length + 1];
+		int i = 0;
+		for (Authority authority : authorities) {
+			for (UriMatcherEntry entry : entries) {
+				String path = entry.path.replace("#", String.valueOf(i));
+				_uris[i++] = Uri.withAppendedPath(authority.contentUri, path);
+			}
+		}
+		_uris[i] = Uri.withAppendedPath(Authority.CUSTOM_CURSOR_A.contentUri, "unknown");
+		// Uri caches its parsed parts, so parse them before timing either path
+		for (Uri uri : _uris) {
+			uri.getPathSegments();
+			uri.getAuthority();
+			uri.getPath();
+		}
+	}
+
+	public void testRouterMatchesUriMatcher() {
+		for (Uri uri : _uris) {
+			assertEquals(uri.toString(), matchWithUriMatcher(uri), UriRouter.match(uri));
+		}
+	}
+
+	public void testRouterThroughput() {
+		runUriMatcher(WARMUP_ITERATIONS);
+		runRouter(WARMUP_ITERATIONS);
+
+		long start = System.nanoTime();
+		int matcherHits = runUriMatcher(ITERATIONS);
+		long matcherNanos = System.nanoTime() - start;
+
+		start = System.nanoTime();
+		int routerHits = runRouter(ITERATIONS);
+		long routerNanos = System.nanoTime() - start;
+
+		assertEquals(matcherHits, routerHits);
+		long operations = (long) ITERATIONS * _uris.length;
+		Log.i(TAG, "UriMatcher: " + (matcherNanos / operations) + " ns/op, UriRouter: " +
+				(routerNanos / operations) + " ns/op");
+	}
+
+	private int runUriMatcher(int iterations) {
+		int hits = 0;
+		for (int i = 0; i < iterations; i++) {
+			for (Uri uri : _uris) {
+				if (matchWithUriMatcher(uri) != null) {
+					hits++;
+				}
+			}
+		}
+		return hits;
+	}
+
+	private int runRouter(int iterations) {
+		int hits = 0;
+		for (int i = 0; i < iterations; i++) {
+			for (Uri uri : _uris) {
+				if (UriRouter.match(uri) != null) {
+					hits++;
+				}
+			}
+		}
+		return hits;
+	}
+
+	private static UriMatcherEntry matchWithUriMatcher(Uri uri) {
+		return UriMatcherEntry.getEntryFromTableId(FileCraftContract.URI_MATCHER.match(uri));
+	}
+}
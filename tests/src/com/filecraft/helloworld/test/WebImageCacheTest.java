@@ -0,0 +1,237 @@
+package com.filecraft.helloworld.test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.Arrays;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import android.os.ParcelFileDescriptor;
+import android.test.AndroidTestCase;
+
+import com.filecraft.helloworld.WebImageCache;
+
+/**
+ * Runs WebImageCache against a local http server standing in for the image host.
+ */
+public class WebImageCacheTest extends AndroidTestCase {
+
+	private static final byte[] BODY = "not really an image".getBytes();
+	private static final String ETAG = "\"v1\"";
+
+	private File _directory;
+	private StandInServer _server;
+
+	@Override
+	protected void setUp() throws Exception {
+		super.setUp();
+		_directory = new File(getContext().getCacheDir(), "web_image_cache_test");
+		deleteDirectory();
+		_server = new StandInServer();
+		_server.start();
+	}
+
+	@Override
+	protected void tearDown() throws Exception {
+		_server.close();
+		deleteDirectory();
+		super.tearDown();
+	}
+
+	public void testConcurrentOpensShareOneDownload() throws Exception {
+		final WebImageCache cache = new WebImageCache(_directory, 1024 * 1024);
+		final String url = _server.getUrl("/shared.png");
+		_server.responseDelayMs = 300;
+		final int threadCount = 8;
+		final CountDownLatch start = new CountDownLatch(1);
+		final AtomicInteger matches = new AtomicInteger();
+		Thread[] threads = new Thread[threadCount];
+		for (int i = 0; i < threadCount; i++) {
+			threads[i] = new Thread() {
+				@Override
+				public void run() {
+					try {
+						start.await();
+						if (Arrays.equals(BODY, read(cache.open(url)))) {
+							matches.incrementAndGet();
+						}
+					} catch (Exception e) {
+						// Counted as a mismatch
+					}
+				}
+			};
+			threads[i].start();
+		}
+		start.countDown();
+		for (Thread thread : threads) {
+			thread.join();
+		}
+		assertEquals(threadCount, matches.get());
+		assertEquals(1, _server.requestCount.get());
+	}
+
+	public void testFreshEntryIsServedFromDisk() throws Exception {
+		WebImageCache cache = new WebImageCache(_directory, 1024 * 1024);
+		String url = _server.getUrl("/fresh.png");
+		_server.cacheControl = "max-age=3600";
+		assertTrue(Arrays.equals(BODY, read(cache.open(url))));
+		assertTrue(Arrays.equals(BODY, read(cache.open(url))));
+		assertEquals(1, _server.requestCount.get());
+		assertEquals("image/png", cache.getMimeType(url));
+	}
+
+	public void testExpiredEntryIsRevalidated() throws Exception {
+		WebImageCache cache = new WebImageCache(_directory, 1024 * 1024);
+		String url = _server.getUrl("/revalidated.png");
+		_server.cacheControl = "no-cache";
+		assertTrue(Arrays.equals(BODY, read(cache.open(url))));
+		assertNull(_server.lastIfNoneMatch);
+
+		assertTrue(Arrays.equals(BODY, read(cache.open(url))));
+		assertEquals(2, _server.requestCount.get());
+		assertEquals(ETAG, _server.lastIfNoneMatch);
+		assertEquals(1, _server.notModifiedCount.get());
+	}
+
+	public void testEntriesSurviveRestart() throws Exception {
+		String url = _server.getUrl("/restart.png");
+		_server.cacheControl = "max-age=3600";
+		read(new WebImageCache(_directory, 1024 * 1024).open(url));
+		assertTrue(Arrays.equals(BODY, read(new WebImageCache(_directory, 1024 * 1024).open(url))));
+		assertEquals(1, _server.requestCount.get());
+	}
+
+	public void testLeastRecentlyUsedEntryIsEvicted() throws Exception {
+		// Room for two bodies
+		WebImageCache cache = new WebImageCache(_directory, BODY.length * 2 + BODY.length / 2);
+		_server.cacheControl = "max-age=3600";
+		String first = _server.getUrl("/first.png");
+		String second = _server.getUrl("/second.png");
+		String third = _server.getUrl("/third.png");
+		read(cache.open(first));
+		read(cache.open(second));
+		read(cache.open(first));
+		read(cache.open(third));
+		assertEquals(3, _server.requestCount.get());
+
+		// second was the least recently used
+		read(cache.open(first));
+		assertEquals(3, _server.requestCount.get());
+		read(cache.open(second));
+		assertEquals(4, _server.requestCount.get());
+	}
+
+	private static byte[] read(ParcelFileDescriptor fd) throws IOException {
+		InputStream in = new ParcelFileDescriptor.AutoCloseInputStream(fd);
+		try {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[1024];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return out.toByteArray();
+		} finally {
+			in.close();
+		}
+	}
+
+	private void deleteDirectory() {
+		File[] files = _directory.listFiles();
+		if (files != null) {
+			for (File file : files) {
+				file.delete();
+			}
+		}
+		_directory.delete();
+	}
+
+	/**
+	 * Serves BODY with an ETag for every path, and answers 304 when the request carries the
+	 * same ETag.
+	 */
+	private static final class StandInServer extends Thread {
+		final AtomicInteger requestCount = new AtomicInteger();
+		final AtomicInteger notModifiedCount = new AtomicInteger();
+		volatile String cacheControl = "no-cache";
+		volatile String lastIfNoneMatch;
+		volatile long responseDelayMs = 0;
+
+		private final ServerSocket _socket;
+
+		StandInServer() throws IOException {
+			_socket = new ServerSocket(0, 16, InetAddress.getByName("127.0.0.1"));
+		}
+
+		String getUrl(String path) {
+			return "http://127.0.0.1:" + _socket.getLocalPort() + path;
+		}
+
+		void close() throws IOException {
+			_socket.close();
+		}
+
+		@Override
+		public void run() {
+			while (true) {
+				try {
+					Socket client = _socket.accept();
+					try {
+						respond(client);
+					} finally {
+						client.close();
+					}
+				} catch (IOException e) {
+					// Closed by tearDown()
+					return;
+				}
+			}
+		}
+
+		private void respond(Socket client) throws IOException {
+			BufferedReader reader = new BufferedReader(new InputStreamReader(
+					client.getInputStream(), "US-ASCII"));
+			String ifNoneMatch = null;
+			String line = reader.readLine();
+			while ((line = reader.readLine()) != null && line.length() > 0) {
+				if (line.regionMatches(true, 0, "If-None-Match:", 0, 14)) {
+					ifNoneMatch = line.substring(14).trim();
+				}
+			}
+			requestCount.incrementAndGet();
+			lastIfNoneMatch = ifNoneMatch;
+			if (responseDelayMs > 0) {
+				try {
+					Thread.sleep(responseDelayMs);
+				} catch (InterruptedException e) {
+					return;
+				}
+			}
+			OutputStream out = client.getOutputStream();
+			if (ETAG.equals(ifNoneMatch)) {
+				notModifiedCount.incrementAndGet();
+				out.write(("HTTP/1.1 304 Not Modified\r\n"
+						+ "ETag: " + ETAG + "\r\n"
+						+ "Cache-Control: " + cacheControl + "\r\n"
+						+ "Connection: close\r\n\r\n").getBytes("US-ASCII"));
+			} else {
+				out.write(("HTTP/1.1 200 OK\r\n"
+						+ "Content-Type: image/png\r\n"
+						+ "Content-Length: " + BODY.length + "\r\n"
+						+ "ETag: " + ETAG + "\r\n"
+						+ "Cache-Control: " + cacheControl + "\r\n"
+						+ "Connection: close\r\n\r\n").getBytes("US-ASCII"));
+				out.write(BODY);
+			}
+			out.flush();
+		}
+	}
+}
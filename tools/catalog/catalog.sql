@@ -0,0 +1,204 @@
+-- Prebuilt catalog database shipped as assets/catalog.db and served by SqliteCursorProvider.
+--
+-- Rebuild after editing:
+--   rm -f assets/catalog.db && sqlite3 assets/catalog.db < tools/catalog/catalog.sql
+--
+-- The rows mirror the in-memory catalog (GridItem, GalleryItem, ...) and the quiz decks in
+-- tools/decks. Resource files are referenced by name through android.resource:// uris since
+-- resource ids change between builds. Bump user_version together with
+-- CatalogDatabase.DATABASE_VERSION so that installed copies are replaced.
+
+PRAGMA user_version = 3;
+
+BEGIN TRANSACTION;
+
+CREATE TABLE android_metadata (locale TEXT);
+INSERT INTO android_metadata VALUES ('en_US');
+
+-- Every table served through a UriMatcherEntry. A row belongs to the table table_name and to
+-- the action id passed as selectionArgs[0] (parent_action_id, empty for the list table).
+-- Positions within a table and action id run from 0 without gaps; paged queries rely on it.
+CREATE TABLE catalog (
+	table_name TEXT NOT NULL,
+	parent_action_id TEXT NOT NULL,
+	position INTEGER NOT NULL,
+	_id TEXT NOT NULL,
+	content_path TEXT,
+	content_type INTEGER,
+	text TEXT,
+	action_type INTEGER,
+	action_id TEXT,
+	version INTEGER NOT NULL DEFAULT 0,
+	list_name TEXT,
+	list_subtext TEXT,
+	view_uri TEXT,
+	title TEXT,
+	description TEXT,
+	quiz_question TEXT,
+	quiz_subtext TEXT,
+	answer_text TEXT
+);
+
+-- Table queries and item uris
+CREATE UNIQUE INDEX catalog_position ON catalog (table_name, parent_action_id, position);
+
+-- Sorted table queries (sortOrder), one index per sortable column. Ties are ordered by
+-- position so that the index order matches SortOrder and keyset paging.
+CREATE INDEX catalog_text ON catalog (table_name, parent_action_id, text, position);
+CREATE INDEX catalog_content_type ON catalog (table_name, parent_action_id, content_type, position);
+CREATE INDEX catalog_action_type ON catalog (table_name, parent_action_id, action_type, position);
+CREATE INDEX catalog_list_name ON catalog (table_name, parent_action_id, list_name, position);
+
+-- Quiz answer lookups by question action id
+CREATE INDEX catalog_action_id ON catalog (table_name, action_id);
+
+-- list
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, list_name, list_subtext) VALUES ('list', '', 0, '0', 'android.resource://com.filecraft.helloworld/raw/android_svg', 4, 1, 'INTRO', 'Tutorial', 'HowTo Build Your Own FileCraft Plugin App');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, list_name, list_subtext) VALUES ('list', '', 1, '1', 'android.resource://com.filecraft.helloworld/drawable/ic_launcher', 1, 1, 'SAMPLES', 'Examples', 'Examples of what you can build through a content provider.');
+
+-- grid
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'INTRO', 0, '0', 'android.resource://com.filecraft.helloworld/raw/android_svg', 4, 'Build Your First Android App', 2, 'WEB_ANDROID_SETUP');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'INTRO', 1, '1', 'android.resource://com.filecraft.helloworld/raw/android_svg', 4, 'Read About ContentProviders', 2, 'WEB_CONTENTPROVIDER_DOCUMENTATION');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'INTRO', 2, '2', 'android.resource://com.filecraft.helloworld/raw/octocat_svg', 4, 'Example App on GitHub', 2, 'WEB_GITHUB_TUTORIAL');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 0, '0', 'android.resource://com.filecraft.helloworld/raw/up_arrow_svg', 4, 'Go to nested grid', 3, 'NESTED_GRID');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 1, '1', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 'Quiz: Misc Japanese Vocab', 4, 'JAPANESE_VOCAB_SAMPLE');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 2, '2', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 'Quiz: Basic Japanese Sentences', 4, 'JAPANESE_BASICS');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 3, '3', 'android.resource://com.filecraft.helloworld/raw/web_svg', 4, 'Google Play Web Link', 2, 'WEB_GOOGLE_PLAY');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 4, '4', 'android.resource://com.filecraft.helloworld/raw/web_svg', 4, 'GitHub Web Link', 2, 'WEB_GITHUB');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 5, '5', 'android.resource://com.filecraft.helloworld/raw/gallery_svg', 4, 'Gallery: SVG, PNG, and web image', 1, 'ALL_IMAGE_TYPES');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 6, '6', 'android.resource://com.filecraft.helloworld/raw/gallery_svg', 4, 'Gallery: SVG basic', 1, 'SVG_BASIC_ONLY');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 7, '7', 'android.resource://com.filecraft.helloworld/raw/gallery_svg', 4, 'Gallery: Web image', 1, 'WEB_ONLY');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 8, '8', 'android.resource://com.filecraft.helloworld/raw/gallery_svg', 4, 'Gallery: PNG', 1, 'PNG_ONLY');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'SAMPLES', 9, '9', 'android.resource://com.filecraft.helloworld/raw/gallery_svg', 4, 'Gallery: Image and Text', 1, 'IMAGE_TEXT_MIX');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text, action_type, action_id) VALUES ('grid', 'NESTED_GRID', 0, '0', 'android.resource://com.filecraft.helloworld/raw/up_arrow_svg', 4, 'Return to previous grid', 3, 'SAMPLES');
+
+-- gallery
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'ALL_IMAGE_TYPES', 0, '0', 'android.resource://com.filecraft.helloworld/raw/image_svg', 4, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'ALL_IMAGE_TYPES', 1, '1', 'android.resource://com.filecraft.helloworld/raw/image', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'ALL_IMAGE_TYPES', 2, '2', 'content://com.filecraft.helloworld.custom.cursor.a/web_image/0', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'SVG_BASIC_ONLY', 0, '0', 'android.resource://com.filecraft.helloworld/raw/download_svg', 4, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'SVG_BASIC_ONLY', 1, '1', 'android.resource://com.filecraft.helloworld/raw/gallery_svg', 4, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'SVG_BASIC_ONLY', 2, '2', 'android.resource://com.filecraft.helloworld/raw/image_svg', 4, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'SVG_BASIC_ONLY', 3, '3', 'android.resource://com.filecraft.helloworld/raw/web_svg', 4, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'PNG_ONLY', 0, '0', 'android.resource://com.filecraft.helloworld/drawable/ic_launcher', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'PNG_ONLY', 1, '1', 'android.resource://com.filecraft.helloworld/raw/download', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'PNG_ONLY', 2, '2', 'android.resource://com.filecraft.helloworld/raw/gallery', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'PNG_ONLY', 3, '3', 'android.resource://com.filecraft.helloworld/raw/image', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'PNG_ONLY', 4, '4', 'android.resource://com.filecraft.helloworld/raw/web', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'WEB_ONLY', 0, '0', 'https://www.google.com/favicon.ico', 2, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'WEB_ONLY', 1, '1', 'content://com.filecraft.helloworld.custom.cursor.a/web_image/0', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'WEB_ONLY', 2, '2', 'content://com.filecraft.helloworld.custom.cursor.a/web_image/0', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'WEB_ONLY', 3, '3', 'content://com.filecraft.helloworld.custom.cursor.a/web_image/0', 1, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'IMAGE_TEXT_MIX', 0, '0', 'android.resource://com.filecraft.helloworld/raw/image_svg', 4, '<b>Feature Description:</b> <li>Screen is divided evenly between an image and text. <li>Text becomes scrollable if it will not fit on the screen. <li>Some html formatting is supported. Check Android''s Html.fromHtml() documentation for information on what should work.');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'IMAGE_TEXT_MIX', 1, '1', 'android.resource://com.filecraft.helloworld/raw/gallery_svg', 4, NULL);
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'IMAGE_TEXT_MIX', 2, '2', 'android.resource://com.filecraft.helloworld/raw/download_svg', 4, '<b>Feature Description:</b> <li>Screen is divided evenly between an image and text. <li>Text becomes scrollable if it will not fit on the screen. <li>Some html formatting is supported. Check Android''s Html.fromHtml() documentation for information on what should work.');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, text) VALUES ('gallery', 'IMAGE_TEXT_MIX', 3, '3', 'android.resource://com.filecraft.helloworld/raw/web_svg', 4, NULL);
+
+-- view
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_type, view_uri) VALUES ('view', 'WEB_GITHUB_TUTORIAL', 0, '0', 1, 'https://github.com/b3ntt1nc4n/filecraft-contentprovider-intro');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_type, view_uri) VALUES ('view', 'WEB_ANDROID_SETUP', 0, '0', 1, 'http://developer.android.com/training/basics/firstapp/index.html');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_type, view_uri) VALUES ('view', 'WEB_CONTENTPROVIDER_DOCUMENTATION', 0, '0', 1, 'http://developer.android.com/guide/topics/providers/content-providers.html');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_type, view_uri) VALUES ('view', 'WEB_GOOGLE_PLAY', 0, '0', 1, 'https://play.google.com/store');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_type, view_uri) VALUES ('view', 'WEB_GITHUB', 0, '0', 1, 'https://github.com/');
+
+-- quiz
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_id, title, description) VALUES ('quiz', 'JAPANESE_VOCAB_SAMPLE', 0, '0', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 'JAPANESE_VOCAB_SAMPLE', 'Quiz: Misc Japanese Vocab', 'Multiple choice. Select the correct translation.');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_id, title, description) VALUES ('quiz', 'JAPANESE_BASICS', 0, '0', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 'JAPANESE_BASICS', 'Quiz: Basic Japanese Sentences', 'Multiple choice. Select the correct translation.');
+
+-- quiz_questions, one row per deck entry. Questions are drawn at random by the provider.
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 0, '0', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'YES', 'yes', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 1, '1', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'NO', 'no', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 2, '2', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'COMPUTER', 'computer', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 3, '3', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'CAT', 'cat', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 4, '4', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'DOG', 'dog', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 5, '5', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'FOOD', 'food', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 6, '6', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'DRINK', 'drink', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 7, '7', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'TEACHER', 'teacher', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 8, '8', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'THANK_YOU', 'thank you', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 9, '9', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'SORRY', 'I am sorry / excuse me', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 10, '10', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'EXCUSE_ME', '(eh,) excuse me', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 11, '11', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'YOU_ARE_WELCOME', 'you are welcome', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 12, '12', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'GOOD_MORNING', 'good morning', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 13, '13', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'GOOD_AFTERNOON', 'good afternoon', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 14, '14', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'GOOD_EVENING', 'good evening', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 15, '15', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'OH', 'oh', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 16, '16', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WELCOME_HOME', 'welcome back / welcome home', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 17, '17', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'THANK_YOU_ALLOWING_ME_IN', 'Excuse me for disturbing you / Greeting when entering someone''s home', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 18, '18', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'IM_BACK', 'I''m back! / I''m home!', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 19, '19', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'RED', 'red', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 20, '20', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'GREEN', 'green', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 21, '21', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'BLUE', 'blue', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 22, '22', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'PURPLE', 'purple', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 23, '23', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'BROWN', 'brown', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 24, '24', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'BLACK', 'black', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 25, '25', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WHITE', 'white', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 26, '26', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'GOLD', 'gold', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 27, '27', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'SILVER', 'silver', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 28, '28', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'ORANGE', 'orange', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_VOCAB_SAMPLE', 29, '29', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'GREY', 'grey', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 0, '0', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'PLEASE_GIVE_ME', 'Please give me water.', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 1, '1', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'IS_THERE', 'Is there food?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 2, '2', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'HOW_MUCH', 'How much does the beer cost?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 3, '3', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WHERE_IS', 'Where is the toilet?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 4, '4', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WHAT_IS_YOUR_MAJOR', 'What is your [school] major?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 5, '5', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WHAT_YEAR_ARE_YOU', 'What is your year [in school]?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 6, '6', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WHAT_IS_YOUR_JOB', 'What is your job?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 7, '7', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'HOW_OLD_ARE_YOU', 'How old are you?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 8, '8', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'HOW_MUCH_IS_THIS', 'How much does this beer cost?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 9, '9', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WHICH_DIRECTION_IS', 'Which direction is the train station?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 10, '10', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WHAT_TIME_DOES_START', 'What time does the movie start?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 11, '11', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'PLEASE_REPEAT', 'Could you please repeat [what you said]?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 12, '12', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'DID_NOT_UNDERSTAND', 'Sorry, I did not understand [what you said].', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 13, '13', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'HOW_DO_YOU_SAY', 'How do you say ''water'' in Japanese?', '');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, content_path, content_type, action_type, action_id, quiz_question, quiz_subtext) VALUES ('quiz_questions', 'JAPANESE_BASICS', 14, '14', 'android.resource://com.filecraft.helloworld/raw/text_svg', 4, 1, 'WHAT_DO_YOU_DO_FOR_FUN', 'What do you do for fun?', '');
+
+-- quiz_answers, one row per deck entry. Wrong answers are drawn at random by the provider.
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 0, '0', 'YES', 'はい');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 1, '1', 'NO', 'いいえ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 2, '2', 'COMPUTER', 'コンピュータ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 3, '3', 'CAT', 'ねこ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 4, '4', 'DOG', 'いぬ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 5, '5', 'FOOD', 'たべもの');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 6, '6', 'DRINK', 'のみもの');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 7, '7', 'TEACHER', 'せんせい');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 8, '8', 'THANK_YOU', 'ありがと');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 9, '9', 'SORRY', 'すみません');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 10, '10', 'EXCUSE_ME', 'あのう, すみません');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 11, '11', 'YOU_ARE_WELCOME', 'どういたしまして');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 12, '12', 'GOOD_MORNING', 'おはよう');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 13, '13', 'GOOD_AFTERNOON', 'こんにちわ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 14, '14', 'GOOD_EVENING', 'こんばんわ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 15, '15', 'OH', 'ああ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 16, '16', 'WELCOME_HOME', 'おかえりなさい');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 17, '17', 'THANK_YOU_ALLOWING_ME_IN', 'おじゃまします');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 18, '18', 'IM_BACK', 'ただいま');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 19, '19', 'RED', 'あか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 20, '20', 'GREEN', 'みどり');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 21, '21', 'BLUE', 'あお');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 22, '22', 'PURPLE', 'むらさき');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 23, '23', 'BROWN', 'ちゃいろ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 24, '24', 'BLACK', 'くろ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 25, '25', 'WHITE', 'しろ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 26, '26', 'GOLD', 'きん');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 27, '27', 'SILVER', 'ぎん');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 28, '28', 'ORANGE', 'だいだいいろ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_VOCAB', 29, '29', 'GREY', 'はいいろ');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 0, '0', 'PLEASE_GIVE_ME', 'みず おねがいします');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 1, '1', 'IS_THERE', 'たべもの が ありますか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 2, '2', 'HOW_MUCH', 'ビール は いくらですか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 3, '3', 'WHERE_IS', 'トイレ は どこ ですか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 4, '4', 'WHAT_IS_YOUR_MAJOR', 'せんこう は なんですか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 5, '5', 'WHAT_YEAR_ARE_YOU', 'なん ねんせい ですか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 6, '6', 'WHAT_IS_YOUR_JOB', 'しごと は なん ですか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 7, '7', 'HOW_OLD_ARE_YOU', 'なんさい ですか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 8, '8', 'HOW_MUCH_IS_THIS', 'この ビール は いくら ですか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 9, '9', 'WHICH_DIRECTION_IS', 'えき は どちら ですか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 10, '10', 'WHAT_TIME_DOES_START', 'えいが は なんじ に はじまりますか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 11, '11', 'PLEASE_REPEAT', 'もいちど いってください');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 12, '12', 'DID_NOT_UNDERSTAND', 'すみません, わかりません でした');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 13, '13', 'HOW_DO_YOU_SAY', 'water わ にほんご で なんといますか');
+INSERT INTO catalog (table_name, parent_action_id, position, _id, action_id, answer_text) VALUES ('quiz_answers', 'JAPANESE_BASICS', 14, '14', 'WHAT_DO_YOU_DO_FOR_FUN', 'ひまのとき は なに お しますか');
+
+COMMIT;
+
+ANALYZE;
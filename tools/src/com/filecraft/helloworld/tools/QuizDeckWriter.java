@@ -0,0 +1,139 @@
+package com.filecraft.helloworld.tools;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import com.filecraft.helloworld.QuizDeck;
+
+/**
+ * Writes quiz decks in the format read by QuizDeck. Run from the project root to rebuild the
+ * packaged decks:
+ *
+ * javac -d bin/tools core/lib/src/main/java/com/filecraft/helloworld/QuizDeck.java \
+ *     tools/src/com/filecraft/helloworld/tools/QuizDeckWriter.java
+ * java -cp bin/tools com.filecraft.helloworld.tools.QuizDeckWriter \
+ *     tools/decks/japanese_vocab.tsv res/raw/deck_japanese_vocab.mp3
+ *
+ * Decks keep the .mp3 extension so that aapt stores them uncompressed, see QuizAnswerSet.
+ *
+ * Source files are tab separated name, english and japanese columns. Lines starting with # are
+ * ignored.
+ */
+public class QuizDeckWriter {
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: QuizDeckWriter <source.tsv> <deck.mp3>");
+			System.exit(1);
+		}
+		String[][] entries = readTsv(args[0]);
+		OutputStream out = new FileOutputStream(args[1]);
+		try {
+			write(entries, out);
+		} finally {
+			out.close();
+		}
+		System.out.println("Wrote " + entries.length + " entries to " + args[1]);
+	}
+
+	public static String[][] readTsv(String path) throws IOException {
+		ArrayList<String[]> entries = new ArrayList<String[]>();
+		BufferedReader reader = new BufferedReader(
+				new InputStreamReader(new FileInputStream(path), QuizDeck.UTF_8));
+		try {
+			String line;
+			while ((line = reader.readLine()) != null) {
+				if (line.length() == 0 || line.startsWith("#")) {
+					continue;
+				}
+				String[] fields = line.split("\t", -1);
+				if (fields.length != QuizDeck.FIELD_COUNT) {
+					throw new IOException("Expected " + QuizDeck.FIELD_COUNT + " fields: " + line);
+				}
+				entries.add(fields);
+			}
+		} finally {
+			reader.close();
+		}
+		return entries.toArray(new String[entries.size()][]);
+	}
+
+	/**
+	 * @param entries Fields of each entry in QuizDeck.FIELD_* order. Names must be unique.
+	 */
+	public static void write(String[][] entries, OutputStream out) throws IOException {
+		int entryCount = entries.length;
+		int fieldCount = QuizDeck.FIELD_COUNT;
+
+		final byte[][] encoded = new byte[entryCount * fieldCount][];
+		int[] offsets = new int[entryCount * fieldCount + 1];
+		int poolSize = 0;
+		for (int entry = 0; entry < entryCount; entry++) {
+			for (int field = 0; field < fieldCount; field++) {
+				int index = entry * fieldCount + field;
+				encoded[index] = entries[entry][field].getBytes(QuizDeck.UTF_8);
+				offsets[index] = poolSize;
+				poolSize += encoded[index].length;
+			}
+		}
+		offsets[entryCount * fieldCount] = poolSize;
+
+		Integer[] nameOrder = new Integer[entryCount];
+		for (int i = 0; i < entryCount; i++) {
+			nameOrder[i] = i;
+		}
+		final int stride = fieldCount;
+		Arrays.sort(nameOrder, new Comparator<Integer>() {
+			@Override
+			public int compare(Integer a, Integer b) {
+				return compareBytes(encoded[a * stride + QuizDeck.FIELD_NAME],
+						encoded[b * stride + QuizDeck.FIELD_NAME]);
+			}
+		});
+		for (int i = 1; i < entryCount; i++) {
+			if (compareBytes(encoded[nameOrder[i - 1] * stride], encoded[nameOrder[i] * stride]) == 0) {
+				throw new IOException("Duplicate name: " + entries[nameOrder[i]][QuizDeck.FIELD_NAME]);
+			}
+		}
+
+		int poolOffset = QuizDeck.HEADER_BYTES + offsets.length * 4 + entryCount * 4;
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(poolOffset + poolSize);
+		DataOutputStream data = new DataOutputStream(bytes);
+		data.writeInt(QuizDeck.MAGIC);
+		data.writeInt(QuizDeck.VERSION);
+		data.writeInt(entryCount);
+		data.writeInt(fieldCount);
+		data.writeInt(poolOffset);
+		for (int offset : offsets) {
+			data.writeInt(offset);
+		}
+		for (Integer ordinal : nameOrder) {
+			data.writeInt(ordinal);
+		}
+		for (byte[] string : encoded) {
+			data.write(string);
+		}
+		data.flush();
+		bytes.writeTo(out);
+	}
+
+	private static int compareBytes(byte[] a, byte[] b) {
+		int common = Math.min(a.length, b.length);
+		for (int i = 0; i < common; i++) {
+			int difference = (a[i] & 0xFF) - (b[i] & 0xFF);
+			if (difference != 0) {
+				return difference;
+			}
+		}
+		return a.length - b.length;
+	}
+}